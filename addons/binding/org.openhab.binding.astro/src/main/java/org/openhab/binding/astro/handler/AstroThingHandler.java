@@ -14,6 +14,8 @@ import static org.quartz.TriggerBuilder.newTrigger;
 import static org.quartz.impl.matchers.GroupMatcher.jobGroupEquals;
 
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -28,6 +30,7 @@ import org.eclipse.smarthome.core.thing.type.ChannelKind;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.astro.internal.calc.PositionalTable;
 import org.openhab.binding.astro.internal.config.AstroChannelConfig;
 import org.openhab.binding.astro.internal.config.AstroThingConfig;
 import org.openhab.binding.astro.internal.job.AbstractBaseJob;
@@ -58,6 +61,7 @@ public abstract class AstroThingHandler extends BaseThingHandler {
     private int linkedPositionalChannels = 0;
     protected AstroThingConfig thingConfig;
     private Object schedulerLock = new Object();
+    private Map<String, AstroChannelConfig> channelConfigs = new ConcurrentHashMap<String, AstroChannelConfig>();
 
     public AstroThingHandler(Thing thing) {
         super(thing);
@@ -72,6 +76,7 @@ public abstract class AstroThingHandler extends BaseThingHandler {
         String thingUid = getThing().getUID().toString();
         thingConfig = getConfigAs(AstroThingConfig.class);
         thingConfig.setThingUid(thingUid);
+        channelConfigs.clear();
         boolean validConfig = true;
 
         if (StringUtils.trimToNull(thingConfig.getGeolocation()) == null) {
@@ -158,15 +163,33 @@ public abstract class AstroThingHandler extends BaseThingHandler {
     public void publishChannelIfLinked(ChannelUID channelUID) {
         if (isLinked(channelUID.getId()) && getPlanet() != null) {
             try {
-                AstroChannelConfig config = getThing().getChannel(channelUID.getId()).getConfiguration()
-                        .as(AstroChannelConfig.class);
-                updateState(channelUID, PropertyUtils.getState(channelUID, config, getPlanet()));
+                updateState(channelUID, PropertyUtils.getState(channelUID, getChannelConfig(channelUID), getPlanet()));
             } catch (Exception ex) {
                 logger.error("Can't update state for channel " + channelUID + ": " + ex.getMessage(), ex);
             }
         }
     }
 
+    /**
+     * Returns the config of the channel, it is read only once after the thing has been initialized.
+     */
+    private AstroChannelConfig getChannelConfig(ChannelUID channelUID) {
+        AstroChannelConfig config = channelConfigs.get(channelUID.getId());
+        if (config == null) {
+            config = getThing().getChannel(channelUID.getId()).getConfiguration().as(AstroChannelConfig.class);
+            channelConfigs.put(channelUID.getId(), config);
+        }
+        return config;
+    }
+
+    /**
+     * Returns true, if the positional data is updated more often than the samples of the positional tables and is
+     * therefore interpolated from them instead of calculated.
+     */
+    protected boolean isPositionalTableUsed() {
+        return thingConfig.getInterval() < PositionalTable.STEP_MINUTES * 60;
+    }
+
     /**
      * Schedules a positional and a daily job at midnight for astro calculation and starts it immediately too. Removes
      * already scheduled jobs first.
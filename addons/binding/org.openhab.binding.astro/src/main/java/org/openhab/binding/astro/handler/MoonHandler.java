@@ -54,7 +54,13 @@ public class MoonHandler extends AstroThingHandler {
      */
     @Override
     public void publishPositionalInfo() {
-        moonCalc.setPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(), moon);
+        if (isPositionalTableUsed()) {
+            moonCalc.setInterpolatedPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(),
+                    thingConfig.getLongitude(), moon);
+        } else {
+            moonCalc.setPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(),
+                    moon);
+        }
         publishPlanet();
     }
 
@@ -55,8 +55,13 @@ public class SunHandler extends AstroThingHandler {
      */
     @Override
     public void publishPositionalInfo() {
-        sunCalc.setPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(),
-                thingConfig.getAltitude(), sun);
+        if (isPositionalTableUsed()) {
+            sunCalc.setInterpolatedPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(),
+                    thingConfig.getLongitude(), thingConfig.getAltitude(), sun);
+        } else {
+            sunCalc.setPositionalInfo(Calendar.getInstance(), thingConfig.getLatitude(), thingConfig.getLongitude(),
+                    thingConfig.getAltitude(), sun);
+        }
         publishPlanet();
     }
 
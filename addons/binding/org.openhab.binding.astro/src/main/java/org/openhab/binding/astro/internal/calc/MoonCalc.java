@@ -10,6 +10,8 @@ package org.openhab.binding.astro.internal.calc;
 
 import java.math.BigDecimal;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.openhab.binding.astro.internal.model.Eclipse;
 import org.openhab.binding.astro.internal.model.Moon;
@@ -44,6 +46,18 @@ public class MoonCalc {
     protected static final int ECLIPSE_MODE_TOTAL = 1;
     protected static final int ECLIPSE_MODE_RING = 2;
 
+    private static final int TABLE_AZIMUTH = 0;
+    private static final int TABLE_ELEVATION = 1;
+    private static final int TABLE_ILLUMINATION = 2;
+    private static final int TABLE_DISTANCE = 3;
+    private static final int TABLE_AGE = 4;
+    private static final int TABLE_ZODIAC = 5;
+
+    /**
+     * The positional tables of the current day by location, shared by all moon things at the same location.
+     */
+    private static final Map<String, PositionalTable> positionalTables = new HashMap<String, PositionalTable>();
+
     /**
      * Calculates all moon data at the specified coordinates
      */
@@ -112,18 +126,73 @@ public class MoonCalc {
         distance.setKilometer(getDistance(julianDate));
     }
 
+    /**
+     * Sets the moon illumination, distance, phase, position and zodiac, the values are interpolated from the
+     * positional table of the day and the location.
+     */
+    public void setInterpolatedPositionalInfo(Calendar calendar, double latitude, double longitude, Moon moon) {
+        PositionalTable table = getPositionalTable(calendar, latitude, longitude);
+        setMoonPhase(calendar, table.getStepValue(TABLE_AGE, calendar), table.getValue(TABLE_ILLUMINATION, calendar),
+                moon.getPhase());
+
+        Position position = moon.getPosition();
+        position.setAzimuth(table.getAngle(TABLE_AZIMUTH, calendar));
+        position.setElevation(table.getValue(TABLE_ELEVATION, calendar));
+
+        ZodiacSign sign = ZodiacSign.values()[(int) table.getStepValue(TABLE_ZODIAC, calendar)];
+        if (moon.getZodiac().getSign() != sign) {
+            moon.setZodiac(new Zodiac(sign));
+        }
+
+        MoonDistance distance = moon.getDistance();
+        distance.setDate(Calendar.getInstance());
+        distance.setKilometer(table.getValue(TABLE_DISTANCE, calendar));
+    }
+
+    /**
+     * Returns the positional table of the day and the location, it is calculated if it does not exist yet.
+     */
+    private PositionalTable getPositionalTable(Calendar calendar, double latitude, double longitude) {
+        String location = latitude + "," + longitude;
+        synchronized (positionalTables) {
+            PositionalTable table = positionalTables.get(location);
+            if (table == null || !table.covers(calendar)) {
+                PositionalTable.removeExpired(positionalTables, calendar);
+                table = new PositionalTable(calendar, 6);
+                double age = getAge(calendar);
+                Moon moon = new Moon();
+                for (int sample = 0; sample < table.getSampleCount(); sample++) {
+                    double julianDate = DateTimeUtils.dateToJulianDate(table.getSampleTime(sample));
+                    setAzimuthElevationZodiac(julianDate, latitude, longitude, moon);
+                    table.setValue(sample, TABLE_AZIMUTH, moon.getPosition().getAzimuth());
+                    table.setValue(sample, TABLE_ELEVATION, moon.getPosition().getElevation());
+                    table.setValue(sample, TABLE_ILLUMINATION, getIllumination(julianDate));
+                    table.setValue(sample, TABLE_DISTANCE, getDistance(julianDate));
+                    table.setValue(sample, TABLE_AGE, age);
+                    table.setValue(sample, TABLE_ZODIAC, moon.getZodiac().getSign().ordinal());
+                }
+                positionalTables.put(location, table);
+            }
+            return table;
+        }
+    }
+
     /**
      * Calculates the age and the current phase.
      */
     private void setMoonPhase(Calendar calendar, Moon moon) {
-        MoonPhase phase = moon.getPhase();
-        double julianDateEndOfDay = DateTimeUtils.endOfDayDateToJulianDate(calendar);
-        double parentNewMoon = getPreviousPhase(calendar, julianDateEndOfDay, NEW_MOON);
-        double age = Math.abs(parentNewMoon - julianDateEndOfDay);
+        setMoonPhase(calendar, getAge(calendar), getIllumination(DateTimeUtils.dateToJulianDate(calendar)),
+                moon.getPhase());
+    }
+
+    /**
+     * Sets the age, the illumination and the name of the current phase.
+     */
+    private void setMoonPhase(Calendar calendar, double age, double illumination, MoonPhase phase) {
         phase.setAge((int) age);
-        phase.setIllumination(getIllumination(DateTimeUtils.dateToJulianDate(calendar)));
+        phase.setIllumination(illumination);
 
-        int illumination = (int) phase.getIllumination();
+        int illuminationPercent = (int) phase.getIllumination();
         boolean isWaxing = age < (29.530588853 / 2);
         if (DateTimeUtils.isSameDay(calendar, phase.getNew())) {
             phase.setName(MoonPhaseName.NEW);
@@ -133,13 +202,22 @@ public class MoonCalc {
             phase.setName(MoonPhaseName.THIRD_QUARTER);
         } else if (DateTimeUtils.isSameDay(calendar, phase.getFull())) {
             phase.setName(MoonPhaseName.FULL);
-        } else if (illumination >= 0 && illumination < 50) {
+        } else if (illuminationPercent >= 0 && illuminationPercent < 50) {
             phase.setName(isWaxing ? MoonPhaseName.WAXING_CRESCENT : MoonPhaseName.WANING_CRESCENT);
-        } else if (illumination >= 50 && illumination < 100) {
+        } else if (illuminationPercent >= 50 && illuminationPercent < 100) {
             phase.setName(isWaxing ? MoonPhaseName.WAXING_GIBBOUS : MoonPhaseName.WANING_GIBBOUS);
         }
     }
 
+    /**
+     * Calculates the age of the moon in days at the end of the day.
+     */
+    private double getAge(Calendar calendar) {
+        double julianDateEndOfDay = DateTimeUtils.endOfDayDateToJulianDate(calendar);
+        double parentNewMoon = getPreviousPhase(calendar, julianDateEndOfDay, NEW_MOON);
+        return Math.abs(parentNewMoon - julianDateEndOfDay);
+    }
+
     /**
      * Calculates moonrise and moonset.
      */
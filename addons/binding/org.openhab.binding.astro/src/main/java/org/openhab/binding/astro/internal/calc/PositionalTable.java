@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.openhab.binding.astro.internal.util.DateTimeUtils;
+
+/**
+ * Holds positional values of a planet for one day, sampled every {@link #STEP_MINUTES} minutes from midnight. The
+ * values in between are interpolated linearly, so frequent positional updates don't need to calculate the position.
+ *
+ * @author agent - Initial contribution
+ */
+public class PositionalTable {
+    public static final int STEP_MINUTES = 5;
+    private static final long STEP_MILLIS = STEP_MINUTES * 60 * 1000L;
+
+    private final long start;
+    private final long end;
+    private final double[][] values;
+
+    /**
+     * Creates an empty table with the number of columns for the day of the calendar. The last sample is at or after
+     * the next midnight.
+     */
+    public PositionalTable(Calendar calendar, int columns) {
+        Calendar midnight = DateTimeUtils.truncateToMidnight(calendar);
+        start = midnight.getTimeInMillis();
+        midnight.add(Calendar.DATE, 1);
+        end = midnight.getTimeInMillis();
+        int samples = (int) ((end - start + STEP_MILLIS - 1) / STEP_MILLIS) + 1;
+        values = new double[samples][columns];
+    }
+
+    /**
+     * Returns the number of samples.
+     */
+    public int getSampleCount() {
+        return values.length;
+    }
+
+    /**
+     * Returns the time of the sample.
+     */
+    public Calendar getSampleTime(int sample) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(start + sample * STEP_MILLIS);
+        return calendar;
+    }
+
+    /**
+     * Sets the value of the sample in the column.
+     */
+    public void setValue(int sample, int column, double value) {
+        values[sample][column] = value;
+    }
+
+    /**
+     * Returns true, if the calendar is in the day of the table.
+     */
+    public boolean covers(Calendar calendar) {
+        long time = calendar.getTimeInMillis();
+        return time >= start && time < end;
+    }
+
+    /**
+     * Removes the tables of the days before the calendar, e.g. of locations no longer used by any thing.
+     */
+    public static void removeExpired(Map<String, PositionalTable> tables, Calendar calendar) {
+        long time = calendar.getTimeInMillis();
+        Iterator<PositionalTable> iterator = tables.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().end <= time) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the column interpolated linearly at the time of the calendar.
+     */
+    public double getValue(int column, Calendar calendar) {
+        long offset = calendar.getTimeInMillis() - start;
+        int sample = (int) (offset / STEP_MILLIS);
+        double fraction = (double) (offset % STEP_MILLIS) / STEP_MILLIS;
+        double value = values[sample][column];
+        return value + (values[sample + 1][column] - value) * fraction;
+    }
+
+    /**
+     * Returns the angle in degrees of the column interpolated linearly at the time of the calendar. The angle is
+     * interpolated the short way, e.g. from 359° over 0° to 1°.
+     */
+    public double getAngle(int column, Calendar calendar) {
+        long offset = calendar.getTimeInMillis() - start;
+        int sample = (int) (offset / STEP_MILLIS);
+        double fraction = (double) (offset % STEP_MILLIS) / STEP_MILLIS;
+        double angle = values[sample][column];
+        double difference = values[sample + 1][column] - angle;
+        if (difference > 180) {
+            difference -= 360;
+        } else if (difference < -180) {
+            difference += 360;
+        }
+        angle += difference * fraction;
+        return angle < 0 ? angle + 360 : angle >= 360 ? angle - 360 : angle;
+    }
+
+    /**
+     * Returns the value of the column of the last sample before the time of the calendar, for values which can not be
+     * interpolated.
+     */
+    public double getStepValue(int column, Calendar calendar) {
+        long offset = calendar.getTimeInMillis() - start;
+        return values[(int) (offset / STEP_MILLIS)][column];
+    }
+}
@@ -9,6 +9,8 @@
 package org.openhab.binding.astro.internal.calc;
 
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.lang.time.DateUtils;
@@ -55,6 +57,14 @@ public class SunCalc {
     private static final int CURVE_TIME_INTERVAL = 20; // 20 minutes
     private static final double JD_ONE_MINUTE_FRACTION = 1.0 / 60 / 24;
 
+    private static final int TABLE_AZIMUTH = 0;
+    private static final int TABLE_ELEVATION = 1;
+
+    /**
+     * The positional tables of the current day by location, shared by all sun things at the same location.
+     */
+    private static final Map<String, PositionalTable> positionalTables = new HashMap<String, PositionalTable>();
+
     /**
      * Calculates the sun position (azimuth and elevation).
      */
@@ -80,6 +90,44 @@ public class SunCalc {
         setRadiationInfo(calendar, elevation, altitude, sun);
     }
 
+    /**
+     * Sets the sun position (azimuth and elevation) and the radiation data, the position is interpolated from the
+     * positional table of the day and the location.
+     */
+    public void setInterpolatedPositionalInfo(Calendar calendar, double latitude, double longitude, Integer altitude,
+            Sun sun) {
+        PositionalTable table = getPositionalTable(calendar, latitude, longitude);
+        double elevation = table.getValue(TABLE_ELEVATION, calendar);
+
+        Position position = sun.getPosition();
+        position.setAzimuth(table.getAngle(TABLE_AZIMUTH, calendar));
+        position.setElevation(elevation);
+
+        setRadiationInfo(calendar, elevation, altitude, sun);
+    }
+
+    /**
+     * Returns the positional table of the day and the location, it is calculated if it does not exist yet.
+     */
+    private PositionalTable getPositionalTable(Calendar calendar, double latitude, double longitude) {
+        String location = latitude + "," + longitude;
+        synchronized (positionalTables) {
+            PositionalTable table = positionalTables.get(location);
+            if (table == null || !table.covers(calendar)) {
+                PositionalTable.removeExpired(positionalTables, calendar);
+                table = new PositionalTable(calendar, 2);
+                Sun sun = new Sun();
+                for (int sample = 0; sample < table.getSampleCount(); sample++) {
+                    setPositionalInfo(table.getSampleTime(sample), latitude, longitude, null, sun);
+                    table.setValue(sample, TABLE_AZIMUTH, sun.getPosition().getAzimuth());
+                    table.setValue(sample, TABLE_ELEVATION, sun.getPosition().getElevation());
+                }
+                positionalTables.put(location, table);
+            }
+            return table;
+        }
+    }
+
     /**
      * Calculates sun radiation data.
      */
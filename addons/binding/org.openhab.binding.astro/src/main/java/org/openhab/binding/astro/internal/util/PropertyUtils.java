@@ -12,6 +12,8 @@ import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Calendar;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
@@ -23,11 +25,13 @@ import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.astro.internal.config.AstroChannelConfig;
 
 /**
- * Methods to get the value from a property of an object.
+ * Methods to get the value from a property of an object. The getters of a property are looked up only once per class
+ * and property and are cached, every following call just invokes them.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class PropertyUtils {
+    private static final Map<String, Method[]> getterCache = new ConcurrentHashMap<String, Method[]>();
 
     /**
      * Returns the state of the channel.
@@ -54,22 +58,43 @@ public class PropertyUtils {
      * example rise.start, the methods getRise().getStart() are called.
      */
     public static Object getPropertyValue(ChannelUID channelUID, Object instance) throws Exception {
-        String[] properties = StringUtils.split(channelUID.getId(), "#");
-        return getPropertyValue(instance, properties, 0);
+        Object result = instance;
+        for (Method getter : getGetters(instance.getClass(), channelUID.getId())) {
+            if (result == null) {
+                return null;
+            }
+            result = getter.invoke(result, (Object[]) null);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the getters of the nested properties from the cache, they are looked up if the property is used the
+     * first time.
+     */
+    private static Method[] getGetters(Class<?> instanceClass, String propertyId) throws Exception {
+        String key = instanceClass.getName() + ":" + propertyId;
+        Method[] getters = getterCache.get(key);
+        if (getters == null) {
+            getters = findGetters(instanceClass, StringUtils.split(propertyId, "#"));
+            getterCache.put(key, getters);
+        }
+        return getters;
     }
 
     /**
-     * Iterates through the nested properties and returns the getter value.
+     * Iterates through the nested properties and returns their getters, each one is looked up in the return type of
+     * the previous getter.
      */
     @SuppressWarnings("all")
-    private static Object getPropertyValue(Object instance, String[] properties, int nestedIndex) throws Exception {
-        String propertyName = properties[nestedIndex];
-        Method m = instance.getClass().getMethod(toGetterString(propertyName), null);
-        Object result = m.invoke(instance, (Object[]) null);
-        if (++nestedIndex < properties.length) {
-            return getPropertyValue(result, properties, nestedIndex);
+    private static Method[] findGetters(Class<?> instanceClass, String[] properties) throws Exception {
+        Method[] getters = new Method[properties.length];
+        Class<?> type = instanceClass;
+        for (int i = 0; i < properties.length; i++) {
+            getters[i] = type.getMethod(toGetterString(properties[i]), null);
+            type = getters[i].getReturnType();
         }
-        return result;
+        return getters;
     }
 
     /**
@@ -9,7 +9,13 @@
 package org.openhab.binding.homematic.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
@@ -242,6 +248,32 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStatesUpdated(Collection<HmDatapoint> dps) {
+        Map<HmDevice, List<HmDatapoint>> dpsByDevice = new LinkedHashMap<HmDevice, List<HmDatapoint>>();
+        for (HmDatapoint dp : dps) {
+            HmDevice device = dp.getChannel().getDevice();
+            List<HmDatapoint> deviceDps = dpsByDevice.get(device);
+            if (deviceDps == null) {
+                deviceDps = new ArrayList<HmDatapoint>();
+                dpsByDevice.put(device, deviceDps);
+            }
+            deviceDps.add(dp);
+        }
+        for (Entry<HmDevice, List<HmDatapoint>> entry : dpsByDevice.entrySet()) {
+            Thing hmThing = getThingByUID(UidUtils.generateThingUID(entry.getKey(), getThing()));
+            if (hmThing != null) {
+                HomematicThingHandler thingHandler = (HomematicThingHandler) hmThing.getHandler();
+                if (thingHandler != null) {
+                    thingHandler.updateDatapointStates(entry.getValue());
+                }
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
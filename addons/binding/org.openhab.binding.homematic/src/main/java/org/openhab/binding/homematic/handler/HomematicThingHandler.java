@@ -13,6 +13,8 @@ import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -217,29 +219,51 @@ public class HomematicThingHandler extends BaseThingHandler {
      * Sets the configuration or evaluates the channel for this datapoint and updates the state of the channel.
      */
     protected void updateDatapointState(HmDatapoint dp) {
-        try {
-            if (HomematicTypeGeneratorImpl.isStatusDatapoint(dp)) {
-                updateStatus(dp.getChannel().getDevice());
+        updateDatapointStates(Collections.singletonList(dp));
+    }
+
+    /**
+     * Sets the configuration or evaluates the channels for all datapoints of this thing and updates the states of the
+     * channels. The thing status and the configuration are updated only once per batch.
+     */
+    protected void updateDatapointStates(Collection<HmDatapoint> dps) {
+        boolean statusUpdated = false;
+        Configuration config = null;
+        for (HmDatapoint dp : dps) {
+            try {
+                if (!statusUpdated && HomematicTypeGeneratorImpl.isStatusDatapoint(dp)) {
+                    updateStatus(dp.getChannel().getDevice());
+                    statusUpdated = true;
+                }
+                if (dp.getParamsetType() == HmParamsetType.MASTER) {
+                    // update configuration
+                    if (config == null) {
+                        config = editConfiguration();
+                    }
+                    config.put(MetadataUtils.getParameterName(dp),
+                            dp.isEnumType() ? dp.getOptionValue() : dp.getValue());
+                } else if (!HomematicTypeGeneratorImpl.isIgnoredDatapoint(dp)) {
+                    // update channel
+                    ChannelUID channelUID = UidUtils.generateChannelUID(dp, thing.getUID());
+                    Channel channel = thing.getChannel(channelUID.getId());
+                    if (channel != null) {
+                        updateChannelState(dp, channel);
+                    } else {
+                        logger.warn("Channel not found for datapoint '{}'", new HmDatapointInfo(dp));
+                    }
+                }
+            } catch (BridgeHandlerNotAvailableException ex) {
+                // ignore
+            } catch (Exception ex) {
+                logger.error(ex.getMessage(), ex);
             }
-            if (dp.getParamsetType() == HmParamsetType.MASTER) {
-                // update configuration
-                Configuration config = editConfiguration();
-                config.put(MetadataUtils.getParameterName(dp), dp.isEnumType() ? dp.getOptionValue() : dp.getValue());
+        }
+        if (config != null) {
+            try {
                 updateConfiguration(config);
-            } else if (!HomematicTypeGeneratorImpl.isIgnoredDatapoint(dp)) {
-                // update channel
-                ChannelUID channelUID = UidUtils.generateChannelUID(dp, thing.getUID());
-                Channel channel = thing.getChannel(channelUID.getId());
-                if (channel != null) {
-                    updateChannelState(dp, channel);
-                } else {
-                    logger.warn("Channel not found for datapoint '{}'", new HmDatapointInfo(dp));
-                }
+            } catch (Exception ex) {
+                logger.error(ex.getMessage(), ex);
             }
-        } catch (BridgeHandlerNotAvailableException ex) {
-            // ignore
-        } catch (Exception ex) {
-            logger.error(ex.getMessage(), ex);
         }
     }
 
@@ -26,6 +26,9 @@ public class HomematicConfig {
     public static final String GATEWAY_TYPE_AUTO = "AUTO";
     public static final String GATEWAY_TYPE_CCU = "CCU";
 
+    public static final String BIN_CALLBACK_SERVER_THREAD = "THREAD";
+    public static final String BIN_CALLBACK_SERVER_NIO = "NIO";
+
     private static final int DEFAULT_PORT_RF = 2001;
     private static final int DEFAULT_PORT_WIRED = 2000;
     private static final int DEFAULT_PORT_HMIP = 2010;
@@ -44,9 +47,13 @@ public class HomematicConfig {
     private String callbackHost;
     private int xmlCallbackPort;
     private int binCallbackPort;
+    private String binCallbackServer = BIN_CALLBACK_SERVER_THREAD;
 
     private Integer aliveInterval = 300;
     private int socketMaxAlive = 900;
+    private int socketPoolSize = 2;
+    private int eventQueueSize = 10000;
+    private int eventCoalescingWindow = 0;
     private int timeout = 15;
     private int reconnectInterval = 0;
 
@@ -128,6 +135,27 @@ public class HomematicConfig {
         this.binCallbackPort = binCallbackPort;
     }
 
+    /**
+     * Returns the BIN-RPC callback server implementation.
+     */
+    public String getBinCallbackServer() {
+        return binCallbackServer;
+    }
+
+    /**
+     * Sets the BIN-RPC callback server implementation.
+     */
+    public void setBinCallbackServer(String binCallbackServer) {
+        this.binCallbackServer = binCallbackServer;
+    }
+
+    /**
+     * Returns true, if the non-blocking BIN-RPC callback server should be used.
+     */
+    public boolean isNioBinCallbackServer() {
+        return BIN_CALLBACK_SERVER_NIO.equalsIgnoreCase(binCallbackServer);
+    }
+
     /**
      * Returns the alive interval in seconds.
      */
@@ -157,19 +185,61 @@ public class HomematicConfig {
     }
 
     /**
-     * Returns the max alive time of a socket connection to a Homematic gateway in seconds.
+     * Returns the max idle time of a pooled socket connection to a Homematic gateway in seconds.
      */
     public int getSocketMaxAlive() {
         return socketMaxAlive;
     }
 
     /**
-     * Sets the max alive time of a socket connection to a Homematic gateway in seconds.
+     * Sets the max idle time of a pooled socket connection to a Homematic gateway in seconds.
      */
     public void setSocketMaxAlive(int socketMaxAlive) {
         this.socketMaxAlive = socketMaxAlive;
     }
 
+    /**
+     * Returns the max number of socket connections per port of a Homematic gateway.
+     */
+    public int getSocketPoolSize() {
+        return socketPoolSize;
+    }
+
+    /**
+     * Sets the max number of socket connections per port of a Homematic gateway.
+     */
+    public void setSocketPoolSize(int socketPoolSize) {
+        this.socketPoolSize = socketPoolSize;
+    }
+
+    /**
+     * Returns the max number of pending events received from a Homematic gateway.
+     */
+    public int getEventQueueSize() {
+        return eventQueueSize;
+    }
+
+    /**
+     * Sets the max number of pending events received from a Homematic gateway.
+     */
+    public void setEventQueueSize(int eventQueueSize) {
+        this.eventQueueSize = eventQueueSize;
+    }
+
+    /**
+     * Returns the time in milliseconds events are collected before they are dispatched.
+     */
+    public int getEventCoalescingWindow() {
+        return eventCoalescingWindow;
+    }
+
+    /**
+     * Sets the time in milliseconds events are collected before they are dispatched.
+     */
+    public void setEventCoalescingWindow(int eventCoalescingWindow) {
+        this.eventCoalescingWindow = eventCoalescingWindow;
+    }
+
     /**
      * Returns the timeout for the communication to a Homematic gateway in seconds.
      */
@@ -325,10 +395,13 @@ public class HomematicConfig {
         ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
         tsb.append("gatewayAddress", gatewayAddress).append("callbackHost", callbackHost)
                 .append("xmlCallbackPort", xmlCallbackPort).append("binCallbackPort", binCallbackPort)
+                .append("binCallbackServer", binCallbackServer)
                 .append("gatewayType", gatewayType).append("rfPort", getRfPort()).append("wiredPort", getWiredPort())
                 .append("hmIpPort", getHmIpPort()).append("cuxdPort", getCuxdPort()).append("groupPort", getGroupPort())
                 .append("aliveInterval", aliveInterval).append("reconnectInterval", reconnectInterval)
-                .append("timeout", timeout).append("socketMaxAlive", socketMaxAlive);
+                .append("timeout", timeout).append("socketMaxAlive", socketMaxAlive)
+                .append("socketPoolSize", socketPoolSize).append("eventQueueSize", eventQueueSize)
+                .append("eventCoalescingWindow", eventCoalescingWindow);
         return tsb.toString();
     }
 }
@@ -16,11 +16,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -28,12 +35,15 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.EventDispatcher.EventDispatcherListener;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.XmlRpcClient;
+import org.openhab.binding.homematic.internal.communicator.parser.GetParamsetDescriptionParser;
 import org.openhab.binding.homematic.internal.communicator.server.BinRpcServer;
+import org.openhab.binding.homematic.internal.communicator.server.NioBinRpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.RpcEventListener;
 import org.openhab.binding.homematic.internal.communicator.server.RpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.XmlRpcServer;
@@ -75,11 +85,13 @@ import org.slf4j.LoggerFactory;
  *
  * @author Gerhard Riegler - Initial contribution
  */
-public abstract class AbstractHomematicGateway implements RpcEventListener, HomematicGateway, VirtualGateway {
+public abstract class AbstractHomematicGateway
+        implements RpcEventListener, HomematicGateway, VirtualGateway, EventDispatcherListener {
     private static final Logger logger = LoggerFactory.getLogger(HomematicGateway.class);
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_POOL_NAME = "homematicMetadata";
 
     private Map<TransferMode, RpcClient> rpcClients = new HashMap<TransferMode, RpcClient>();
     private Map<TransferMode, RpcServer> rpcServers = new HashMap<TransferMode, RpcServer>();
@@ -88,7 +100,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private String id;
     private HomematicGatewayListener eventListener;
     private long lastEventTime = System.currentTimeMillis();
-    private DelayedExecuter delayedExecutor = new DelayedExecuter();
+    private DelayedExecuter delayedExecutor = new DelayedExecuter(
+            ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME));
     private Set<HmDatapointInfo> echoEvents = Collections.synchronizedSet(new HashSet<HmDatapointInfo>());
     private ScheduledFuture<?> eventTrackerThread;
     private ScheduledFuture<?> connectionTrackerThread;
@@ -96,7 +109,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<String, HmDevice>());
     private Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<HmInterface, TransferMode>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<VirtualDatapointHandler>();
-    private boolean cancelLoadAllMetadata;
+    private static Map<String, List<VirtualDatapointHandler>> virtualDatapointHandlersByEvent = new HashMap<>();
+    private EventDispatcher eventDispatcher;
+    private volatile boolean cancelLoadAllMetadata;
+    private ParamsetDescriptionCache paramsetDescriptionCache;
     private boolean initialized;
 
     static {
@@ -115,6 +131,18 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         virtualDatapointHandlers.add(new ReloadRssiVirtualDatapointHandler());
         virtualDatapointHandlers.add(new StateContactVirtualDatapointHandler());
         virtualDatapointHandlers.add(new SignalStrengthVirtualDatapointHandler());
+
+        // indexes the virtual datapoints by the names of the datapoints whose events they handle
+        for (VirtualDatapointHandler vdph : virtualDatapointHandlers) {
+            for (String datapointName : vdph.getEventDatapointNames()) {
+                List<VirtualDatapointHandler> handlers = virtualDatapointHandlersByEvent.get(datapointName);
+                if (handlers == null) {
+                    handlers = new ArrayList<VirtualDatapointHandler>();
+                    virtualDatapointHandlersByEvent.put(datapointName, handlers);
+                }
+                handlers.add(vdph);
+            }
+        }
     }
 
     public AbstractHomematicGateway(String id, HomematicConfig config, HomematicGatewayListener eventListener) {
@@ -161,6 +189,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         }
 
         logger.info("{}", config.getGatewayInfo());
+        paramsetDescriptionCache = new ParamsetDescriptionCache(gatewayInfo.getId());
+        eventDispatcher = new EventDispatcher(id, ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME),
+                config.getEventQueueSize(), config.getEventCoalescingWindow(), this);
         StringBuilder sb = new StringBuilder();
         for (Entry<HmInterface, TransferMode> entry : availableInterfaces.entrySet()) {
             sb.append(entry.getKey()).append(":").append(entry.getValue()).append(", ");
@@ -184,6 +215,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         stopWatchdogs();
         delayedExecutor.stop();
         stopServers();
+        if (eventDispatcher != null) {
+            eventDispatcher.stop();
+        }
         stopClients();
         devices.clear();
         echoEvents.clear();
@@ -219,8 +253,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private void startServers() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcServers.containsKey(mode)) {
-                RpcServer rpcServer = mode == TransferMode.XML_RPC ? new XmlRpcServer(this, config)
-                        : new BinRpcServer(this, config);
+                RpcServer rpcServer;
+                if (mode == TransferMode.XML_RPC) {
+                    rpcServer = new XmlRpcServer(this, config);
+                } else if (config.isNioBinCallbackServer()) {
+                    rpcServer = new NioBinRpcServer(this, config);
+                } else {
+                    rpcServer = new BinRpcServer(this, config);
+                }
                 rpcServers.put(mode, rpcServer);
                 rpcServer.start();
             }
@@ -372,49 +412,41 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
+        // loading datapoints for all devices in parallel, the devices are prepared in the order they are loaded
+        ExecutorService executor = ThreadPoolManager.getPool(METADATA_POOL_NAME);
+        CompletionService<HmDevice> completionService = new ExecutorCompletionService<HmDevice>(executor);
+        List<Future<HmDevice>> futures = new ArrayList<Future<HmDevice>>();
+        for (final HmDevice device : deviceDescriptions) {
+            futures.add(completionService.submit(new Callable<HmDevice>() {
+
+                @Override
+                public HmDevice call() throws Exception {
+                    return loadDeviceMetadata(device) ? device : null;
+                }
+            }));
+        }
+
         Set<String> loadedDevices = new HashSet<String>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<String, Collection<HmDatapoint>>();
-        for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints().values());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-                                    datapointsByChannelIdCache.put(channelId, channel.getDatapoints().values());
-                                }
-                            }
-                        }
-                    }
+        try {
+            for (int i = 0; i < futures.size() && !cancelLoadAllMetadata; i++) {
+                HmDevice device = completionService.take().get();
+                if (device != null && !cancelLoadAllMetadata) {
                     prepareDevice(device);
                     loadedDevices.add(device.getAddress());
                     eventListener.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
                 }
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancelLoadAllMetadata = true;
+        } catch (ExecutionException ex) {
+            logger.warn("Can't load devices from gateway '{}': {}", id, ex.getMessage(), ex);
+            cancelLoadAllMetadata = true;
+        } finally {
+            for (Future<HmDevice> future : futures) {
+                future.cancel(false);
+            }
+            paramsetDescriptionCache.save();
         }
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
@@ -422,18 +454,71 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     }
 
     /**
-     * Loads all datapoints from the gateway.
+     * Loads the datapoints of all channels into the device, returns false if the loading has been cancelled or
+     * failed.
      */
-    protected void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+    private boolean loadDeviceMetadata(HmDevice device) {
+        if (cancelLoadAllMetadata) {
+            return false;
+        }
         try {
-            getRpcClient(channel.getDevice().getHmInterface()).addChannelDatapoints(channel, paramsetType);
-        } catch (UnknownParameterSetException ex) {
-            logger.info(
-                    "Can not load metadata for device: {}, channel: {}, paramset: {}, maybe there are no channels available",
-                    channel.getDevice().getAddress(), channel.getNumber(), paramsetType);
+            logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+            if (device.isGatewayExtras()) {
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+            } else {
+                for (HmChannel channel : device.getChannels()) {
+                    if (cancelLoadAllMetadata) {
+                        return false;
+                    }
+                    logger.trace("  Loading channel {}", channel);
+                    // speed up metadata generation a little bit for equal channels in the gateway devices
+                    if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
+                            || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
+                        HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                        cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints().values());
+                    } else {
+                        logger.trace("    Loading datapoints into channel {}", channel);
+                        addChannelDatapoints(channel, HmParamsetType.MASTER);
+                        addChannelDatapoints(channel, HmParamsetType.VALUES);
+                    }
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                    ex.getMessage());
+            return false;
         }
     }
 
+    /**
+     * Loads all datapoints from the paramset description cache or from the gateway.
+     */
+    protected void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+        Object[] description = paramsetDescriptionCache.get(channel, paramsetType);
+        if (description == null) {
+            try {
+                description = getRpcClient(channel.getDevice().getHmInterface()).getParamsetDescription(channel,
+                        paramsetType);
+            } catch (UnknownParameterSetException ex) {
+                addUnknownChannelDatapoints(channel, paramsetType);
+                return;
+            }
+            paramsetDescriptionCache.put(channel, paramsetType, description);
+        }
+        new GetParamsetDescriptionParser(channel, paramsetType).parse(description);
+    }
+
+    /**
+     * Called if the gateway does not know the paramset of the channel.
+     */
+    protected void addUnknownChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+        logger.info(
+                "Can not load metadata for device: {}, channel: {}, paramset: {}, maybe there are no channels available",
+                channel.getDevice().getAddress(), channel.getNumber(), paramsetType);
+    }
+
     /**
      * Loads all device descriptions from the gateway.
      */
@@ -636,24 +721,41 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         if (echoEvents.remove(dpInfo)) {
             logger.debug("Echo event detected, ignoring '{}'", dpInfo);
         } else {
+            eventDispatcher.add(dpInfo, newValue);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void eventsReceived(List<EventDispatcher.Event> events) {
+        Set<HmDatapoint> updatedDatapoints = new LinkedHashSet<HmDatapoint>();
+        for (EventDispatcher.Event event : events) {
             try {
-                HmDatapoint dp = getDatapoint(dpInfo);
-                dp.setValue(newValue);
+                HmDatapoint dp = getDatapoint(event.getDpInfo());
+                dp.setValue(event.getValue());
 
-                eventListener.onStateUpdated(dp);
+                updatedDatapoints.add(dp);
                 if (dp.isPressDatapoint() && MiscUtils.isTrueValue(dp.getValue())) {
                     disableDatapoint(dp, DEFAULT_DISABLE_DELAY);
                 }
-                for (VirtualDatapointHandler vdph : virtualDatapointHandlers) {
-                    if (vdph.canHandleEvent(dp)) {
-                        vdph.handleEvent(this, dp);
-                        eventListener.onStateUpdated(vdph.getVirtualDatapoint(dp.getChannel()));
+                List<VirtualDatapointHandler> handlers = virtualDatapointHandlersByEvent.get(dp.getName());
+                if (handlers != null) {
+                    for (VirtualDatapointHandler vdph : handlers) {
+                        if (vdph.canHandleEvent(dp)) {
+                            vdph.handleEvent(this, dp);
+                            updatedDatapoints.add(vdph.getVirtualDatapoint(dp.getChannel()));
+                        }
                     }
                 }
             } catch (HomematicClientException ex) {
                 // ignore datapoint not found
             }
         }
+        if (!updatedDatapoints.isEmpty()) {
+            eventListener.onStatesUpdated(updatedDatapoints);
+        }
     }
 
     /**
@@ -676,6 +778,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                             eventListener.onNewDevice(device);
                         }
                     }
+                    paramsetDescriptionCache.save();
                 } catch (Exception ex) {
                     logger.error(ex.getMessage(), ex);
                 }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decouples the events received from a Homematic gateway from the RPC server threads. Events are queued and
+ * dispatched in batches by one task at a time on the given scheduler, so the order of the events is preserved. If a
+ * datapoint receives a new value before the previous one has been dispatched, only the latest value is kept, except
+ * for key press events which are always dispatched. The queue is bounded, if it is full, new events are dropped.
+ *
+ * @author agent - Initial contribution
+ */
+public class EventDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+    private String id;
+    private ScheduledExecutorService scheduler;
+    private EventDispatcherListener listener;
+    private int capacity;
+    private long coalescingWindow;
+
+    private final Object lock = new Object();
+    private Map<Object, Event> pendingEvents = new LinkedHashMap<Object, Event>();
+    private ScheduledFuture<?> dispatchFuture;
+    private boolean dispatching;
+    private boolean overflow;
+
+    private long receivedCount;
+    private long coalescedCount;
+    private long droppedCount;
+    private long batchCount;
+
+    public EventDispatcher(String id, ScheduledExecutorService scheduler, int capacity, long coalescingWindow,
+            EventDispatcherListener listener) {
+        this.id = id;
+        this.scheduler = scheduler;
+        this.capacity = Math.max(1, capacity);
+        this.coalescingWindow = Math.max(0, coalescingWindow);
+        this.listener = listener;
+    }
+
+    /**
+     * Adds a received event to the queue, returns false if the event has been dropped because the queue is full.
+     */
+    public boolean add(HmDatapointInfo dpInfo, Object value) {
+        Event event = new Event(dpInfo, value);
+        Object key = isPressEvent(dpInfo) ? event : dpInfo;
+        synchronized (lock) {
+            receivedCount++;
+            if (pendingEvents.containsKey(key)) {
+                coalescedCount++;
+            } else if (pendingEvents.size() >= capacity) {
+                droppedCount++;
+                if (!overflow) {
+                    overflow = true;
+                    logger.warn("Event queue of gateway with id '{}' is full, dropping events", id);
+                }
+                return false;
+            }
+            pendingEvents.put(key, event);
+            if (!dispatching && dispatchFuture == null) {
+                scheduleDispatch();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Discards all pending events and logs the event statistics.
+     */
+    public void stop() {
+        synchronized (lock) {
+            logger.debug("Stopping event dispatcher of gateway with id '{}': "
+                    + "pending={}, received={}, coalesced={}, dropped={}, batches={}", id, pendingEvents.size(),
+                    receivedCount, coalescedCount, droppedCount, batchCount);
+            if (dispatchFuture != null) {
+                dispatchFuture.cancel(false);
+                dispatchFuture = null;
+            }
+            pendingEvents.clear();
+            overflow = false;
+        }
+    }
+
+    private void scheduleDispatch() {
+        dispatchFuture = scheduler.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, coalescingWindow, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes all pending events and hands them over to the listener. Only one dispatch runs at a time, events received
+     * in the meantime are dispatched with the next batch.
+     */
+    private void dispatch() {
+        List<Event> batch;
+        synchronized (lock) {
+            dispatchFuture = null;
+            if (pendingEvents.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<Event>(pendingEvents.values());
+            pendingEvents.clear();
+            dispatching = true;
+            overflow = false;
+            batchCount++;
+        }
+
+        try {
+            logger.trace("Dispatching {} events from gateway with id '{}'", batch.size(), id);
+            listener.eventsReceived(batch);
+        } catch (Exception ex) {
+            logger.error(ex.getMessage(), ex);
+        } finally {
+            synchronized (lock) {
+                dispatching = false;
+                if (!pendingEvents.isEmpty() && dispatchFuture == null) {
+                    scheduleDispatch();
+                }
+            }
+        }
+    }
+
+    private boolean isPressEvent(HmDatapointInfo dpInfo) {
+        return dpInfo.getName() != null && dpInfo.getName().startsWith("PRESS_");
+    }
+
+    /**
+     * A received value of a datapoint.
+     */
+    public static class Event {
+        private HmDatapointInfo dpInfo;
+        private Object value;
+
+        public Event(HmDatapointInfo dpInfo, Object value) {
+            this.dpInfo = dpInfo;
+            this.value = value;
+        }
+
+        /**
+         * Returns the info of the datapoint.
+         */
+        public HmDatapointInfo getDpInfo() {
+            return dpInfo;
+        }
+
+        /**
+         * Returns the received value.
+         */
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Listener for the dispatched events of the {@link EventDispatcher}.
+     *
+     * @author agent - Initial contribution
+     */
+    public interface EventDispatcherListener {
+
+        /**
+         * Called with a batch of events in the order they have been received.
+         */
+        public void eventsReceived(List<Event> events);
+
+    }
+}
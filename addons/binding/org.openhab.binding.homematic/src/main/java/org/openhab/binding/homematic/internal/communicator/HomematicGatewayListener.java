@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.homematic.internal.communicator;
 
+import java.util.Collection;
+
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmDevice;
 
@@ -23,6 +25,11 @@ public interface HomematicGatewayListener {
      */
     public void onStateUpdated(HmDatapoint dp);
 
+    /**
+     * Called when multiple datapoints have been updated with one batch of events.
+     */
+    public void onStatesUpdated(Collection<HmDatapoint> dps);
+
     /**
      * Called when a new device has been detected on the gateway.
      */
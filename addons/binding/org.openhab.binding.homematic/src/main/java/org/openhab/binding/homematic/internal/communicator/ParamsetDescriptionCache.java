@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcReader;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcRequest;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcResponse;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcWriter;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the raw paramset descriptions of a Homematic gateway by device type, firmware, channel and paramset type.
+ * The descriptions of each device type and firmware are persisted as one BIN-RPC encoded file in the userdata folder,
+ * so a restart of the binding only queries devices which are unknown or have a different firmware.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private static final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+    private static final String ENCODING = "UTF-8";
+    private static final String FILE_EXTENSION = ".bin";
+
+    private File folder;
+    private ConcurrentMap<String, ConcurrentMap<String, Object>> descriptionsByDevice = new ConcurrentHashMap<>();
+    private Set<String> dirtyDevices = ConcurrentHashMap.newKeySet();
+
+    public ParamsetDescriptionCache(String gatewayId) {
+        folder = new File(ConfigConstants.getUserDataFolder() + File.separator + "homematic" + File.separator
+                + "paramsets" + File.separator + toFileName(gatewayId));
+    }
+
+    /**
+     * Returns the cached raw paramset description of the channel or null, if the description is not cached.
+     */
+    public Object[] get(HmChannel channel, HmParamsetType paramsetType) {
+        Object description = getDescriptions(channel.getDevice()).get(getChannelKey(channel, paramsetType));
+        return description == null ? null : new Object[] { description };
+    }
+
+    /**
+     * Stores the raw paramset description of the channel.
+     */
+    public void put(HmChannel channel, HmParamsetType paramsetType, Object[] description) {
+        if (description != null && description.length > 0 && description[0] != null) {
+            getDescriptions(channel.getDevice()).put(getChannelKey(channel, paramsetType), description[0]);
+            dirtyDevices.add(getDeviceKey(channel.getDevice()));
+        }
+    }
+
+    /**
+     * Persists all changed paramset descriptions.
+     */
+    public void save() {
+        if (dirtyDevices.isEmpty()) {
+            return;
+        }
+        if (!folder.exists() && !folder.mkdirs()) {
+            logger.warn("Can't create paramset description cache folder '{}'", folder);
+            return;
+        }
+        BinRpcWriter writer = new BinRpcWriter(ENCODING);
+        for (String deviceKey : dirtyDevices) {
+            dirtyDevices.remove(deviceKey);
+            BinRpcRequest request = new BinRpcRequest(null, BinRpcRequest.TYPE.RESPONSE, ENCODING);
+            request.addArg(descriptionsByDevice.get(deviceKey));
+
+            File file = getFile(deviceKey);
+            File tempFile = new File(file.getPath() + ".tmp");
+            try (OutputStream os = new FileOutputStream(tempFile)) {
+                writer.write(request, os);
+            } catch (Exception ex) {
+                logger.warn("Can't write paramset description cache file '{}': {}", file, ex.getMessage());
+                tempFile.delete();
+                continue;
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                logger.trace("Saved paramset descriptions to '{}'", file);
+            } catch (IOException ex) {
+                logger.warn("Can't write paramset description cache file '{}': {}", file, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the descriptions of the device type and firmware, loads them from disk if available.
+     */
+    private ConcurrentMap<String, Object> getDescriptions(HmDevice device) {
+        String deviceKey = getDeviceKey(device);
+        ConcurrentMap<String, Object> descriptions = descriptionsByDevice.get(deviceKey);
+        if (descriptions == null) {
+            synchronized (descriptionsByDevice) {
+                descriptions = descriptionsByDevice.get(deviceKey);
+                if (descriptions == null) {
+                    descriptions = load(deviceKey);
+                    descriptionsByDevice.put(deviceKey, descriptions);
+                }
+            }
+        }
+        return descriptions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<String, Object> load(String deviceKey) {
+        ConcurrentMap<String, Object> descriptions = new ConcurrentHashMap<String, Object>();
+        File file = getFile(deviceKey);
+        if (file.exists()) {
+            try (InputStream is = new FileInputStream(file)) {
+                BinRpcResponse response = new BinRpcReader(ENCODING).read(is, false);
+                descriptions.putAll((Map<String, Object>) response.getResponseData()[0]);
+                logger.trace("Loaded {} paramset descriptions from '{}'", descriptions.size(), file);
+            } catch (Exception ex) {
+                logger.warn("Can't read paramset description cache file '{}', ignoring it: {}", file,
+                        ex.getMessage());
+            }
+        }
+        return descriptions;
+    }
+
+    private File getFile(String deviceKey) {
+        return new File(folder, toFileName(deviceKey) + FILE_EXTENSION);
+    }
+
+    private String getDeviceKey(HmDevice device) {
+        return device.getHmInterface() + "_" + device.getType() + "_" + device.getFirmware();
+    }
+
+    private String getChannelKey(HmChannel channel, HmParamsetType paramsetType) {
+        return channel.getNumber() + ":" + paramsetType;
+    }
+
+    private static String toFileName(String name) {
+        return String.valueOf(name).replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+}
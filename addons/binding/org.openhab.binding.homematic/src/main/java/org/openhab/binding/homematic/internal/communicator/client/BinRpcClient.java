@@ -12,7 +12,8 @@ import java.io.IOException;
 import java.net.Socket;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
-import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcRequest;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcResponse;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
 import org.openhab.binding.homematic.internal.model.HmInterface;
@@ -47,7 +48,7 @@ public class BinRpcClient extends RpcClient {
      */
     @Override
     protected RpcRequest createRpcRequest(String methodName) {
-        return new BinRpcMessage(methodName, config.getEncoding());
+        return new BinRpcRequest(methodName, config.getEncoding());
     }
 
     /**
@@ -71,7 +72,7 @@ public class BinRpcClient extends RpcClient {
      * Sends a BIN-RPC message and parses the response to see if there was an error.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
@@ -79,29 +80,40 @@ public class BinRpcClient extends RpcClient {
     }
 
     /**
-     * Sends the message, retries if there was an error.
+     * Sends the message over a pooled socket, retries if there was an error.
      */
     private Object[] sendMessage(int port, RpcRequest request, int rpcRetryCounter) throws IOException {
-        BinRpcMessage resp = null;
+        BinRpcResponse resp = null;
+        SocketInfo socketInfo = null;
         try {
-            Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            socketInfo = socketHandler.getSocket(port);
+            long start = System.nanoTime();
+            Socket socket = socketInfo.getSocket();
+            socketInfo.getWriter().write((BinRpcRequest) request, socket.getOutputStream());
+            resp = socketInfo.getReader().read(socket.getInputStream(), false);
+            socketHandler.releaseSocket(port, socketInfo, System.nanoTime() - start);
+            socketInfo = null;
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
             throw rpcEx;
         } catch (IOException ioEx) {
+            if (socketInfo != null) {
+                socketHandler.removeSocket(port, socketInfo);
+                socketInfo = null;
+            }
             if ("init".equals(request.getMethodName()) || rpcRetryCounter >= MAX_RPC_RETRY) {
                 throw ioEx;
             } else {
                 rpcRetryCounter++;
                 logger.debug("BinRpcMessage socket failure, sending message again {}/{}", rpcRetryCounter,
                         MAX_RPC_RETRY);
-                socketHandler.removeSocket(port);
                 return sendMessage(port, request, rpcRetryCounter);
             }
         } finally {
+            if (socketInfo != null) {
+                socketHandler.removeSocket(port, socketInfo);
+            }
             if (logger.isTraceEnabled()) {
                 logger.trace("Client BinRpcResponse:\n{}", resp == null ? "null" : resp.toString());
             }
@@ -11,22 +11,26 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Thread safe pool of keep-alive sockets per port of a Homematic gateway.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private static final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<Integer, SocketInfo>();
+    private ConcurrentMap<Integer, SocketPool> poolsPerPort = new ConcurrentHashMap<Integer, SocketPool>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -34,40 +38,35 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Returns a healthy socket for the given port, waits if all sockets of the pool are in use. The socket must be
+     * returned with {@link #releaseSocket(int, SocketInfo, long)} or {@link #removeSocket(int, SocketInfo)}.
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
-            logger.trace("Creating new socket for port {}", port);
-            Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
-
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
-            }
-            logger.trace("Returning socket for port {}", port);
-        }
-        return socketInfo.getSocket();
+    public SocketInfo getSocket(int port) throws IOException {
+        return getPool(port).acquire();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Returns the socket to the pool after a successful request.
+     */
+    public void releaseSocket(int port, SocketInfo socketInfo, long roundTripNanos) {
+        getPool(port).release(socketInfo, roundTripNanos);
+    }
+
+    /**
+     * Closes the socket after a failed request and frees its slot in the pool.
+     */
+    public void removeSocket(int port, SocketInfo socketInfo) {
+        getPool(port).discard(socketInfo);
+    }
+
+    /**
+     * Closes all idle sockets for the given port, sockets in use are closed when they are returned.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
-            logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
-            closeSilent(socketInfo.getSocket());
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            logger.debug("Closing sockets on port {}: {}", port, pool.getMetrics());
+            pool.invalidate();
         }
     }
 
@@ -75,12 +74,21 @@ public class SocketHandler {
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
+        for (Integer port : poolsPerPort.keySet()) {
+            removeSocket(port);
+        }
+    }
+
+    private SocketPool getPool(int port) {
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool == null) {
+            SocketPool newPool = new SocketPool(port);
+            pool = poolsPerPort.putIfAbsent(port, newPool);
+            if (pool == null) {
+                pool = newPool;
             }
         }
+        return pool;
     }
 
     /**
@@ -93,4 +101,135 @@ public class SocketHandler {
             // ignore
         }
     }
+
+    /**
+     * The sockets for one port, the number of sockets is limited by the configured pool size.
+     */
+    private class SocketPool {
+        private int port;
+        private Semaphore permits;
+        private BlockingDeque<SocketInfo> idleSockets = new LinkedBlockingDeque<SocketInfo>();
+        private SocketPoolMetrics metrics = new SocketPoolMetrics();
+        private volatile int generation;
+
+        public SocketPool(int port) {
+            this.port = port;
+            this.permits = new Semaphore(Math.max(1, config.getSocketPoolSize()), true);
+        }
+
+        /**
+         * Waits for a free slot and returns an idle healthy socket or creates a new one.
+         */
+        public SocketInfo acquire() throws IOException {
+            long start = System.nanoTime();
+            try {
+                if (!permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                    metrics.recordFailure();
+                    throw new IOException("Timeout waiting for a free socket on port " + port);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a free socket on port " + port);
+            }
+            metrics.recordQueueWait(System.nanoTime() - start);
+
+            try {
+                SocketInfo socketInfo;
+                while ((socketInfo = idleSockets.pollFirst()) != null) {
+                    if (isHealthy(socketInfo)) {
+                        logger.trace("Returning socket for port {}", port);
+                        return socketInfo;
+                    }
+                    closeSilent(socketInfo.getSocket());
+                }
+                return connect();
+            } catch (IOException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        /**
+         * Returns the socket to the idle sockets and frees the slot.
+         */
+        public void release(SocketInfo socketInfo, long roundTripNanos) {
+            metrics.recordRoundTrip(roundTripNanos);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Request on port {} finished in {} ms", port,
+                        TimeUnit.NANOSECONDS.toMillis(roundTripNanos));
+            }
+            if (socketInfo.getGeneration() != generation) {
+                closeSilent(socketInfo.getSocket());
+            } else {
+                socketInfo.setLastUsed(System.currentTimeMillis());
+                idleSockets.offerFirst(socketInfo);
+            }
+            permits.release();
+        }
+
+        /**
+         * Closes the socket and frees the slot.
+         */
+        public void discard(SocketInfo socketInfo) {
+            metrics.recordFailure();
+            logger.trace("Closing Socket on port {}", port);
+            closeSilent(socketInfo.getSocket());
+            permits.release();
+        }
+
+        /**
+         * Closes all idle sockets, sockets in use are closed when they are returned.
+         */
+        public synchronized void invalidate() {
+            generation++;
+            SocketInfo socketInfo;
+            while ((socketInfo = idleSockets.pollFirst()) != null) {
+                closeSilent(socketInfo.getSocket());
+            }
+        }
+
+        public SocketPoolMetrics getMetrics() {
+            return metrics;
+        }
+
+        private SocketInfo connect() throws IOException {
+            logger.trace("Creating new socket for port {}", port);
+            Socket socket = new Socket();
+            try {
+                socket.setSoTimeout(config.getTimeout() * 1000);
+                socket.setKeepAlive(true);
+                socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+            } catch (IOException ex) {
+                closeSilent(socket);
+                throw ex;
+            }
+            metrics.recordConnect();
+            SocketInfo socketInfo = new SocketInfo(socket, config.getEncoding());
+            socketInfo.setGeneration(generation);
+            return socketInfo;
+        }
+
+        /**
+         * Returns true, if the idle socket can be reused. Sockets which are closed, have been idle longer than
+         * socketMaxAlive or have unexpected data to read (e.g. the gateway closed the connection) are discarded.
+         */
+        private boolean isHealthy(SocketInfo socketInfo) {
+            Socket socket = socketInfo.getSocket();
+            if (socketInfo.getGeneration() != generation) {
+                return false;
+            }
+            if (socket.isClosed() || !socket.isConnected() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - socketInfo.getLastUsed() > config.getSocketMaxAlive() * 1000L) {
+                logger.debug("Max idle time reached for socket on port {}", port);
+                return false;
+            }
+            try {
+                return socket.getInputStream().available() == 0;
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+    }
 }
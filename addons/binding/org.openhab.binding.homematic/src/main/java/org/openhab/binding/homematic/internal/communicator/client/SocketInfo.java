@@ -10,18 +10,28 @@ package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.net.Socket;
 
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcReader;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcWriter;
+
 /**
  * Info class which holds some infos for caching a socket.
- * 
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketInfo {
     private Socket socket;
     private long created;
+    private long lastUsed;
+    private int generation;
+    private BinRpcReader reader;
+    private BinRpcWriter writer;
 
-    public SocketInfo(Socket socket) {
+    public SocketInfo(Socket socket, String encoding) {
         this.socket = socket;
         this.created = System.currentTimeMillis();
+        this.lastUsed = created;
+        this.reader = new BinRpcReader(encoding);
+        this.writer = new BinRpcWriter(encoding);
     }
 
     /**
@@ -37,4 +47,46 @@ public class SocketInfo {
     public long getCreated() {
         return created;
     }
+
+    /**
+     * Returns the timestamp when the socket has been returned to the pool the last time.
+     */
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Sets the timestamp when the socket has been returned to the pool the last time.
+     */
+    public void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+
+    /**
+     * Returns the generation of the pool the socket has been created in.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Sets the generation of the pool the socket has been created in.
+     */
+    public void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Returns the BIN-RPC reader bound to this socket.
+     */
+    public BinRpcReader getReader() {
+        return reader;
+    }
+
+    /**
+     * Returns the BIN-RPC writer bound to this socket.
+     */
+    public BinRpcWriter getWriter() {
+        return writer;
+    }
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request metrics of the socket pool for one port of a Homematic gateway.
+ *
+ * @author agent - Initial contribution
+ */
+public class SocketPoolMetrics {
+    private AtomicLong requests = new AtomicLong();
+    private AtomicLong failures = new AtomicLong();
+    private AtomicLong connects = new AtomicLong();
+    private AtomicLong totalQueueWait = new AtomicLong();
+    private AtomicLong maxQueueWait = new AtomicLong();
+    private AtomicLong totalRoundTrip = new AtomicLong();
+    private AtomicLong maxRoundTrip = new AtomicLong();
+
+    /**
+     * Records the time in nanoseconds a request waited for a free socket.
+     */
+    public void recordQueueWait(long nanos) {
+        totalQueueWait.addAndGet(nanos);
+        updateMax(maxQueueWait, nanos);
+    }
+
+    /**
+     * Records a successful request with its round trip time in nanoseconds.
+     */
+    public void recordRoundTrip(long nanos) {
+        requests.incrementAndGet();
+        totalRoundTrip.addAndGet(nanos);
+        updateMax(maxRoundTrip, nanos);
+    }
+
+    /**
+     * Records a failed request.
+     */
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Records a newly created socket.
+     */
+    public void recordConnect() {
+        connects.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of successful requests.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of failed requests.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the number of created sockets.
+     */
+    public long getConnects() {
+        return connects.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds a request waited for a free socket.
+     */
+    public double getAverageQueueWait() {
+        long count = requests.get() + failures.get();
+        return count == 0 ? 0 : toMillis(totalQueueWait.get()) / count;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a request waited for a free socket.
+     */
+    public double getMaxQueueWait() {
+        return toMillis(maxQueueWait.get());
+    }
+
+    /**
+     * Returns the average round trip time of a request in milliseconds.
+     */
+    public double getAverageRoundTrip() {
+        long count = requests.get();
+        return count == 0 ? 0 : toMillis(totalRoundTrip.get()) / count;
+    }
+
+    /**
+     * Returns the maximum round trip time of a request in milliseconds.
+     */
+    public double getMaxRoundTrip() {
+        return toMillis(maxRoundTrip.get());
+    }
+
+    private void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    private double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "requests=%d, failures=%d, connects=%d, queueWait(avg/max)=%.1f/%.1f ms, rtt(avg/max)=%.1f/%.1f ms",
+                getRequests(), getFailures(), getConnects(), getAverageQueueWait(), getMaxQueueWait(),
+                getAverageRoundTrip(), getMaxRoundTrip());
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streaming decoder for BIN-RPC messages. The reader keeps its receive buffer between messages, so one instance should
+ * be reused per connection. Integers and doubles are decoded directly from the buffer without intermediate arrays.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcReader {
+    public static final int HEADER_LENGTH = 8;
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+
+    private Charset charset;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private byte[] stringBuffer = new byte[64];
+
+    public BinRpcReader(String encoding) {
+        this.charset = RpcUtils.getCharset(encoding);
+    }
+
+    /**
+     * Returns the total length of the BIN-RPC message starting at the position of the buffer or -1, if the header is
+     * not yet complete.
+     */
+    public static int getMessageLength(ByteBuffer buffer) throws UnsupportedEncodingException {
+        int start = buffer.position();
+        if (buffer.limit() - start < HEADER_LENGTH) {
+            return -1;
+        }
+        validateSignature(buffer, start);
+        return HEADER_LENGTH + buffer.getInt(start + 4);
+    }
+
+    /**
+     * Reads and decodes a complete BIN-RPC message from the given InputStream.
+     */
+    public BinRpcResponse read(InputStream is, boolean methodHeader) throws IOException {
+        buffer.clear();
+        readFully(is, buffer.array(), 0, HEADER_LENGTH);
+        buffer.limit(HEADER_LENGTH);
+        int length = getMessageLength(buffer);
+        if (length > buffer.capacity()) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+            newBuffer.put(buffer);
+            newBuffer.flip();
+            buffer = newBuffer;
+        }
+        readFully(is, buffer.array(), HEADER_LENGTH, length - HEADER_LENGTH);
+        buffer.position(0).limit(length);
+        return decode(buffer, methodHeader);
+    }
+
+    /**
+     * Decodes the BIN-RPC message starting at the position of the buffer. After decoding, the position of the buffer
+     * is at the end of the message.
+     */
+    public BinRpcResponse decode(ByteBuffer message, boolean methodHeader) throws IOException {
+        int length = getMessageLength(message);
+        if (length == -1 || message.position() + length > message.limit()) {
+            throw new EOFException("Only " + message.remaining() + " bytes received");
+        }
+        int end = message.position() + length;
+        message.position(message.position() + HEADER_LENGTH);
+
+        String methodName = null;
+        if (methodHeader) {
+            methodName = readString(message);
+            // argument count, the arguments are read until the end of the message
+            message.getInt();
+        }
+        List<Object> values = new ArrayList<Object>(4);
+        while (message.position() < end) {
+            values.add(readRpcValue(message));
+        }
+        return new BinRpcResponse(methodName, values.toArray());
+    }
+
+    private static void validateSignature(ByteBuffer buffer, int start) throws UnsupportedEncodingException {
+        if (buffer.get(start) != 'B' || buffer.get(start + 1) != 'i' || buffer.get(start + 2) != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+    }
+
+    private void readFully(InputStream is, byte[] data, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = is.read(data, offset + read, length - read);
+            if (count == -1) {
+                throw new EOFException("Only " + read + " of " + length + " bytes received");
+            }
+            read += count;
+        }
+    }
+
+    private String readString(ByteBuffer message) {
+        int len = message.getInt();
+        String value;
+        if (message.hasArray()) {
+            value = new String(message.array(), message.arrayOffset() + message.position(), len, charset);
+            message.position(message.position() + len);
+        } else {
+            if (stringBuffer.length < len) {
+                stringBuffer = new byte[Math.max(len, stringBuffer.length * 2)];
+            }
+            message.get(stringBuffer, 0, len);
+            value = new String(stringBuffer, 0, len, charset);
+        }
+        return value;
+    }
+
+    private Object readRpcValue(ByteBuffer message) throws IOException {
+        int type = message.getInt();
+        switch (type) {
+            case 1:
+                return message.getInt();
+            case 2:
+                return message.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
+            case 3:
+                return readString(message);
+            case 4:
+                int mantissa = message.getInt();
+                int exponent = message.getInt();
+                double value = Math.scalb((double) mantissa, exponent - 30);
+                return new BigDecimal(value).setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+            case 5:
+                return new Date(message.getInt() * 1000L);
+            case 0x100:
+                // Array
+                int numElements = message.getInt();
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue(message);
+                }
+                return array;
+            case 0x101:
+                // Struct
+                numElements = message.getInt();
+                Map<String, Object> struct = new TreeMap<String, Object>();
+                while (numElements-- > 0) {
+                    String name = readString(message);
+                    struct.put(name, readRpcValue(message));
+                }
+                return struct;
+            default:
+                throw new IOException("Unknown data type " + type + " at position " + (message.position() - 4));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A BIN-RPC request for sending data to the Homematic server. The arguments are only collected, the encoding is done
+ * by a {@link BinRpcWriter}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcRequest implements RpcRequest {
+
+    public enum TYPE {
+        REQUEST,
+        RESPONSE;
+    }
+
+    private String methodName;
+    private TYPE type;
+    private String encoding;
+    private List<Object> args = new ArrayList<Object>(4);
+
+    public BinRpcRequest(String methodName, String encoding) {
+        this(methodName, TYPE.REQUEST, encoding);
+    }
+
+    public BinRpcRequest(String methodName, TYPE type, String encoding) {
+        this.methodName = methodName;
+        this.type = type;
+        this.encoding = encoding;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addArg(Object arg) {
+        args.add(arg);
+    }
+
+    /**
+     * Returns the arguments of the request.
+     */
+    public List<Object> getArgs() {
+        return args;
+    }
+
+    /**
+     * Returns the type of the message.
+     */
+    public TYPE getType() {
+        return type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] createMessage() {
+        ByteBuffer buffer = new BinRpcWriter(encoding).encode(this);
+        byte[] message = new byte[buffer.remaining()];
+        buffer.get(message);
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return RpcUtils.dumpRpcMessage(methodName, args.toArray());
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+/**
+ * A BIN-RPC message decoded by a {@link BinRpcReader}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcResponse implements RpcResponse {
+    private String methodName;
+    private Object[] responseData;
+
+    public BinRpcResponse(String methodName, Object[] responseData) {
+        this.methodName = methodName;
+        this.responseData = responseData;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] getResponseData() {
+        return responseData;
+    }
+
+    @Override
+    public String toString() {
+        return RpcUtils.dumpRpcMessage(methodName, responseData);
+    }
+}
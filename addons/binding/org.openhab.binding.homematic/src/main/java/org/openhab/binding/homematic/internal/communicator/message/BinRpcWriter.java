@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Encoder for BIN-RPC messages. The writer keeps its send buffer between messages, so one instance should be reused
+ * per connection.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcWriter {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private Charset charset;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    public BinRpcWriter(String encoding) {
+        this.charset = RpcUtils.getCharset(encoding);
+    }
+
+    /**
+     * Encodes the request and returns the internal buffer, ready for reading. The buffer is only valid until the next
+     * call of this writer. Values which BIN-RPC can not represent (e.g. byte arrays) are rejected with an
+     * IllegalArgumentException instead of being skipped, a skipped value would corrupt the enclosing array or struct.
+     */
+    public ByteBuffer encode(BinRpcRequest request) {
+        buffer.clear();
+        buffer.put((byte) 'B').put((byte) 'i').put((byte) 'n');
+        buffer.put(request.getType() == BinRpcRequest.TYPE.RESPONSE ? (byte) 1 : (byte) 0);
+        buffer.putInt(0); // placeholder content length
+        if (request.getMethodName() != null) {
+            putString(request.getMethodName());
+            putInt(request.getArgs().size());
+        }
+        for (Object arg : request.getArgs()) {
+            putObject(arg);
+        }
+        buffer.putInt(4, buffer.position() - BinRpcReader.HEADER_LENGTH);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes the request and writes it to the given OutputStream.
+     */
+    public void write(BinRpcRequest request, OutputStream os) throws IOException {
+        ByteBuffer message = encode(request);
+        os.write(message.array(), message.arrayOffset(), message.limit());
+        os.flush();
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() < length) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            newBuffer.put(buffer);
+            buffer = newBuffer;
+        }
+    }
+
+    private void putInt(int value) {
+        ensureCapacity(4);
+        buffer.putInt(value);
+    }
+
+    private void putByte(byte value) {
+        ensureCapacity(1);
+        buffer.put(value);
+    }
+
+    private void putString(String string) {
+        byte[] data = string.getBytes(charset);
+        ensureCapacity(4 + data.length);
+        buffer.putInt(data.length);
+        buffer.put(data);
+    }
+
+    private void putDouble(double value) {
+        double tmp = Math.abs(value);
+        int exp = 0;
+        if (tmp != 0) {
+            exp = Math.getExponent(tmp) + 1;
+            tmp = Math.scalb(tmp, -exp);
+        }
+        if (value < 0) {
+            tmp *= -1;
+        }
+        int mantissa = (int) Math.round(tmp * 0x40000000);
+        putInt(mantissa);
+        putInt(exp);
+    }
+
+    private void putObject(Object object) {
+        if (object.getClass() == String.class) {
+            putInt(3);
+            putString((String) object);
+        } else if (object.getClass() == Boolean.class) {
+            putInt(2);
+            putByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
+        } else if (object.getClass() == Integer.class) {
+            putInt(1);
+            putInt(((Integer) object).intValue());
+        } else if (object.getClass() == Double.class) {
+            putInt(4);
+            putDouble(((Double) object).doubleValue());
+        } else if (object.getClass() == Float.class) {
+            putInt(4);
+            putDouble(new BigDecimal((Float) object).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
+        } else if (object.getClass() == BigDecimal.class) {
+            putInt(4);
+            putDouble(((BigDecimal) object).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
+        } else if (object.getClass() == BigInteger.class) {
+            putInt(4);
+            putDouble(((BigInteger) object).doubleValue());
+        } else if (object.getClass() == Date.class) {
+            putInt(5);
+            putInt((int) (((Date) object).getTime() / 1000));
+        } else if (object instanceof Object[]) {
+            Object[] array = (Object[]) object;
+            putInt(0x100);
+            putInt(array.length);
+            for (Object entry : array) {
+                putObject(entry);
+            }
+        } else if (object instanceof Collection<?>) {
+            Collection<?> list = (Collection<?>) object;
+            putInt(0x100);
+            putInt(list.size());
+            for (Object entry : list) {
+                putObject(entry);
+            }
+        } else if (object instanceof Map<?, ?>) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            putInt(0x101);
+            putInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                putString(String.valueOf(entry.getKey()));
+                putObject(entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported BIN-RPC type: " + object.getClass().getName());
+        }
+    }
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.homematic.internal.communicator.message;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -17,6 +19,17 @@ import java.util.Map;
  */
 public class RpcUtils {
 
+    /**
+     * Returns the charset for the given encoding, falls back to ISO-8859-1 if the encoding is not supported.
+     */
+    public static Charset getCharset(String encoding) {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            return StandardCharsets.ISO_8859_1;
+        }
+    }
+
     /**
      * Dumps decoded RPC data.
      */
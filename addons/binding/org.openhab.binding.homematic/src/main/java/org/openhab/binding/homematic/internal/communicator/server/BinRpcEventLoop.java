@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcReader;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selector based event loop which multiplexes the BIN-RPC callback connections of all {@link NioBinRpcServer}s on one
+ * thread. Messages are framed incrementally on the loop thread, the method calls are handled by the
+ * {@link BinRpcMethodHandler} of the server which accepted the connection in the RPC thread pool, because the
+ * listener may block (e.g. newDevices loads the device metadata from the gateway). The messages of a connection are
+ * handled one after the other, the replies are written back by the loop thread.
+ * <p>
+ * The loop itself runs in its own thread pool, as it occupies its thread until the last server is unregistered.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcEventLoop implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(BinRpcEventLoop.class);
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final long IDLE_CHECK_INTERVAL = 10000;
+    private static final String RPC_POOL_NAME = "homematicRpc";
+    private static final String EVENT_LOOP_POOL_NAME = "homematicRpcEventLoop";
+
+    private static BinRpcEventLoop instance;
+
+    private Selector selector;
+    private Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<Runnable>();
+    private Set<NioBinRpcServer> servers = new HashSet<NioBinRpcServer>();
+    private long lastIdleCheck = System.currentTimeMillis();
+
+    private BinRpcEventLoop() throws IOException {
+        selector = Selector.open();
+        ThreadPoolManager.getPool(EVENT_LOOP_POOL_NAME).execute(this);
+    }
+
+    /**
+     * Registers the server socket of the server, starts the shared event loop if required.
+     */
+    public static synchronized void register(final NioBinRpcServer server, final ServerSocketChannel serverChannel)
+            throws IOException {
+        if (instance == null) {
+            instance = new BinRpcEventLoop();
+        }
+        final BinRpcEventLoop loop = instance;
+        loop.servers.add(server);
+        serverChannel.configureBlocking(false);
+        loop.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    serverChannel.register(loop.selector, SelectionKey.OP_ACCEPT, server);
+                } catch (ClosedChannelException ex) {
+                    logger.debug("Server socket of BIN-RPC server closed before registration");
+                }
+            }
+        });
+    }
+
+    /**
+     * Unregisters the server, closes all its connections and stops the shared event loop if it was the last server.
+     */
+    public static synchronized void unregister(final NioBinRpcServer server) {
+        final BinRpcEventLoop loop = instance;
+        if (loop == null || !loop.servers.remove(server)) {
+            return;
+        }
+        final boolean stop = loop.servers.isEmpty();
+        if (stop) {
+            instance = null;
+        }
+        loop.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                for (SelectionKey key : loop.selector.keys()) {
+                    Object attachment = key.attachment();
+                    if (stop || attachment == server
+                            || (attachment instanceof Connection && ((Connection) attachment).server == server)) {
+                        loop.close(key);
+                    }
+                }
+                if (stop) {
+                    try {
+                        loop.selector.close();
+                    } catch (IOException ex) {
+                        // ignore
+                    }
+                }
+            }
+        });
+    }
+
+    private void execute(Runnable task) {
+        pendingTasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Selects and handles the network events until the selector is closed.
+     */
+    @Override
+    public void run() {
+        while (selector.isOpen()) {
+            try {
+                selector.select(IDLE_CHECK_INTERVAL);
+                runPendingTasks();
+                if (!selector.isOpen()) {
+                    break;
+                }
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handleKey(key);
+                }
+                closeIdleConnections();
+            } catch (IOException ex) {
+                logger.warn("BIN-RPC event loop failure: {}", ex.getMessage(), ex);
+            }
+        }
+        logger.debug("BIN-RPC event loop stopped");
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept(key);
+            } else {
+                Connection connection = (Connection) key.attachment();
+                if (key.isReadable()) {
+                    connection.read(key);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.write(key);
+                }
+            }
+        } catch (EOFException eof) {
+            close(key);
+        } catch (IOException ex) {
+            logger.debug("Closing BIN-RPC callback connection: {}", ex.getMessage());
+            close(key);
+        } catch (Exception ex) {
+            logger.error(ex.getMessage(), ex);
+            close(key);
+        }
+    }
+
+    private void accept(SelectionKey key) throws IOException {
+        NioBinRpcServer server = (NioBinRpcServer) key.attachment();
+        SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.register(key.selector(), SelectionKey.OP_READ, new Connection(server));
+        }
+    }
+
+    private void closeIdleConnections() {
+        long now = System.currentTimeMillis();
+        if (now - lastIdleCheck < IDLE_CHECK_INTERVAL) {
+            return;
+        }
+        lastIdleCheck = now;
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Connection) {
+                Connection connection = (Connection) attachment;
+                long maxAlive = connection.server.getConfig().getSocketMaxAlive() * 1000L;
+                if (!connection.handling && now - connection.lastActivity > maxAlive) {
+                    logger.trace("Closing idle BIN-RPC callback connection");
+                    close(key);
+                }
+            }
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    /**
+     * A callback connection from a Homematic gateway with its own incremental receive buffer.
+     */
+    private class Connection {
+        private NioBinRpcServer server;
+        private BinRpcReader reader;
+        private BinRpcMethodHandler methodHandler;
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private Queue<ByteBuffer> out = new ArrayDeque<ByteBuffer>();
+        private Queue<BinRpcResponse> messages = new ArrayDeque<BinRpcResponse>();
+        private boolean handling;
+        private long lastActivity = System.currentTimeMillis();
+
+        public Connection(NioBinRpcServer server) {
+            this.server = server;
+            this.reader = new BinRpcReader(server.getConfig().getEncoding());
+            this.methodHandler = new BinRpcMethodHandler(server.getListener(), server.getConfig().getEncoding());
+        }
+
+        /**
+         * Reads the available data and queues all complete messages in the receive buffer for handling.
+         */
+        public void read(SelectionKey key) throws IOException {
+            int count = ((SocketChannel) key.channel()).read(in);
+            if (count == -1) {
+                throw new EOFException();
+            }
+            lastActivity = System.currentTimeMillis();
+
+            in.flip();
+            int length;
+            while ((length = BinRpcReader.getMessageLength(in)) != -1 && in.remaining() >= length) {
+                messages.add(reader.decode(in, true));
+            }
+            in.compact();
+            if (length > in.capacity()) {
+                ByteBuffer newBuffer = ByteBuffer.allocate(length);
+                in.flip();
+                newBuffer.put(in);
+                in = newBuffer;
+            }
+
+            handleNextMessage(key);
+        }
+
+        /**
+         * Handles the next queued message in the RPC thread pool, if no other message of the connection is handled.
+         * The reply is written and the following message is handled when the loop thread is back from the pool.
+         */
+        private void handleNextMessage(final SelectionKey key) {
+            if (handling || messages.isEmpty()) {
+                return;
+            }
+            handling = true;
+            final BinRpcResponse message = messages.poll();
+            ThreadPoolManager.getPool(RPC_POOL_NAME).execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    byte[] returnValue = null;
+                    boolean failed = false;
+                    try {
+                        returnValue = methodHandler.handleMessage(message);
+                    } catch (Exception ex) {
+                        logger.error(ex.getMessage(), ex);
+                        failed = true;
+                    }
+                    final byte[] reply = returnValue;
+                    final boolean close = failed;
+                    execute(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            handling = false;
+                            lastActivity = System.currentTimeMillis();
+                            if (!key.isValid()) {
+                                return;
+                            }
+                            if (close) {
+                                close(key);
+                                return;
+                            }
+                            if (reply != null) {
+                                out.add(ByteBuffer.wrap(reply));
+                            }
+                            try {
+                                write(key);
+                                handleNextMessage(key);
+                            } catch (IOException ex) {
+                                logger.debug("Closing BIN-RPC callback connection: {}", ex.getMessage());
+                                close(key);
+                            }
+                        }
+                    });
+                }
+            });
+        }
+
+        /**
+         * Writes the pending responses, waits for the channel to become writable if not all data could be sent.
+         */
+        public void write(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            while (!out.isEmpty()) {
+                ByteBuffer buffer = out.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                out.poll();
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking BIN-RPC server. The callback connections of all gateways are handled by the shared
+ * {@link BinRpcEventLoop}, no thread per connection is required.
+ *
+ * @author agent - Initial contribution
+ */
+public class NioBinRpcServer implements RpcServer {
+    private static final Logger logger = LoggerFactory.getLogger(NioBinRpcServer.class);
+
+    private ServerSocketChannel serverChannel;
+    private RpcEventListener listener;
+    private HomematicConfig config;
+
+    public NioBinRpcServer(RpcEventListener listener, HomematicConfig config) {
+        this.listener = listener;
+        this.config = config;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() throws IOException {
+        logger.debug("Initializing non-blocking BIN-RPC server at port {}", config.getBinCallbackPort());
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.bind(new InetSocketAddress(config.getBinCallbackPort()));
+        BinRpcEventLoop.register(this, serverChannel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        if (serverChannel != null) {
+            logger.debug("Stopping non-blocking BIN-RPC server");
+            BinRpcEventLoop.unregister(this);
+            try {
+                serverChannel.close();
+            } catch (IOException ex) {
+                // ignore
+            }
+            serverChannel = null;
+        }
+    }
+
+    /**
+     * Returns the listener for the decoded method calls.
+     */
+    public RpcEventListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Returns the gateway config.
+     */
+    public HomematicConfig getConfig() {
+        return config;
+    }
+}
@@ -9,6 +9,8 @@
 package org.openhab.binding.homematic.internal.communicator.virtual;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 
 import org.openhab.binding.homematic.internal.misc.HomematicClientException;
 import org.openhab.binding.homematic.internal.model.HmChannel;
@@ -44,6 +46,14 @@ public abstract class AbstractVirtualDatapointHandler implements VirtualDatapoin
             throws IOException, HomematicClientException {
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getEventDatapointNames() {
+        return Collections.emptySet();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -10,6 +10,10 @@ package org.openhab.binding.homematic.internal.communicator.virtual;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.openhab.binding.homematic.internal.misc.HomematicClientException;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -23,6 +27,8 @@ import org.openhab.binding.homematic.internal.model.HmValueType;
  * @author Gerhard Riegler - Initial contribution
  */
 public class RssiVirtualDatapointHandler extends AbstractVirtualDatapointHandler {
+    private static final Set<String> EVENT_DATAPOINT_NAMES = new HashSet<String>(
+            Arrays.asList(DATAPOINT_NAME_RSSI_DEVICE, DATAPOINT_NAME_RSSI_PEER));
 
     /**
      * {@inheritDoc}
@@ -46,6 +52,14 @@ public class RssiVirtualDatapointHandler extends AbstractVirtualDatapointHandler
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getEventDatapointNames() {
+        return EVENT_DATAPOINT_NAMES;
+    }
+
     /**
      * {@inheritDoc}
      */
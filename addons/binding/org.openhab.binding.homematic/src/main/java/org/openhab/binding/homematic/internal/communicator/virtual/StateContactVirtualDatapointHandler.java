@@ -10,6 +10,9 @@ package org.openhab.binding.homematic.internal.communicator.virtual;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.openhab.binding.homematic.internal.misc.HomematicClientException;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -23,6 +26,7 @@ import org.openhab.binding.homematic.internal.model.HmValueType;
  * @author Gerhard Riegler - Initial contribution
  */
 public class StateContactVirtualDatapointHandler extends AbstractVirtualDatapointHandler {
+    private static final Set<String> EVENT_DATAPOINT_NAMES = Collections.singleton(DATAPOINT_NAME_STATE);
 
     /**
      * {@inheritDoc}
@@ -49,6 +53,14 @@ public class StateContactVirtualDatapointHandler extends AbstractVirtualDatapoin
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getEventDatapointNames() {
+        return EVENT_DATAPOINT_NAMES;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -9,6 +9,7 @@
 package org.openhab.binding.homematic.internal.communicator.virtual;
 
 import java.io.IOException;
+import java.util.Set;
 
 import org.openhab.binding.homematic.internal.misc.HomematicClientException;
 import org.openhab.binding.homematic.internal.model.HmChannel;
@@ -45,6 +46,11 @@ public interface VirtualDatapointHandler {
     public void handleCommand(VirtualGateway gateway, HmDatapoint dp, HmDatapointConfig dpConfig, Object value)
             throws IOException, HomematicClientException;
 
+    /**
+     * Returns the names of the datapoints whose events may be handled by the virtual datapoint.
+     */
+    public Set<String> getEventDatapointNames();
+
     /**
      * Returns true, if the virtual datapoint can handle the event for the given datapoint.
      */
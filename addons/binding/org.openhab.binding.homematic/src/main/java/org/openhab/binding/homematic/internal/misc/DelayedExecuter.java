@@ -9,24 +9,37 @@
 package org.openhab.binding.homematic.internal.misc;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Executes a callback method either immediately or after a given delay for a datapoint.
+ * Executes a callback method either immediately or after a given delay for a datapoint. All delayed events share the
+ * given scheduler. If a new event for a datapoint is started while an event is still pending, the pending event is
+ * replaced and the delay starts again, so only the latest value is executed.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class DelayedExecuter {
     private static final Logger logger = LoggerFactory.getLogger(DelayedExecuter.class);
 
-    private Map<HmDatapointInfo, Timer> delayedEvents = new HashMap<HmDatapointInfo, Timer>();
+    private ScheduledExecutorService scheduler;
+    private ConcurrentMap<HmDatapointInfo, DelayedEvent> delayedEvents = new ConcurrentHashMap<>();
+
+    private AtomicLong executedCount = new AtomicLong();
+    private AtomicLong coalescedCount = new AtomicLong();
+    private AtomicLong totalLatency = new AtomicLong();
+
+    public DelayedExecuter(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
 
     /**
      * Executes a callback method either immediately or after a given delay.
@@ -34,44 +47,111 @@ public class DelayedExecuter {
     public void start(final HmDatapointInfo dpInfo, final double delay, final DelayedExecuterCallback callback)
             throws IOException, HomematicClientException {
         if (delay > 0.0) {
-            synchronized (DelayedExecuter.class) {
-                logger.debug("Delaying event for {} seconds: '{}'", delay, dpInfo);
-
-                Timer timer = delayedEvents.get(dpInfo);
-                if (timer != null) {
-                    timer.cancel();
-                }
-
-                timer = new Timer();
-                delayedEvents.put(dpInfo, timer);
-                timer.schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        logger.debug("Executing delayed event for '{}'", dpInfo);
-                        delayedEvents.remove(dpInfo);
-                        try {
-                            callback.execute();
-                        } catch (Exception ex) {
-                            logger.error(ex.getMessage(), ex);
-                        }
-                    }
-                }, (long) (delay * 1000));
+            logger.debug("Delaying event for {} seconds: '{}'", delay, dpInfo);
+            long delayMillis = (long) (delay * 1000);
+            DelayedEvent event = new DelayedEvent(dpInfo, callback, System.currentTimeMillis() + delayMillis);
+            DelayedEvent previousEvent = delayedEvents.put(dpInfo, event);
+            if (previousEvent != null) {
+                coalescedCount.incrementAndGet();
+                previousEvent.cancel();
             }
+            event.future = scheduler.schedule(event, delayMillis, TimeUnit.MILLISECONDS);
         } else {
             callback.execute();
         }
     }
 
+    /**
+     * Cancels the pending event of the datapoint, returns true if there was a pending event.
+     */
+    public boolean cancel(HmDatapointInfo dpInfo) {
+        DelayedEvent event = delayedEvents.remove(dpInfo);
+        if (event != null) {
+            event.cancel();
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Stops all delayed events.
      */
     public void stop() {
-        for (Timer timer : delayedEvents.values()) {
-            timer.cancel();
+        logger.debug("Stopping delayed events: pending={}, executed={}, coalesced={}, avgLatency={} ms",
+                getPendingCount(), getExecutedCount(), getCoalescedCount(), getAverageLatency());
+        for (DelayedEvent event : delayedEvents.values()) {
+            event.cancel();
         }
         delayedEvents.clear();
     }
 
+    /**
+     * Returns the number of pending delayed events.
+     */
+    public int getPendingCount() {
+        return delayedEvents.size();
+    }
+
+    /**
+     * Returns the number of executed delayed events.
+     */
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * Returns the number of delayed events which have been replaced by a newer event for the same datapoint.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds between the planned and the real execution of the delayed events.
+     */
+    public long getAverageLatency() {
+        long count = executedCount.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    /**
+     * A pending delayed event for a datapoint.
+     */
+    private class DelayedEvent implements Runnable {
+        private HmDatapointInfo dpInfo;
+        private DelayedExecuterCallback callback;
+        private long plannedExecution;
+        private volatile ScheduledFuture<?> future;
+
+        public DelayedEvent(HmDatapointInfo dpInfo, DelayedExecuterCallback callback, long plannedExecution) {
+            this.dpInfo = dpInfo;
+            this.callback = callback;
+            this.plannedExecution = plannedExecution;
+        }
+
+        @Override
+        public void run() {
+            // only execute if the event has not been replaced or cancelled in the meantime
+            if (delayedEvents.remove(dpInfo, this)) {
+                logger.debug("Executing delayed event for '{}'", dpInfo);
+                executedCount.incrementAndGet();
+                totalLatency.addAndGet(Math.max(0, System.currentTimeMillis() - plannedExecution));
+                try {
+                    callback.execute();
+                } catch (Exception ex) {
+                    logger.error(ex.getMessage(), ex);
+                }
+            }
+        }
+
+        public void cancel() {
+            ScheduledFuture<?> scheduledFuture = future;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+        }
+    }
+
     /**
      * Callback interface for the {@link DelayedExecuter}.
      *
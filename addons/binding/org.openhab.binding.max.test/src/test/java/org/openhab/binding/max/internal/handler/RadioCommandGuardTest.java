@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.handler;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link RadioCommandGuard}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RadioCommandGuardTest {
+
+    private static final long BACKOFF = 1000;
+
+    private final RadioCommandGuard guard = new RadioCommandGuard(90, BACKOFF);
+
+    @Test
+    public void notBlockedWithoutCubeStateTest() {
+        assertFalse(guard.isBlocked(0));
+    }
+
+    @Test
+    public void blockedWhenDutyCycleExhaustedTest() {
+        guard.update(90, 10);
+
+        assertTrue(guard.isBlocked(0));
+        assertTrue(guard.isBlocked(BACKOFF - 1));
+    }
+
+    @Test
+    public void blockedWithoutFreeMemorySlotsTest() {
+        guard.update(10, 0);
+
+        assertTrue(guard.isBlocked(0));
+    }
+
+    @Test
+    public void blockLiftedAfterBackoffWithoutNewCubeStateTest() {
+        guard.update(100, 0);
+        assertTrue(guard.isBlocked(0));
+
+        // the stale values must not block again, the next command is sent as probe
+        assertFalse(guard.isBlocked(BACKOFF));
+        assertFalse(guard.isBlocked(BACKOFF + 1));
+    }
+
+    @Test
+    public void newCubeStateAfterBackoffBlocksAgainTest() {
+        guard.update(100, 0);
+        assertTrue(guard.isBlocked(0));
+        assertFalse(guard.isBlocked(BACKOFF));
+
+        guard.update(95, 5);
+        assertTrue(guard.isBlocked(BACKOFF));
+
+        guard.update(20, 5);
+        assertTrue(guard.isBlocked(2 * BACKOFF - 1));
+        assertFalse(guard.isBlocked(2 * BACKOFF));
+    }
+
+    @Test
+    public void backOffBlocksUntilExpiredTest() {
+        guard.update(20, 5);
+        guard.backOff(0);
+
+        assertTrue(guard.isBlocked(BACKOFF - 1));
+        assertFalse(guard.isBlocked(BACKOFF));
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.junit.Test;
+import org.openhab.binding.max.internal.command.C_Command;
+import org.openhab.binding.max.internal.command.Q_Command;
+
+/**
+ * Tests cases for {@link SendCommandQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SendCommandQueueTest {
+
+    private static final String SERIAL = "KEQ0544242";
+
+    private final ChannelUID setTempChannel = new ChannelUID("max:thermostat:cube:KEQ0544242:set_temp");
+    private final ChannelUID modeChannel = new ChannelUID("max:thermostat:cube:KEQ0544242:mode");
+
+    @Test
+    public void coalesceChannelCommandsTest() {
+        SendCommandQueue queue = new SendCommandQueue(10);
+        SendCommand temp1 = new SendCommand(SERIAL, setTempChannel, new DecimalType(20));
+        SendCommand mode = new SendCommand(SERIAL, modeChannel, new StringType("MANUAL"));
+        SendCommand temp2 = new SendCommand(SERIAL, setTempChannel, new DecimalType(21));
+
+        assertNull(queue.offer(temp1));
+        assertNull(queue.offer(mode));
+        assertSame(temp1, queue.offer(temp2));
+
+        assertEquals(Arrays.asList(mode, temp2), queue.drain());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void coalesceIdenticalCubeCommandsOnlyTest() {
+        SendCommandQueue queue = new SendCommandQueue(10);
+        SendCommand reload1 = new SendCommand(SERIAL, new Q_Command(), "Reload Data");
+        SendCommand config1 = new SendCommand(SERIAL, new C_Command("0b0da3"), "Refresh");
+        SendCommand config2 = new SendCommand(SERIAL, new C_Command("0e75f6"), "Refresh");
+        SendCommand reload2 = new SendCommand(SERIAL, new Q_Command(), "Reload Data");
+
+        queue.offer(reload1);
+        queue.offer(config1);
+        queue.offer(config2);
+        assertSame(reload1, queue.offer(reload2));
+
+        assertEquals(Arrays.asList(config1, config2, reload2), queue.drain());
+    }
+
+    @Test
+    public void requeueTest() {
+        SendCommandQueue queue = new SendCommandQueue(10);
+        SendCommand temp1 = new SendCommand(SERIAL, setTempChannel, new DecimalType(20));
+        SendCommand temp2 = new SendCommand(SERIAL, setTempChannel, new DecimalType(21));
+        SendCommand mode = new SendCommand(SERIAL, modeChannel, new StringType("MANUAL"));
+
+        queue.offer(temp2);
+        assertFalse(queue.requeue(temp1));
+
+        assertTrue(queue.requeue(mode));
+        assertEquals(Arrays.asList(mode, temp2), queue.drain());
+    }
+
+    @Test
+    public void capacityTest() {
+        SendCommandQueue queue = new SendCommandQueue(1);
+        SendCommand temp = new SendCommand(SERIAL, setTempChannel, new DecimalType(20));
+        SendCommand mode = new SendCommand(SERIAL, modeChannel, new StringType("MANUAL"));
+
+        assertNull(queue.offer(temp));
+        assertSame(mode, queue.offer(mode));
+        assertEquals(1, queue.size());
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.max.MaxBinding;
+import org.openhab.binding.max.internal.device.Device;
+import org.openhab.binding.max.internal.device.DeviceConfiguration;
+import org.openhab.binding.max.internal.device.DeviceStore;
+import org.openhab.binding.max.internal.device.HeatingThermostat;
+import org.openhab.binding.max.internal.device.ShutterContact;
+import org.openhab.binding.max.internal.device.ThermostatModeType;
+
+/**
+ * Tests cases for {@link L_Message}.
+ *
+ * @author agent - Initial contribution
+ */
+public class L_MessageTest {
+
+    private static final int THERMOSTAT_RF_ADDRESS = 0x0B0DA3;
+    private static final int SHUTTER_CONTACT_RF_ADDRESS = 0x0E75F6;
+
+    private final String rawData = "L:CwsNowkSGAAqANIABg519gkSEg==";
+    private final String rawDataValveChanged = "L:CwsNowkSGCAqANIABg519gkSEg==";
+
+    private String deviceCMsg[] = {
+            "C:0b0da3,0gsNowIBEABLRVEwNTQ0MjQyLCQ9CQcYAzAM/wBIYViRSP1ZFE0gTSBNIEUgRSBFIEUgRSBFIEhhWJFQ/VkVUSBRIFEgRSBFIEUgRSBFIEUgSFBYWkj+WRRNIE0gTSBFIEUgRSBFIEUgRSBIUFhaSP5ZFE0gTSBNIEUgRSBFIEUgRSBFIEhQWFpI/lkUTSBNIE0gRSBFIEUgRSBFIEUgSFBYWkj+WRRNIE0gTSBFIEUgRSBFIEUgRSBIUFhaSP5ZFE0gTSBNIEUgRSBFIEUgRSBFIA==",
+            "C:0e75f6,EQ519gQCEABLRVExMTA0Mzgw" };
+
+    private ArrayList<DeviceConfiguration> configurations = new ArrayList<DeviceConfiguration>();
+
+    @Before
+    public void Before() {
+        for (String cMsg : deviceCMsg) {
+            configurations.add(DeviceConfiguration.create(new C_Message(cMsg)));
+        }
+    }
+
+    @Test
+    public void getMessageTypeTest() {
+        L_Message message = new L_Message(rawData);
+
+        assertEquals(MessageType.L, message.getType());
+    }
+
+    @Test
+    public void updateDevicesAddsNewDevicesTest() {
+        DeviceStore store = new DeviceStore();
+
+        int count = new L_Message(rawData).updateDevices(store, configurations);
+
+        assertEquals(2, count);
+        assertEquals(2, store.size());
+
+        HeatingThermostat thermostat = (HeatingThermostat) store.get(THERMOSTAT_RF_ADDRESS);
+        assertNotNull(thermostat);
+        assertEquals(ThermostatModeType.AUTOMATIC, thermostat.getMode());
+        assertEquals(new DecimalType(0), thermostat.getValvePosition());
+        assertEquals(new DecimalType(21.0), thermostat.getTemperatureSetpoint());
+        assertEquals(new DecimalType(21.0), thermostat.getTemperatureActual());
+
+        ShutterContact shutterContact = (ShutterContact) store.get(SHUTTER_CONTACT_RF_ADDRESS);
+        assertNotNull(shutterContact);
+        assertEquals(OpenClosedType.OPEN, shutterContact.getShutterState());
+
+        assertSame(thermostat, store.getBySerialNumber(thermostat.getSerialNumber()));
+        assertNull(store.get(0x123456));
+    }
+
+    @Test
+    public void updateDevicesReportsChangedChannelsTest() {
+        DeviceStore store = new DeviceStore();
+        new L_Message(rawData).updateDevices(store, configurations);
+        for (Device device : store.getDevices()) {
+            device.setUpdated(false);
+        }
+
+        int count = new L_Message(rawDataValveChanged).updateDevices(store, configurations);
+        assertEquals(2, count);
+        assertEquals(2, store.size());
+
+        Device thermostat = store.get(THERMOSTAT_RF_ADDRESS);
+        assertTrue(thermostat.isUpdated());
+        assertEquals(Collections.singleton(MaxBinding.CHANNEL_VALVE), thermostat.getChangedChannels());
+
+        Device shutterContact = store.get(SHUTTER_CONTACT_RF_ADDRESS);
+        assertFalse(shutterContact.isUpdated());
+        assertTrue(shutterContact.getChangedChannels().isEmpty());
+    }
+
+    @Test
+    public void removeDeviceTest() {
+        DeviceStore store = new DeviceStore();
+        new L_Message(rawData).updateDevices(store, configurations);
+
+        assertTrue(store.remove(store.get(THERMOSTAT_RF_ADDRESS)));
+
+        assertEquals(1, store.size());
+        assertNull(store.get(THERMOSTAT_RF_ADDRESS));
+        assertNotNull(store.get(SHUTTER_CONTACT_RF_ADDRESS));
+    }
+}
@@ -100,6 +100,24 @@ public class S_Command extends CubeCommand {
         return "s:" + encodedString;
     }
 
+    /**
+     * Returns true, if the command is sent to all devices of the room the device is mapped to.
+     */
+    public boolean isGroupCommand() {
+        return roomId != 0;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Returns the encoded mode and setpoint temperature of the command.
+     */
+    public String getSetting() {
+        return Utils.toHex(bits);
+    }
+
     @Override
     public String getReturnStrings() {
         return "S:";
@@ -8,12 +8,17 @@
  */
 package org.openhab.binding.max.internal.device;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.openhab.binding.max.MaxBinding;
 import org.openhab.binding.max.internal.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +41,7 @@ public abstract class Device {
     private String name = "";
 
     private boolean updated;
+    private final Set<String> changedChannels = new HashSet<>();
     private boolean batteryLow;
 
     private boolean initialized;
@@ -106,11 +112,24 @@ public abstract class Device {
     }
 
     public static Device create(byte[] raw, List<DeviceConfiguration> configurations) {
-        if (raw.length == 0) {
+        return create(raw, 0, raw.length, configurations);
+    }
+
+    /**
+     * Creates a new device from the device data of a L message.
+     *
+     * @param data the decoded L message
+     * @param offset the offset of the device data, following the length byte
+     * @param length the length of the device data
+     * @param configurations the known device configurations
+     * @return the device or null, if there is no configuration for the RF address of the device
+     */
+    public static Device create(byte[] data, int offset, int length, List<DeviceConfiguration> configurations) {
+        if (length == 0) {
             return null;
         }
 
-        String rfAddress = Utils.toHex(raw[0] & 0xFF, raw[1] & 0xFF, raw[2] & 0xFF);
+        String rfAddress = Utils.toHex(data[offset] & 0xFF, data[offset + 1] & 0xFF, data[offset + 2] & 0xFF);
 
         // Based on the RF address and the corresponding configuration,
         // create the device based on the type specified in it's configuration
@@ -121,18 +140,34 @@ public abstract class Device {
             return null;
         }
 
-        return Device.update(raw, configurations, device);
+        return Device.update(data, offset, length, configurations, device);
     }
 
     public static Device update(byte[] raw, List<DeviceConfiguration> configurations, Device device) {
+        return update(raw, 0, raw.length, configurations, device);
+    }
+
+    /**
+     * Updates the device with the device data of a L message. The data is read in place, so the L message doesn't
+     * need to be split into separate arrays per device.
+     *
+     * @param data the decoded L message
+     * @param offset the offset of the device data, following the length byte
+     * @param length the length of the device data
+     * @param configurations the known device configurations
+     * @param device the device to update
+     * @return the updated device
+     */
+    public static Device update(byte[] data, int offset, int length, List<DeviceConfiguration> configurations,
+            Device device) {
 
         String rfAddress = device.getRFAddress();
 
         // byte 4 is skipped
 
         // multiple device information are encoded in those particular bytes
-        boolean[] bits1 = Utils.getBits(Utils.fromByte(raw[4]));
-        boolean[] bits2 = Utils.getBits(Utils.fromByte(raw[5]));
+        boolean[] bits1 = Utils.getBits(Utils.fromByte(data[offset + 4]));
+        boolean[] bits2 = Utils.getBits(Utils.fromByte(data[offset + 5]));
 
         device.setInitialized(bits1[1]);
         device.setAnswer(bits1[2]);
@@ -145,14 +180,21 @@ public abstract class Device {
         device.setLinkStatusError(bits2[6]);
         device.setBatteryLow(bits2[7]);
 
-        logger.trace("Device {} ({}): L Message length: {} content: {}", rfAddress, device.getType().toString(),
-                raw.length, Utils.getHex(raw));
+        if (logger.isTraceEnabled()) {
+            logger.trace("Device {} ({}): L Message length: {} content: {}", rfAddress, device.getType().toString(),
+                    length, Utils.getHex(Arrays.copyOfRange(data, offset, offset + length)));
+        }
 
         // TODO move the device specific readings into the sub classes
         switch (device.getType()) {
             case WallMountedThermostat:
             case HeatingThermostat:
             case HeatingThermostatPlus:
+                if (length < (device.getType() == DeviceType.WallMountedThermostat ? 12 : 11)) {
+                    logger.debug("Device {} ({}): L Message too short: {}", rfAddress, device.getType().toString(),
+                            length);
+                    break;
+                }
                 HeatingThermostat heatingThermostat = (HeatingThermostat) device;
                 // "xxxx xx00 = automatic, xxxx xx01 = manual, xxxx xx10 = vacation, xxxx xx11 = boost":
                 if (bits2[1] == false && bits2[0] == false) {
@@ -167,26 +209,25 @@ public abstract class Device {
                     logger.debug("Device {} ({}): Unknown mode", rfAddress, device.getType().toString());
                 }
 
-                heatingThermostat.setValvePosition(raw[6] & 0xFF);
-                heatingThermostat.setTemperatureSetpoint(raw[7] & 0x7F);
+                heatingThermostat.setValvePosition(data[offset + 6] & 0xFF);
+                heatingThermostat.setTemperatureSetpoint(data[offset + 7] & 0x7F);
 
                 // 9 2 858B Date until (05-09-2011) (see Encoding/Decoding
                 // date/time)
                 // B 1 2E Time until (23:00) (see Encoding/Decoding date/time)
-                String hexDate = Utils.toHex(raw[8] & 0xFF, raw[9] & 0xFF);
-                int dateValue = Utils.fromHex(hexDate);
-                int timeValue = raw[10] & 0xFF;
+                int dateValue = (data[offset + 8] & 0xFF) << 8 | (data[offset + 9] & 0xFF);
+                int timeValue = data[offset + 10] & 0xFF;
                 Date date = Utils.resolveDateTime(dateValue, timeValue);
                 heatingThermostat.setDateSetpoint(date);
 
                 int actualTemp = 0;
                 if (device.getType() == DeviceType.WallMountedThermostat) {
-                    actualTemp = (raw[11] & 0xFF) + (raw[7] & 0x80) * 2;
+                    actualTemp = (data[offset + 11] & 0xFF) + (data[offset + 7] & 0x80) * 2;
 
                 } else {
                     if (heatingThermostat.getMode() != ThermostatModeType.VACATION
                             && heatingThermostat.getMode() != ThermostatModeType.BOOST) {
-                        actualTemp = (raw[8] & 0xFF) * 256 + (raw[9] & 0xFF);
+                        actualTemp = (data[offset + 8] & 0xFF) * 256 + (data[offset + 9] & 0xFF);
                     } else {
                         logger.debug("Device {} ({}): No temperature reading in {} mode", rfAddress,
                                 device.getType().toString(), heatingThermostat.getMode());
@@ -197,9 +238,12 @@ public abstract class Device {
                 heatingThermostat.setTemperatureActual((double) actualTemp / 10);
                 break;
             case EcoSwitch:
-                String eCoSwitchData = Utils.toHex(raw[3] & 0xFF, raw[4] & 0xFF, raw[5] & 0xFF);
-                logger.trace("Device {} ({}): Status bytes : {}", rfAddress, device.getType().toString(),
-                        eCoSwitchData);
+                if (logger.isTraceEnabled()) {
+                    String eCoSwitchData = Utils.toHex(data[offset + 3] & 0xFF, data[offset + 4] & 0xFF,
+                            data[offset + 5] & 0xFF);
+                    logger.trace("Device {} ({}): Status bytes : {}", rfAddress, device.getType().toString(),
+                            eCoSwitchData);
+                }
                 EcoSwitch ecoswitch = (EcoSwitch) device;
                 // xxxx xx10 = shutter open, xxxx xx00 = shutter closed
                 if (bits2[1] == true && bits2[0] == false) {
@@ -229,7 +273,8 @@ public abstract class Device {
 
                 break;
             default:
-                logger.debug("Unhandled Device. DataBytes: " + Utils.getHex(raw));
+                logger.debug("Unhandled Device. DataBytes: {}",
+                        Utils.getHex(Arrays.copyOfRange(data, offset, offset + length)));
                 break;
 
         }
@@ -238,7 +283,7 @@ public abstract class Device {
 
     private final void setBatteryLow(boolean batteryLow) {
         if (this.batteryLow != batteryLow) {
-            this.updated = true;
+            setChanged(MaxBinding.CHANNEL_BATTERY);
         }
         this.batteryLow = batteryLow;
     }
@@ -280,7 +325,7 @@ public abstract class Device {
 
     private void setPanelLocked(boolean panelLocked) {
         if (this.panelLocked != panelLocked) {
-            this.updated = true;
+            setChanged(MaxBinding.CHANNEL_LOCKED);
         }
         this.panelLocked = panelLocked;
     }
@@ -342,6 +387,27 @@ public abstract class Device {
 
     public void setUpdated(boolean updated) {
         this.updated = updated;
+        if (!updated) {
+            changedChannels.clear();
+        }
+    }
+
+    /**
+     * Marks the channel as changed since the last update of the channel states.
+     *
+     * @param channelId the id of the changed channel
+     */
+    protected void setChanged(String channelId) {
+        changedChannels.add(channelId);
+        this.updated = true;
+    }
+
+    /**
+     * Returns the ids of the channels, which have changed since the last update of the channel states. Changes of the
+     * device status, which don't belong to a channel, are only reflected by {@link #isUpdated()}.
+     */
+    public Set<String> getChangedChannels() {
+        return Collections.unmodifiableSet(changedChannels);
     }
 
     public boolean isInitialized() {
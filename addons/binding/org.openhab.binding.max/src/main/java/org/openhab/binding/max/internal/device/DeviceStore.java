@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.device;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Holds the MAX! devices known to a Cube. The devices are indexed by their 3 byte RF address, which is used as
+ * primitive int key of an open addressing hash table, so the devices of a L message can be looked up without creating
+ * strings or boxed keys.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceStore {
+
+    private static final int EMPTY = -1;
+
+    private final ArrayList<Device> devices = new ArrayList<>();
+    private int[] keys;
+    private Device[] values;
+
+    public DeviceStore() {
+        createTable(16);
+    }
+
+    /**
+     * Returns the RF address key of the 3 bytes starting at offset.
+     */
+    public static int getRFAddressKey(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 16 | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF);
+    }
+
+    /**
+     * Returns the RF address key of the RF address in hex format.
+     */
+    public static int getRFAddressKey(String rfAddress) {
+        return Integer.parseInt(rfAddress, 16) & 0xFFFFFF;
+    }
+
+    /**
+     * Returns the device with the RF address key or null, if the device is not known.
+     */
+    public synchronized Device get(int rfAddressKey) {
+        int mask = keys.length - 1;
+        for (int i = hash(rfAddressKey) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == rfAddressKey) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the device with the serial number or null, if the device is not known.
+     */
+    public synchronized Device getBySerialNumber(String serialNumber) {
+        for (Device device : devices) {
+            if (device.getSerialNumber().equalsIgnoreCase(serialNumber)) {
+                return device;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the device, a known device with the same RF address is replaced.
+     */
+    public synchronized void add(Device device) {
+        int key = getRFAddressKey(device.getRFAddress());
+        Device previous = get(key);
+        if (previous != null) {
+            devices.remove(previous);
+        }
+        devices.add(device);
+        if ((devices.size() << 1) > keys.length) {
+            createTable(keys.length << 1);
+        } else {
+            put(key, device);
+        }
+    }
+
+    /**
+     * Removes the device.
+     */
+    public synchronized boolean remove(Device device) {
+        if (devices.remove(device)) {
+            // devices are rarely removed, so the table is simply rebuilt
+            createTable(keys.length);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of the list of devices in the order they have been added.
+     */
+    public synchronized ArrayList<Device> getDevices() {
+        return new ArrayList<>(devices);
+    }
+
+    public synchronized int size() {
+        return devices.size();
+    }
+
+    private void createTable(int capacity) {
+        keys = new int[capacity];
+        values = new Device[capacity];
+        Arrays.fill(keys, EMPTY);
+        for (Device device : devices) {
+            put(getRFAddressKey(device.getRFAddress()), device);
+        }
+    }
+
+    private void put(int key, Device device) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = device;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Date;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
+import org.openhab.binding.max.MaxBinding;
 
 /**
  * MAX! Heating thermostat & Heating thermostat+ .
@@ -78,7 +79,7 @@ public class HeatingThermostat extends Device {
 
     void setMode(ThermostatModeType mode) {
         if (this.mode != mode) {
-            setUpdated(true);
+            setChanged(MaxBinding.CHANNEL_MODE);
         }
         this.mode = mode;
     }
@@ -90,7 +91,7 @@ public class HeatingThermostat extends Device {
      */
     public void setValvePosition(int valvePosition) {
         if (this.valvePosition != valvePosition) {
-            setUpdated(true);
+            setChanged(MaxBinding.CHANNEL_VALVE);
         }
         this.valvePosition = valvePosition;
     }
@@ -120,7 +121,7 @@ public class HeatingThermostat extends Device {
      */
     public void setTemperatureActual(double value) {
         if (this.temperatureActual != value) {
-            setUpdated(true);
+            setChanged(MaxBinding.CHANNEL_ACTUALTEMP);
             this.actualTempLastUpdated = Calendar.getInstance().getTime();
         }
         this.temperatureActual = value;
@@ -145,7 +146,7 @@ public class HeatingThermostat extends Device {
      */
     public void setTemperatureSetpoint(int value) {
         if (Math.abs(this.temperatureSetpoint - (value / 2.0)) > 0.1) {
-            setUpdated(true);
+            setChanged(MaxBinding.CHANNEL_SETTEMP);
         }
         this.temperatureSetpoint = value / 2.0;
     }
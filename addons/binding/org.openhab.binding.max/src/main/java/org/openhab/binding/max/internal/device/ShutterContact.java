@@ -9,6 +9,7 @@
 package org.openhab.binding.max.internal.device;
 
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.openhab.binding.max.MaxBinding;
 
 /**
  * MAX! Shutter contact device.
@@ -26,8 +27,9 @@ public class ShutterContact extends Device {
     }
 
     public void setShutterState(OpenClosedType shutterState) {
-        if (this.shutterState != shutterState)
-            setUpdated(true);
+        if (this.shutterState != shutterState) {
+            setChanged(MaxBinding.CHANNEL_CONTACT_STATE);
+        }
         this.shutterState = shutterState;
     }
 
@@ -20,11 +20,12 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +59,7 @@ import org.openhab.binding.max.internal.command.UdpCubeCommand;
 import org.openhab.binding.max.internal.device.Device;
 import org.openhab.binding.max.internal.device.DeviceConfiguration;
 import org.openhab.binding.max.internal.device.DeviceInformation;
+import org.openhab.binding.max.internal.device.DeviceStore;
 import org.openhab.binding.max.internal.device.DeviceType;
 import org.openhab.binding.max.internal.device.HeatingThermostat;
 import org.openhab.binding.max.internal.device.RoomInformation;
@@ -101,7 +103,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
     /** timeout on network connection **/
     private static final int NETWORK_TIMEOUT = 10000;
 
-    private ArrayList<Device> devices = new ArrayList<Device>();
+    private DeviceStore devices = new DeviceStore();
     private ArrayList<RoomInformation> rooms;
     private HashSet<String> lastActiveDevices = new HashSet<String>();
 
@@ -115,9 +117,16 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 
     /** maximum queue size that we're allowing */
     private static final int MAX_COMMANDS = 50;
-    private ArrayBlockingQueue<SendCommand> commandQueue = new ArrayBlockingQueue<SendCommand>(MAX_COMMANDS);
+    private SendCommandQueue commandQueue = new SendCommandQueue(MAX_COMMANDS);
 
-    private SendCommand lastCommandId = null;
+    /** Duty cycle in percent from which on no further radio commands are sent */
+    private static final int MAX_DUTY_CYCLE = 90;
+
+    /** Time to wait before radio commands are sent again after the duty cycle limit has been reached */
+    private static final long DUTY_CYCLE_BACKOFF = TimeUnit.MINUTES.toMillis(2);
+
+    private RadioCommandGuard radioCommandGuard = new RadioCommandGuard(MAX_DUTY_CYCLE, DUTY_CYCLE_BACKOFF);
+    private boolean commandDiscarded = false;
 
     private String ipAddress;
     private int port;
@@ -151,6 +160,8 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
     private boolean previousOnline = false;
 
     private Set<DeviceStatusListener> deviceStatusListeners = new CopyOnWriteArraySet<>();
+    /** listeners registered since the last refresh, they get the state of all known devices once */
+    private Set<DeviceStatusListener> newDeviceStatusListeners = new CopyOnWriteArraySet<>();
 
     private ScheduledFuture<?> pollingJob;
     private Runnable pollingRunnable = new Runnable() {
@@ -254,7 +265,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
     private void cubeConfigReset() {
         logger.info("Resetting configuration for MAX! Cube {}", getThing().getUID());
         sendCubeCommand(new A_Command());
-        for (Device di : devices) {
+        for (Device di : devices.getDevices()) {
             for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
                 try {
                     deviceStatusListener.onDeviceRemoved(this, di);
@@ -327,32 +338,111 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
     }
 
     /**
-     * Takes a command from the command queue and send it to
-     * {@link executeCommand} for execution.
-     *
+     * Takes all commands from the command queue, combines them into as few commands as possible and sends them to the
+     * MAX! Cube within one session. Radio commands are postponed while the duty cycle of the Cube is exhausted or the
+     * Cube has no free memory slots left.
      */
     private synchronized void sendCommands() {
+        if (commandQueue.isEmpty()) {
+            return;
+        }
+
+        List<PendingCommand> pendingCommands = getPendingCommands(commandQueue.drain());
+        try {
+            for (int i = 0; i < pendingCommands.size(); i++) {
+                PendingCommand pendingCommand = pendingCommands.get(i);
+                if (pendingCommand.isRadioCommand() && radioCommandGuard.isBlocked(System.currentTimeMillis())) {
+                    logger.debug("Command {} postponed, duty cycle: {}, free memory slots: {}", pendingCommand,
+                            dutyCycle, freeMemorySlots);
+                    requeue(pendingCommand);
+                    continue;
+                }
+
+                // Actual sending of the data to the Max! Cube Lan Gateway
+                logger.debug("Command {} sent to MAX! Cube at IP: {}", pendingCommand, ipAddress);
+                commandDiscarded = false;
+                if (!sendCubeCommand(pendingCommand.cubeCommand, false)) {
+                    logger.warn("Error sending command {} to MAX! Cube at IP: {}", pendingCommand, ipAddress);
+                    // don't try to connect for each of the remaining commands, send them with the next run
+                    for (PendingCommand remainingCommand : pendingCommands.subList(i + 1, pendingCommands.size())) {
+                        requeue(remainingCommand);
+                    }
+                    break;
+                } else if (pendingCommand.isRadioCommand() && commandDiscarded) {
+                    logger.debug("Command {} discarded by MAX! Cube at IP: {}, retrying later", pendingCommand,
+                            ipAddress);
+                    radioCommandGuard.backOff(System.currentTimeMillis());
+                    requeue(pendingCommand);
+                } else {
+                    logger.trace("Command {} completed for MAX! Cube at IP: {}", pendingCommand, ipAddress);
+                }
+            }
+        } finally {
+            if (!exclusive) {
+                socketClose();
+            }
+        }
+    }
+
+    private void requeue(PendingCommand pendingCommand) {
+        for (SendCommand sendCommand : pendingCommand.sendCommands) {
+            commandQueue.requeue(sendCommand);
+        }
+    }
+
+    /**
+     * Converts the queued commands into the commands to be sent. The temperature and mode commands of a thermostat
+     * are combined into one S command and S commands with the same setting for a room are sent only once, as they
+     * are applied to all devices of the room.
+     */
+    private List<PendingCommand> getPendingCommands(List<SendCommand> sendCommands) {
+        Map<String, SendCommand> temperatureCommands = new HashMap<>();
+        Map<String, SendCommand> modeCommands = new HashMap<>();
+        for (SendCommand sendCommand : sendCommands) {
+            if (sendCommand.getCubeCommand() == null) {
+                if (CHANNEL_SETTEMP.equals(sendCommand.getChannelUID().getId())) {
+                    temperatureCommands.put(sendCommand.getDeviceSerial(), sendCommand);
+                } else if (CHANNEL_MODE.equals(sendCommand.getChannelUID().getId())) {
+                    modeCommands.put(sendCommand.getDeviceSerial(), sendCommand);
+                }
+            }
+        }
 
-        SendCommand sendCommand = commandQueue.poll();
-        if (sendCommand != null) {
-            CubeCommand cmd = sendCommand.getCubeCommand();
+        List<PendingCommand> pendingCommands = new ArrayList<>();
+        Map<String, PendingCommand> roomCommands = new HashMap<>();
+        Set<String> devicesDone = new HashSet<>();
+        for (SendCommand sendCommand : sendCommands) {
+            if (sendCommand.getCubeCommand() != null) {
+                pendingCommands.add(new PendingCommand(sendCommand.getCubeCommand(), sendCommand));
+                continue;
+            }
+
+            String serialNumber = sendCommand.getDeviceSerial();
+            if (!devicesDone.add(serialNumber)) {
+                continue;
+            }
+            SendCommand temperatureCommand = temperatureCommands.get(serialNumber);
+            SendCommand modeCommand = modeCommands.get(serialNumber);
+            S_Command cmd = getCommand(serialNumber, temperatureCommand, modeCommand);
             if (cmd == null) {
-                cmd = getCommand(sendCommand);
+                continue;
             }
-            if (cmd != null) {
-                // Actual sending of the data to the Max! Cube Lan Gateway
-                logger.debug("Command {} ({}:{}) sent to MAX! Cube at IP: {}", sendCommand.getId(),
-                        sendCommand.getKey(), sendCommand.getCommandText(), ipAddress);
 
-                if (sendCubeCommand(cmd)) {
-                    logger.trace("Command {} ({}:{}) completed for MAX! Cube at IP: {}", sendCommand.getId(),
-                            sendCommand.getKey(), sendCommand.getCommandText(), ipAddress);
-                } else {
-                    logger.warn("Error sending command {} ({}:{}) to MAX! Cube at IP: {}", sendCommand.getId(),
-                            sendCommand.getKey(), sendCommand.getCommandText(), ipAddress);
+            PendingCommand pendingCommand = new PendingCommand(cmd, temperatureCommand, modeCommand);
+            if (cmd.isGroupCommand()) {
+                String roomKey = cmd.getRoomId() + ":" + cmd.getSetting();
+                PendingCommand roomCommand = roomCommands.get(roomKey);
+                if (roomCommand != null) {
+                    logger.debug("Command {} combined with {} for room {}", pendingCommand, roomCommand,
+                            cmd.getRoomId());
+                    roomCommand.sendCommands.addAll(pendingCommand.sendCommands);
+                    continue;
                 }
+                roomCommands.put(roomKey, pendingCommand);
             }
+            pendingCommands.add(pendingCommand);
         }
+        return pendingCommands;
     }
 
     /**
@@ -364,11 +454,19 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
             if (sendCubeCommand(new L_Command())) {
                 updateStatus(ThingStatus.ONLINE);
                 previousOnline = true;
-                for (Device di : devices) {
+                Set<DeviceStatusListener> newListeners = new HashSet<>(newDeviceStatusListeners);
+                newDeviceStatusListeners.removeAll(newListeners);
+                for (Device di : devices.getDevices()) {
                     if (lastActiveDevices != null && lastActiveDevices.contains(di.getSerialNumber())) {
                         for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
                             try {
-                                deviceStatusListener.onDeviceStateChanged(getThing().getUID(), di);
+                                if (newListeners.contains(deviceStatusListener)) {
+                                    deviceStatusListener.onDeviceAdded(getThing(), di);
+                                    deviceStatusListener.onDeviceStateChanged(getThing().getUID(), di);
+                                } else if (di.isUpdated()) {
+                                    // only devices with changes since the last refresh are passed to the listeners
+                                    deviceStatusListener.onDeviceStateChanged(getThing().getUID(), di);
+                                }
                             } catch (Exception e) {
                                 logger.error("An exception occurred while calling the DeviceStatusListener", e);
                                 unregisterDeviceStatusListener(deviceStatusListener);
@@ -388,6 +486,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
                             lastActiveDevices.add(di.getSerialNumber());
                         }
                     }
+                    di.setUpdated(false);
                 }
             } else if (previousOnline) {
                 onConnectionLost();
@@ -422,7 +521,8 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
         }
         boolean result = deviceStatusListeners.add(deviceStatusListener);
         if (result) {
-            // onUpdate();
+            // pass all devices to the new listener with the next refresh, not only the changed ones
+            newDeviceStatusListeners.add(deviceStatusListener);
         }
         return result;
     }
@@ -432,6 +532,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
             throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
         }
         boolean result = deviceStatusListeners.remove(deviceStatusListener);
+        newDeviceStatusListeners.remove(deviceStatusListener);
         if (result) {
             clearDeviceList();
         }
@@ -449,69 +550,77 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
      * @param {@link CubeCommand}
      * @return boolean success
      */
-    private synchronized boolean sendCubeCommand(CubeCommand command) {
-        synchronized (MaxCubeBridgeHandler.class) {
-            boolean sendSuccess = false;
-            try {
-                if (socket == null || socket.isClosed()) {
-                    this.socketConnect();
-                }
-
-                if (maxRequestsPerConnection > 0 && requestCount >= maxRequestsPerConnection) {
-                    logger.debug("maxRequestsPerConnection reached, reconnecting.");
-                    socket.close();
-                    this.socketConnect();
-                } else {
+    private boolean sendCubeCommand(CubeCommand command) {
+        return sendCubeCommand(command, !exclusive);
+    }
 
-                    if (requestCount == 0) {
-                        logger.debug("Connect to MAX! Cube");
-                        readliness("L:");
+    /**
+     * Connects to the Max! Cube Lan gateway if not connected yet, sends a command to Cube
+     * and processes the message. Each Cube has its own connection, so commands to different
+     * Cubes don't block each other.
+     *
+     * @param {@link CubeCommand}
+     * @param closeConnection true, if the connection should be closed after the command has been processed
+     * @return boolean success
+     */
+    private synchronized boolean sendCubeCommand(CubeCommand command, boolean closeConnection) {
+        boolean sendSuccess = false;
+        try {
+            if (socket == null || socket.isClosed()) {
+                this.socketConnect();
+            } else if (maxRequestsPerConnection > 0 && requestCount >= maxRequestsPerConnection) {
+                logger.debug("maxRequestsPerConnection reached, reconnecting.");
+                socketClose();
+                this.socketConnect();
+            }
 
-                    }
-                    if (!(requestCount == 0 && command instanceof L_Command)) {
+            if (requestCount == 0) {
+                logger.debug("Connect to MAX! Cube");
+                readliness("L:");
 
-                        logger.debug("Sending request #{} to MAX! Cube", this.requestCount);
-                        if (writer == null) {
-                            logger.warn("Can't write to MAX! Cube");
-                            this.socketConnect();
-                        }
+            }
+            if (!(requestCount == 0 && command instanceof L_Command)) {
 
-                        writer.write(command.getCommandString());
-                        logger.trace("Write string to Max! Cube {}: {}", ipAddress, command.getCommandString());
-                        writer.flush();
-                        if (command.getReturnStrings() != null) {
-                            readliness(command.getReturnStrings());
-                        } else {
-                            socketClose();
-                        }
-                    }
+                logger.debug("Sending request #{} to MAX! Cube", this.requestCount);
+                if (writer == null) {
+                    logger.warn("Can't write to MAX! Cube");
+                    this.socketConnect();
                 }
 
-                requestCount++;
-                sendSuccess = true;
-
-                if (!exclusive) {
+                writer.write(command.getCommandString());
+                logger.trace("Write string to Max! Cube {}: {}", ipAddress, command.getCommandString());
+                writer.flush();
+                if (command.getReturnStrings() != null) {
+                    readliness(command.getReturnStrings());
+                } else {
                     socketClose();
                 }
-            } catch (ConnectException e) {
-                logger.debug("Connection timed out on {} port {}", ipAddress, port);
-                sendSuccess = false;
-                socketClose(); // reconnect on next execution
-            } catch (UnknownHostException e) {
-                logger.debug("Host error occurred during execution: {}", e.getMessage());
-                sendSuccess = false;
-                socketClose(); // reconnect on next execution
-            } catch (IOException e) {
-                logger.debug("IO error occurred during execution: {}", e.getMessage());
-                sendSuccess = false;
-                socketClose(); // reconnect on next execution
-            } catch (Exception e) {
-                logger.debug("Exception occurred during execution: {}", e.getMessage(), e);
-                sendSuccess = false;
-                socketClose(); // reconnect on next execution
             }
-            return sendSuccess;
+
+            requestCount++;
+            sendSuccess = true;
+
+            if (closeConnection) {
+                socketClose();
+            }
+        } catch (ConnectException e) {
+            logger.debug("Connection timed out on {} port {}", ipAddress, port);
+            sendSuccess = false;
+            socketClose(); // reconnect on next execution
+        } catch (UnknownHostException e) {
+            logger.debug("Host error occurred during execution: {}", e.getMessage());
+            sendSuccess = false;
+            socketClose(); // reconnect on next execution
+        } catch (IOException e) {
+            logger.debug("IO error occurred during execution: {}", e.getMessage());
+            sendSuccess = false;
+            socketClose(); // reconnect on next execution
+        } catch (Exception e) {
+            logger.debug("Exception occurred during execution: {}", e.getMessage(), e);
+            sendSuccess = false;
+            socketClose(); // reconnect on next execution
         }
+        return sendSuccess;
     }
 
     /**
@@ -572,6 +681,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
             if (message.getType() == MessageType.H) {
                 int freeMemorySlotsMsg = ((H_Message) message).getFreeMemorySlots();
                 int dutyCycleMsg = ((H_Message) message).getDutyCycle();
+                radioCommandGuard.update(dutyCycleMsg, freeMemorySlotsMsg);
                 if (freeMemorySlotsMsg != freeMemorySlots || dutyCycleMsg != dutyCycle) {
                     freeMemorySlots = freeMemorySlotsMsg;
                     dutyCycle = dutyCycleMsg;
@@ -651,13 +761,15 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
                     }
                 }
             } else if (message.getType() == MessageType.L) {
-                ((L_Message) message).updateDevices(devices, configurations);
-                logger.trace("{} devices found.", devices.size());
+                int count = ((L_Message) message).updateDevices(devices, configurations);
+                logger.trace("{} devices found, {} devices known.", count, devices.size());
             } else if (message.getType() == MessageType.S) {
                 dutyCycle = ((S_Message) message).getDutyCycle();
                 freeMemorySlots = ((S_Message) message).getFreeMemorySlots();
+                radioCommandGuard.update(dutyCycle, freeMemorySlots);
                 updateCubeState();
                 if (((S_Message) message).isCommandDiscarded()) {
+                    commandDiscarded = true;
                     logger.warn("Last Send Command discarded. Duty Cycle: {}, Free Memory Slots: {}", dutyCycle,
                             freeMemorySlots);
                 } else {
@@ -744,15 +856,6 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
         logger.debug("NTP properties updated");
     }
 
-    private Device getDevice(String serialNumber, ArrayList<Device> devices) {
-        for (Device device : devices) {
-            if (device.getSerialNumber().toUpperCase().equals(serialNumber)) {
-                return device;
-            }
-        }
-        return null;
-    }
-
     /**
      * Returns the MAX! Device decoded during the last refreshData
      *
@@ -762,104 +865,98 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
      */
 
     public Device getDevice(String serialNumber) {
-        return getDevice(serialNumber, devices);
+        return devices.getBySerialNumber(serialNumber);
     }
 
     /**
      * Takes the device command and puts it on the command queue to be processed
      * by the MAX! Cube Lan Gateway. Note that if multiple commands for the same
      * item-channel combination are send prior that they are processed by the
-     * Max! Cube, they will be removed from the queue as they would not be
-     * meaningful. This will improve the behavior when using sliders in the GUI.
+     * Max! Cube, only the last one is kept in the queue as the others would not
+     * be meaningful. This will improve the behavior when using sliders in the GUI.
      *
      * @param SendCommand
      *            the SendCommand containing the serial number of the device as
      *            String the channelUID used to send the command and the the
      *            command data
      */
-    public synchronized void queueCommand(SendCommand sendCommand) {
-
-        if (commandQueue.offer(sendCommand)) {
-            if (lastCommandId != null) {
-                if (lastCommandId.getKey().equals(sendCommand.getKey())) {
-                    if (commandQueue.remove(lastCommandId)) {
-                        logger.debug("Removed Command id {} ({}) from queue. Superceeded by {}", lastCommandId.getId(),
-                                lastCommandId.getKey(), sendCommand.getId());
-                    }
-                }
-            }
-            lastCommandId = sendCommand;
-            logger.debug("Command queued id {} ({}:{}).", sendCommand.getId(), sendCommand.getKey(),
-                    sendCommand.getCommandText());
-
-        } else {
+    public void queueCommand(SendCommand sendCommand) {
+        SendCommand superseded = commandQueue.offer(sendCommand);
+        if (superseded == sendCommand) {
             logger.debug("Command queued full dropping command id {} ({}).", sendCommand.getId(), sendCommand.getKey());
+            return;
         }
-
+        if (superseded != null) {
+            logger.debug("Removed Command id {} ({}) from queue. Superceeded by {}", superseded.getId(),
+                    superseded.getKey(), sendCommand.getId());
+        }
+        logger.debug("Command queued id {} ({}:{}).", sendCommand.getId(), sendCommand.getKey(),
+                sendCommand.getCommandText());
     }
 
     /**
-     * Processes device command and sends it to the MAX! Cube Lan Gateway.
+     * Creates the S command for the temperature and mode commands of a thermostat. If only one of the commands is
+     * given, the current temperature or mode of the thermostat is used for the other value.
      *
-     * @param {@link SendCommand}
-     *            the SendCommand containing the serial number of the device as
-     *            String the channelUID used to send the command and the the
-     *            command data
+     * @param serialNumber
+     *            the serial number of the thermostat
+     * @param temperatureCommand
+     *            the command for the temperature channel or null
+     * @param modeCommand
+     *            the command for the mode channel or null
+     * @return the S command or null, if the commands are not valid
      */
-    private CubeCommand getCommand(SendCommand sendCommand) {
-
-        String serialNumber = sendCommand.getDeviceSerial();
-        ChannelUID channelUID = sendCommand.getChannelUID();
-        Command command = sendCommand.getCommand();
+    private S_Command getCommand(String serialNumber, SendCommand temperatureCommand, SendCommand modeCommand) {
 
         // send command to MAX! Cube LAN Gateway
-        HeatingThermostat device = (HeatingThermostat) getDevice(serialNumber, devices);
+        Device device = getDevice(serialNumber);
 
-        if (device == null) {
+        if (!(device instanceof HeatingThermostat)) {
             logger.debug("Cannot send command to device with serial number {}, device not listed.", serialNumber);
             return null;
         }
-
-        String rfAddress = device.getRFAddress();
-        S_Command cmd = null;
+        HeatingThermostat thermostat = (HeatingThermostat) device;
+
+        ThermostatModeType mode = thermostat.getMode();
+        double setTemp = thermostat.getTemperatureSetpoint().doubleValue();
+
+        // Mode setting
+        if (modeCommand != null && modeCommand.getCommand() instanceof StringType) {
+            String commandContent = modeCommand.getCommand().toString().trim().toUpperCase();
+            if (commandContent.contentEquals(ThermostatModeType.AUTOMATIC.toString())) {
+                mode = ThermostatModeType.AUTOMATIC;
+                setTemp = 0D;
+            } else if (commandContent.contentEquals(ThermostatModeType.BOOST.toString())) {
+                mode = ThermostatModeType.BOOST;
+            } else if (commandContent.contentEquals(ThermostatModeType.MANUAL.toString())) {
+                mode = ThermostatModeType.MANUAL;
+                logger.debug("updates to MANUAL mode with temperature '{}'", setTemp);
+            } else {
+                logger.debug("Only updates to AUTOMATIC & BOOST & MANUAL supported, received value :'{}'",
+                        commandContent);
+                modeCommand = null;
+            }
+        } else {
+            modeCommand = null;
+        }
 
         // Temperature setting
-        if (channelUID.getId().equals(CHANNEL_SETTEMP)) {
-
-            if (command instanceof DecimalType || command instanceof OnOffType) {
-                DecimalType decimalType = DEFAULT_OFF_TEMPERATURE;
-                if (command instanceof DecimalType) {
-                    decimalType = (DecimalType) command;
-                } else if (command instanceof OnOffType) {
-                    decimalType = OnOffType.ON.equals(command) ? DEFAULT_ON_TEMPERATURE : DEFAULT_OFF_TEMPERATURE;
-                }
-
-                cmd = new S_Command(rfAddress, device.getRoomId(), device.getMode(), decimalType.doubleValue());
-            }
-            // Mode setting
-        } else if (channelUID.getId().equals(CHANNEL_MODE)) {
-            if (command instanceof StringType) {
-                String commandContent = command.toString().trim().toUpperCase();
-                ThermostatModeType commandThermoType = null;
-                Double setTemp = Double.parseDouble(device.getTemperatureSetpoint().toString());
-                if (commandContent.contentEquals(ThermostatModeType.AUTOMATIC.toString())) {
-                    commandThermoType = ThermostatModeType.AUTOMATIC;
-                    cmd = new S_Command(rfAddress, device.getRoomId(), commandThermoType, 0D);
-                } else if (commandContent.contentEquals(ThermostatModeType.BOOST.toString())) {
-                    commandThermoType = ThermostatModeType.BOOST;
-                    cmd = new S_Command(rfAddress, device.getRoomId(), commandThermoType, setTemp);
-                } else if (commandContent.contentEquals(ThermostatModeType.MANUAL.toString())) {
-                    commandThermoType = ThermostatModeType.MANUAL;
-                    cmd = new S_Command(rfAddress, device.getRoomId(), commandThermoType, setTemp);
-                    logger.debug("updates to MANUAL mode with temperature '{}'", setTemp);
-                } else {
-                    logger.debug("Only updates to AUTOMATIC & BOOST & MANUAL supported, received value :'{}'",
-                            commandContent);
-                    return null;
-                }
+        if (temperatureCommand != null) {
+            Command command = temperatureCommand.getCommand();
+            if (command instanceof DecimalType) {
+                setTemp = ((DecimalType) command).doubleValue();
+            } else if (command instanceof OnOffType) {
+                setTemp = OnOffType.ON.equals(command) ? DEFAULT_ON_TEMPERATURE.doubleValue()
+                        : DEFAULT_OFF_TEMPERATURE.doubleValue();
+            } else {
+                temperatureCommand = null;
             }
         }
-        return cmd;
+
+        if (temperatureCommand == null && modeCommand == null) {
+            return null;
+        }
+        return new S_Command(device.getRFAddress(), device.getRoomId(), mode, setTemp);
     }
 
     /**
@@ -870,7 +967,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
     public void sendDeviceAndRoomNameUpdate(String comment) {
         if (devices.size() > 0) {
             SendCommand sendCommand = new SendCommand("Cube(" + getThing().getUID().getId() + ")",
-                    new M_Command(devices, rooms), comment);
+                    new M_Command(devices.getDevices(), rooms), comment);
             queueCommand(sendCommand);
         } else {
             logger.debug("No devices to build room & device update message. Try later");
@@ -933,4 +1030,41 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
         updateState(new ChannelUID(getThing().getUID(), CHANNEL_FREE_MEMORY), new DecimalType(freeMemorySlots));
         updateState(new ChannelUID(getThing().getUID(), CHANNEL_DUTY_CYCLE), new DecimalType(dutyCycle));
     }
+
+    /**
+     * A command to be sent to the MAX! Cube together with the queued commands it has been created from.
+     */
+    private static class PendingCommand {
+        private final CubeCommand cubeCommand;
+        private final List<SendCommand> sendCommands = new ArrayList<>();
+
+        public PendingCommand(CubeCommand cubeCommand, SendCommand... sendCommands) {
+            this.cubeCommand = cubeCommand;
+            for (SendCommand sendCommand : sendCommands) {
+                if (sendCommand != null) {
+                    this.sendCommands.add(sendCommand);
+                }
+            }
+        }
+
+        /**
+         * Returns true, if the command is transmitted by the Cube and counts against its duty cycle.
+         */
+        public boolean isRadioCommand() {
+            return "S:".equals(cubeCommand.getReturnStrings());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (SendCommand sendCommand : sendCommands) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(sendCommand.getId()).append(" (").append(sendCommand.getKey()).append(':')
+                        .append(sendCommand.getCommandText()).append(')');
+            }
+            return sb.toString();
+        }
+    }
 }
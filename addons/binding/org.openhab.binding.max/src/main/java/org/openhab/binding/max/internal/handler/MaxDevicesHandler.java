@@ -17,6 +17,7 @@ import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -81,6 +82,13 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
             refreshActualsRestore();
         }
     };
+    private ScheduledFuture<?> refreshActualCheckJob;
+    private Runnable refreshActualCheckRunnable = new Runnable() {
+        @Override
+        public void run() {
+            refreshActualCheck();
+        }
+    };
 
     public MaxDevicesHandler(Thing thing) {
         super(thing);
@@ -114,6 +122,13 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
             configSet = false;
             forceRefresh = true;
             getMaxCubeBridgeHandler();
+
+            // the bridge only reports changed devices, so the age of the actual temperature is checked periodically
+            if (refreshActualRate >= REFRESH_ACTUAL_MIN_RATE
+                    && (refreshActualCheckJob == null || refreshActualCheckJob.isCancelled())) {
+                refreshActualCheckJob = scheduler.scheduleWithFixedDelay(refreshActualCheckRunnable, 1, 1,
+                        TimeUnit.MINUTES);
+            }
         } catch (Exception e) {
             logger.debug("Exception occurred during initialize : {}", e.getMessage(), e);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
@@ -135,6 +150,10 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
             refreshActualsJob.cancel(true);
             refreshActualsJob = null;
         }
+        if (refreshActualCheckJob != null && !refreshActualCheckJob.isCancelled()) {
+            refreshActualCheckJob.cancel(true);
+            refreshActualCheckJob = null;
+        }
         if (bridgeHandler != null) {
             logger.trace("Clear MAX! device {} {} from bridge.", getThing().getUID(), maxDeviceSerial);
             bridgeHandler.clearDeviceList();
@@ -388,42 +407,56 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
             if (!configSet) {
                 setDeviceConfiguration(device);
             }
-            if (refreshActualRate >= REFRESH_ACTUAL_MIN_RATE && (device.getType() == DeviceType.HeatingThermostat
-                    || device.getType() == DeviceType.HeatingThermostatPlus)) {
-                refreshActualCheck((HeatingThermostat) device);
-            }
             if (device.isUpdated() || forceRefresh) {
-                logger.debug("Updating states of {} {} ({}) id: {}", device.getType(), device.getName(),
-                        device.getSerialNumber(), getThing().getUID());
+                // without forced refresh only the channels with changed values are updated
+                Set<String> changed = forceRefresh ? null : device.getChangedChannels();
+                logger.debug("Updating states of {} {} ({}) id: {}, changed: {}", device.getType(), device.getName(),
+                        device.getSerialNumber(), getThing().getUID(), changed == null ? "all" : changed);
                 switch (device.getType()) {
                     case WallMountedThermostat:
                     case HeatingThermostat:
                     case HeatingThermostatPlus:
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_LOCKED),
-                                ((HeatingThermostat) device).isPanelLocked() ? OpenClosedType.CLOSED
-                                        : OpenClosedType.OPEN);
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_SETTEMP),
-                                ((HeatingThermostat) device).getTemperatureSetpoint());
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_MODE),
-                                ((HeatingThermostat) device).getModeString());
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
-                                ((HeatingThermostat) device).getBatteryLow());
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_VALVE),
-                                ((HeatingThermostat) device).getValvePosition());
+                        if (isChanged(changed, CHANNEL_LOCKED)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_LOCKED),
+                                    ((HeatingThermostat) device).isPanelLocked() ? OpenClosedType.CLOSED
+                                            : OpenClosedType.OPEN);
+                        }
+                        if (isChanged(changed, CHANNEL_SETTEMP)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_SETTEMP),
+                                    ((HeatingThermostat) device).getTemperatureSetpoint());
+                        }
+                        if (isChanged(changed, CHANNEL_MODE)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_MODE),
+                                    ((HeatingThermostat) device).getModeString());
+                        }
+                        if (isChanged(changed, CHANNEL_BATTERY)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
+                                    ((HeatingThermostat) device).getBatteryLow());
+                        }
+                        if (isChanged(changed, CHANNEL_VALVE)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_VALVE),
+                                    ((HeatingThermostat) device).getValvePosition());
+                        }
                         DecimalType actualTemp = ((HeatingThermostat) device).getTemperatureActual();
-                        if (!actualTemp.equals(DecimalType.ZERO)) {
+                        if (isChanged(changed, CHANNEL_ACTUALTEMP) && !actualTemp.equals(DecimalType.ZERO)) {
                             updateState(new ChannelUID(getThing().getUID(), CHANNEL_ACTUALTEMP), actualTemp);
                         }
                         break;
                     case ShutterContact:
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_CONTACT_STATE),
-                                ((ShutterContact) device).getShutterState());
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
-                                ((ShutterContact) device).getBatteryLow());
+                        if (isChanged(changed, CHANNEL_CONTACT_STATE)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_CONTACT_STATE),
+                                    ((ShutterContact) device).getShutterState());
+                        }
+                        if (isChanged(changed, CHANNEL_BATTERY)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
+                                    ((ShutterContact) device).getBatteryLow());
+                        }
                         break;
                     case EcoSwitch:
-                        updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
-                                ((EcoSwitch) device).getBatteryLow());
+                        if (isChanged(changed, CHANNEL_BATTERY)) {
+                            updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
+                                    ((EcoSwitch) device).getBatteryLow());
+                        }
                         break;
                     default:
                         logger.debug("Unhandled Device {}.", device.getType());
@@ -438,6 +471,25 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
         }
     }
 
+    private boolean isChanged(Set<String> changed, String channelId) {
+        return changed == null || changed.contains(channelId);
+    }
+
+    /**
+     * Checks the age of the actual temperature of the thermostat and triggers a refresh, if it is outdated.
+     */
+    private void refreshActualCheck() {
+        MaxCubeBridgeHandler bridge = bridgeHandler;
+        if (bridge == null || maxDeviceSerial == null) {
+            return;
+        }
+        Device device = bridge.getDevice(maxDeviceSerial);
+        if (device != null && (device.getType() == DeviceType.HeatingThermostat
+                || device.getType() == DeviceType.HeatingThermostatPlus)) {
+            refreshActualCheck((HeatingThermostat) device);
+        }
+    }
+
     private void refreshActualCheck(HeatingThermostat device) {
         DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
 
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.handler;
+
+/**
+ * Decides whether radio commands may be sent to a MAX! Cube, based on the duty cycle and free memory slots reported
+ * by the Cube in H and S messages. Once a limit is reached, radio commands are blocked for the backoff time.
+ *
+ * The Cube only reports new values when a connection is opened or a command has been sent, so the values which
+ * caused a block are stale once the backoff has expired. The next radio command is then sent as a probe and the
+ * values of its S reply decide about the following commands.
+ *
+ * @author agent - Initial contribution
+ */
+class RadioCommandGuard {
+
+    private final int maxDutyCycle;
+    private final long backoff;
+
+    private boolean stateReceived;
+    private boolean stateStale;
+    private int dutyCycle;
+    private int freeMemorySlots;
+    private long blockedUntil;
+
+    /**
+     * @param maxDutyCycle duty cycle in percent from which on no further radio commands are sent
+     * @param backoff time in ms to wait before radio commands are sent again after a limit has been reached
+     */
+    RadioCommandGuard(int maxDutyCycle, long backoff) {
+        this.maxDutyCycle = maxDutyCycle;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Takes the values reported by the Cube.
+     */
+    synchronized void update(int dutyCycle, int freeMemorySlots) {
+        this.dutyCycle = dutyCycle;
+        this.freeMemorySlots = freeMemorySlots;
+        stateReceived = true;
+        stateStale = false;
+    }
+
+    /**
+     * Blocks radio commands for the backoff time, e.g. because the Cube discarded a command.
+     */
+    synchronized void backOff(long now) {
+        blockedUntil = now + backoff;
+    }
+
+    /**
+     * Returns true, if no radio command should be sent at the given time.
+     */
+    synchronized boolean isBlocked(long now) {
+        if (now < blockedUntil) {
+            return true;
+        }
+        if (stateReceived && !stateStale && (dutyCycle >= maxDutyCycle || freeMemorySlots == 0)) {
+            blockedUntil = now + backoff;
+            stateStale = true;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.handler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of the commands waiting to be sent to a MAX! Cube. Commands for the same device channel are coalesced, only
+ * the latest command is kept and moved to the end of the queue. Commands which are not bound to a channel are only
+ * coalesced with identical commands for the same device, as e.g. different configuration commands must all be sent.
+ *
+ * @author agent - Initial contribution
+ */
+public class SendCommandQueue {
+
+    private final int capacity;
+    private final Map<String, SendCommand> commands = new LinkedHashMap<>();
+
+    public SendCommandQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the command to the end of the queue and removes a queued command it supersedes.
+     *
+     * @return the superseded command, the command itself if the queue is full and the command has been dropped or
+     *         null
+     */
+    public synchronized SendCommand offer(SendCommand sendCommand) {
+        String key = getCoalescingKey(sendCommand);
+        SendCommand superseded = commands.remove(key);
+        if (superseded == null && commands.size() >= capacity) {
+            return sendCommand;
+        }
+        commands.put(key, sendCommand);
+        return superseded;
+    }
+
+    /**
+     * Puts a command, which could not be sent, back to the head of the queue, unless it has been superseded by a newer
+     * command in the meantime or the queue is full.
+     *
+     * @return true, if the command has been queued again
+     */
+    public synchronized boolean requeue(SendCommand sendCommand) {
+        String key = getCoalescingKey(sendCommand);
+        if (commands.containsKey(key) || commands.size() >= capacity) {
+            return false;
+        }
+        Map<String, SendCommand> queued = new LinkedHashMap<>(commands);
+        commands.clear();
+        commands.put(key, sendCommand);
+        commands.putAll(queued);
+        return true;
+    }
+
+    /**
+     * Removes and returns all queued commands in the order they have to be sent.
+     */
+    public synchronized List<SendCommand> drain() {
+        List<SendCommand> drained = new ArrayList<>(commands.values());
+        commands.clear();
+        return drained;
+    }
+
+    public synchronized int size() {
+        return commands.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    private static String getCoalescingKey(SendCommand sendCommand) {
+        if (sendCommand.getCubeCommand() == null) {
+            return sendCommand.getKey();
+        }
+        return sendCommand.getKey() + ":" + sendCommand.getCubeCommand().getCommandString();
+    }
+}
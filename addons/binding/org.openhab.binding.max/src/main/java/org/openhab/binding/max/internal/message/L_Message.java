@@ -8,15 +8,15 @@
  */
 package org.openhab.binding.max.internal.message;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.net.util.Base64;
-import org.openhab.binding.max.internal.Utils;
 import org.openhab.binding.max.internal.device.Device;
 import org.openhab.binding.max.internal.device.DeviceConfiguration;
+import org.openhab.binding.max.internal.device.DeviceStore;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The L message contains real time information about all MAX! devices.
@@ -28,61 +28,55 @@ import org.slf4j.Logger;
  */
 public final class L_Message extends Message {
 
+    private final Logger logger = LoggerFactory.getLogger(L_Message.class);
+
     public L_Message(String raw) {
         super(raw);
     }
 
     public Collection<? extends Device> getDevices(List<DeviceConfiguration> configurations) {
-
-        List<Device> devices = new ArrayList<Device>();
-
-        byte[] decodedRawMessage = Base64.decodeBase64(getPayload().getBytes());
-
-        MaxTokenizer tokenizer = new MaxTokenizer(decodedRawMessage);
-
-        while (tokenizer.hasMoreElements()) {
-            byte[] token = tokenizer.nextElement();
-            Device tempDevice = Device.create(token, configurations);
-            if (tempDevice != null) {
-                devices.add(tempDevice);
-            }
-        }
-
-        return devices;
+        DeviceStore store = new DeviceStore();
+        updateDevices(store, configurations);
+        return store.getDevices();
     }
 
-    public Collection<? extends Device> updateDevices(List<Device> devices, List<DeviceConfiguration> configurations) {
+    /**
+     * Updates the devices of the store with the device data of this message and adds new devices. The device data is
+     * decoded in place and the devices are looked up by their RF address key, so no intermediate strings or arrays are
+     * created per device.
+     *
+     * @param store the known devices
+     * @param configurations the known device configurations used to create new devices
+     * @return the number of updated and added devices
+     */
+    public int updateDevices(DeviceStore store, List<DeviceConfiguration> configurations) {
 
         byte[] decodedRawMessage = Base64.decodeBase64(getPayload().getBytes());
 
-        MaxTokenizer tokenizer = new MaxTokenizer(decodedRawMessage);
-
-        while (tokenizer.hasMoreElements()) {
-            byte[] token = tokenizer.nextElement();
-            String rfAddress = Utils.toHex(token[0] & 0xFF, token[1] & 0xFF, token[2] & 0xFF);
-            // logger.debug("token: "+token+" rfaddress: "+rfAddress);
-
-            Device foundDevice = null;
-            for (Device device : devices) {
-                // logger.debug(device.getRFAddress().toUpperCase()+ " vs "+rfAddress);
-                if (device.getRFAddress().toUpperCase().equals(rfAddress)) {
-                    // logger.debug("Updating device..."+rfAddress);
-                    foundDevice = device;
-                }
+        int count = 0;
+        int offset = 0;
+        while (offset < decodedRawMessage.length) {
+            int length = decodedRawMessage[offset++] & 0xFF;
+            if (length < 6 || offset + length > decodedRawMessage.length) {
+                logger.debug("Skipping invalid device data of length {} at offset {}", length, offset - 1);
+                break;
             }
-            if (foundDevice != null) {
-                foundDevice = Device.update(token, configurations, foundDevice);
-                // devices.remove(token);
-                // devices.add(foundDevice);
+
+            Device device = store.get(DeviceStore.getRFAddressKey(decodedRawMessage, offset));
+            if (device != null) {
+                Device.update(decodedRawMessage, offset, length, configurations, device);
+                count++;
             } else {
-                Device tempDevice = Device.create(token, configurations);
-                if (tempDevice != null) {
-                    devices.add(tempDevice);
+                device = Device.create(decodedRawMessage, offset, length, configurations);
+                if (device != null) {
+                    store.add(device);
+                    count++;
                 }
             }
+            offset += length;
         }
 
-        return devices;
+        return count;
     }
 
     @Override
@@ -39,6 +39,8 @@ public class NetworkBindingConstants {
     public final static String PARAMETER_TIMEOUT = "timeout";
     public final static String PARAMETER_REFRESH_INTERVAL = "refresh_interval";
     public final static String PARAMETER_USE_SYSTEM_PING = "use_system_ping";
+    public final static String PARAMETER_USE_ARP_CACHE = "use_arp_cache";
+    public final static String PARAMETER_MACADDRESS = "macaddress";
 
     public final static Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_TYPE_DEVICE);
 
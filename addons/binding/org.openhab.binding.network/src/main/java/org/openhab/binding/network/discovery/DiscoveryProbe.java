@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.discovery;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openhab.binding.network.service.PresenceProber;
+import org.openhab.binding.network.service.StateUpdate;
+
+/**
+ * Probes one address of a discovery scan of the {@link NetworkDiscoveryService}. The address is pinged by the
+ * {@link PresenceProber}, if there is no answer the ping program of the system is tried as well. The service is
+ * told about a found device and when the probe is finished.
+ *
+ * @author agent - Initial contribution
+ */
+class DiscoveryProbe implements StateUpdate {
+    final String ip;
+    final NetworkDiscoveryService service;
+    private final AtomicInteger scanProbes;
+    private PresenceProber prober;
+    private boolean systemPing;
+
+    public DiscoveryProbe(String ip, NetworkDiscoveryService service, AtomicInteger scanProbes) {
+        this.ip = ip;
+        this.service = service;
+        this.scanProbes = scanProbes;
+        if (ip == null) {
+            throw new RuntimeException("ip may not be null!");
+        }
+    }
+
+    public void start(PresenceProber prober) {
+        this.prober = prober;
+        prober.discover(ip, NetworkDiscoveryService.PING_TIMEOUT_IN_MS, false, this);
+    }
+
+    @Override
+    public void newState(double state) {
+        if (state < 0 && !systemPing && service.isScanning()) {
+            systemPing = true;
+            prober.discover(ip, NetworkDiscoveryService.PING_TIMEOUT_IN_MS, true, this);
+            return;
+        }
+        if (state >= 0 && service.isScanning()) {
+            service.newDevice(ip);
+        }
+        service.probeFinished(scanProbes);
+    }
+
+    @Override
+    public void invalidConfig() {
+        // the system ping is not supported on this OS
+        service.probeFinished(scanProbes);
+    }
+}
@@ -11,12 +11,10 @@ package org.openhab.binding.network.discovery;
 import static org.openhab.binding.network.NetworkBindingConstants.*;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
@@ -24,65 +22,79 @@ import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.network.service.DiscoveryCallback;
 import org.openhab.binding.network.service.NetworkUtils;
+import org.openhab.binding.network.service.PresenceProber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
+ * Devices in the ARP table of the system are reported right away, all other addresses are pinged by the
+ * {@link PresenceProber}.
  *
  * @author Marc Mettke - Initial contribution
  */
 public class NetworkDiscoveryService extends AbstractDiscoveryService implements DiscoveryCallback {
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
-    private ExecutorService executorService = null;
     final static int PING_TIMEOUT_IN_MS = 500;
-    private int scanningNetworkSize = 0;
+    private volatile boolean scanning;
+    // the number of running probes of the current scan, each scan has its own counter
+    private volatile AtomicInteger runningProbes;
 
     public NetworkDiscoveryService() {
         super(SUPPORTED_THING_TYPES_UIDS, 900, false);
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Pings each IP on each interface on the network
      *
      */
     @Override
     protected void startScan() {
-        if (executorService != null) {
-            stopScan();
-        }
-
         logger.debug("Starting Discovery");
+        scanning = true;
+        PresenceProber prober = PresenceProber.getInstance();
         LinkedHashSet<String> networkIPs = NetworkUtils.getNetworkIPs(NetworkUtils.getInterfaceIPs());
-        scanningNetworkSize = networkIPs.size();
-        executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 10);
 
-        for (Iterator<String> it = networkIPs.iterator(); it.hasNext();) {
-            final String ip = it.next();
-            executorService.execute(new PingRunnable(ip, this));
+        Set<String> knownIPs = prober.getArpTable().getEntries().keySet();
+        AtomicInteger scanProbes = new AtomicInteger(networkIPs.size() + 1);
+        runningProbes = scanProbes;
+        for (String ip : networkIPs) {
+            if (knownIPs.contains(ip)) {
+                newDevice(ip);
+                probeFinished(scanProbes);
+            } else {
+                new DiscoveryProbe(ip, this, scanProbes).start(prober);
+            }
         }
-        stopScan();
+        probeFinished(scanProbes);
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        if (executorService == null) {
-            return;
-        }
+        scanning = false;
+    }
 
-        try {
-            executorService.awaitTermination(PING_TIMEOUT_IN_MS * scanningNetworkSize, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-        }
-        executorService.shutdown();
-        executorService = null;
+    boolean isScanning() {
+        return scanning;
+    }
 
+    /**
+     * Called by each probe when it is done, the scan is stopped after the last one. Probes of a previous scan, which
+     * are still running after a new scan has been started, don't stop the new scan.
+     *
+     * @param scanProbes the counter of the running probes of the scan the probe belongs to
+     */
+    void probeFinished(AtomicInteger scanProbes) {
+        if (scanProbes.decrementAndGet() == 0 && scanProbes == runningProbes && scanning) {
+            logger.debug("Discovery finished");
+            stopScan();
+        }
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called by the probes started in {@link startScan}.
      *
      * @param ip The device IP, received by the
      */
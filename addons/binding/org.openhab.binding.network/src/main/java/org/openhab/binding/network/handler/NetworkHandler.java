@@ -138,6 +138,16 @@ public class NetworkHandler extends BaseThingHandler implements StateUpdate {
             networkService.setUseSystemPing(confValueToBoolean(value));
         }
 
+        value = conf.get(PARAMETER_USE_ARP_CACHE);
+        if (value != null) {
+            networkService.setUseArpCache(confValueToBoolean(value));
+        }
+
+        value = conf.get(PARAMETER_MACADDRESS);
+        if (value != null && !String.valueOf(value).trim().isEmpty()) {
+            networkService.setMacAddress(String.valueOf(value).trim());
+        }
+
         networkService.startAutomaticRefresh(scheduler, this);
     }
 
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the ARP table of the kernel (only available on Linux). The table contains the addresses of all devices the
+ * system has talked to recently, which makes it a cheap way to find devices without sending any packet.
+ * The table is read at most once per second, so a batch of lookups only reads it once.
+ *
+ * Be aware that the kernel keeps entries of devices which have left the network for a while.
+ *
+ * @author agent - Initial contribution
+ */
+public class ArpTable {
+    private static final File ARP_TABLE = new File("/proc/net/arp");
+    private static final long MAX_AGE = 1000;
+
+    // flag of entries with a resolved hardware address
+    private static final int ATF_COM = 0x02;
+    private static final String NO_MAC = "00:00:00:00:00:00";
+
+    private final Logger logger = LoggerFactory.getLogger(ArpTable.class);
+
+    private Map<String, String> entries = Collections.emptyMap();
+    private long readTime;
+
+    /**
+     * @return true if the ARP table can be read on this system
+     */
+    public boolean isAvailable() {
+        return ARP_TABLE.canRead();
+    }
+
+    /**
+     * Returns the resolved entries of the ARP table.
+     *
+     * @return The MAC addresses by IP address, empty if the table is not available
+     */
+    public synchronized Map<String, String> getEntries() {
+        long now = System.currentTimeMillis();
+        if (now - readTime > MAX_AGE) {
+            entries = read();
+            readTime = now;
+        }
+        return entries;
+    }
+
+    /**
+     * @param ip An IPv4 address
+     * @return true if the ARP table contains a resolved entry for the address
+     */
+    public boolean contains(String ip) {
+        return getEntries().containsKey(ip);
+    }
+
+    private Map<String, String> read() {
+        if (!isAvailable()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> result = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(ARP_TABLE))) {
+            // IP address, HW type, Flags, HW address, Mask, Device
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.trim().split("\\s+");
+                if (columns.length < 4) {
+                    continue;
+                }
+                try {
+                    if ((Integer.decode(columns[2]) & ATF_COM) != 0 && !NO_MAC.equals(columns[3])) {
+                        result.put(columns[0], columns[3]);
+                    }
+                } catch (NumberFormatException e) {
+                    logger.trace("Skipping ARP table line '{}'", line);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not read the ARP table: {}", e.getMessage());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
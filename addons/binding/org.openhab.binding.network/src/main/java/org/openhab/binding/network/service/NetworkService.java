@@ -8,22 +8,21 @@
  */
 package org.openhab.binding.network.service;
 
-import java.io.IOException;
 import java.net.InetAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import org.eclipse.smarthome.model.script.actions.Ping;
 import org.openhab.binding.network.service.dhcp.ReceiveDHCPRequestPackets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The {@link NetworkService} handles the connection to the Device
+ * The {@link NetworkService} handles the connection to the Device. The device is probed by the shared
+ * {@link PresenceProber}.
  *
  * @author Marc Mettke
  * @author David Gräff, 2016 - Add DHCP listen for request packets
@@ -41,13 +40,15 @@ public class NetworkService {
     private long refreshInterval;
     private int timeout;
     private boolean useSystemPing;
+    private boolean useArpCache;
+    private String macAddress;
 
     public NetworkService() {
-        this("", 0, 1, true, 60000, 5000, false);
+        this("", 0, 1, true, 60000, 5000, false, false);
     }
 
     public NetworkService(String hostname, int port, int retry, boolean dhcplisten, long refreshInterval, int timeout,
-            boolean useSystemPing) {
+            boolean useSystemPing, boolean useArpCache) {
         super();
         this.hostname = hostname;
         this.port = port;
@@ -56,6 +57,7 @@ public class NetworkService {
         this.refreshInterval = refreshInterval;
         this.timeout = timeout;
         this.useSystemPing = useSystemPing;
+        this.useArpCache = useArpCache;
     }
 
     public String getHostname() {
@@ -82,6 +84,14 @@ public class NetworkService {
         return useSystemPing;
     }
 
+    public boolean isUseArpCache() {
+        return useArpCache;
+    }
+
+    public String getMacAddress() {
+        return macAddress;
+    }
+
     public void setHostname(String hostname) {
         this.hostname = hostname;
     }
@@ -110,16 +120,25 @@ public class NetworkService {
         this.useSystemPing = useSystemPing;
     }
 
+    public void setUseArpCache(boolean useArpCache) {
+        this.useArpCache = useArpCache;
+    }
+
+    /**
+     * @param macAddress The MAC address of the device to listen for DHCP requests of, or null to only listen for
+     *            requests of the IP address
+     */
+    public void setMacAddress(String macAddress) {
+        this.macAddress = macAddress;
+    }
+
     public void startAutomaticRefresh(ScheduledExecutorService scheduledExecutorService,
             final StateUpdate stateUpdate) {
         Runnable runnable = new Runnable() {
             @Override
             public void run() {
-                try {
-                    stateUpdate.newState(updateDeviceState());
-                } catch (InvalidConfigurationException e) {
-                    stateUpdate.invalidConfig();
-                }
+                PresenceProber.getInstance().probe(hostname, port, timeout, retry, useSystemPing, useArpCache,
+                        stateUpdate);
             }
         };
 
@@ -131,6 +150,13 @@ public class NetworkService {
             } catch (SocketException | UnknownHostException e) {
                 logger.error("Cannot use DHCP listen: " + e.getMessage());
             }
+            if (macAddress != null) {
+                try {
+                    ReceiveDHCPRequestPackets.registerMac(macAddress, stateUpdate);
+                } catch (SocketException | IllegalArgumentException e) {
+                    logger.error("Cannot use DHCP listen: " + e.getMessage());
+                }
+            }
         }
     }
 
@@ -140,48 +166,51 @@ public class NetworkService {
             ReceiveDHCPRequestPackets.unregister(InetAddress.getByName(hostname).getHostAddress());
         } catch (UnknownHostException e) {
         }
+        if (macAddress != null) {
+            ReceiveDHCPRequestPackets.unregisterMac(macAddress);
+        }
     }
 
     /**
-     * Updates one device to a new status
+     * Updates one device to a new status, waiting for the result of the probe
      */
     public double updateDeviceState() throws InvalidConfigurationException {
-        int currentTry = 0;
-        do {
-            boolean success;
-            double pingTime;
+        final CountDownLatch done = new CountDownLatch(1);
+        final double[] result = { -1 };
+        final boolean[] invalidConfig = { false };
+        PresenceProber.getInstance().probe(hostname, port, timeout, retry, useSystemPing, useArpCache,
+                new StateUpdate() {
+                    @Override
+                    public void newState(double state) {
+                        result[0] = state;
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void invalidConfig() {
+                        invalidConfig[0] = true;
+                        done.countDown();
+                    }
+                });
 
-            try {
-                pingTime = System.nanoTime();
-                if (!useSystemPing) {
-                    success = Ping.checkVitality(hostname, port, timeout);
-                } else {
-                    success = NetworkUtils.nativePing(hostname, port, timeout);
-                }
-                pingTime = System.nanoTime() - pingTime;
-                if (success) {
-                    logger.debug("established connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                    return pingTime / 1000000.0f;
-                }
-            } catch (SocketTimeoutException se) {
-                logger.debug("timed out while connecting to host '{}' port '{}' timeout '{}'",
-                        new Object[] { hostname, port, timeout });
-            } catch (IOException ioe) {
-                logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']",
-                        new Object[] { hostname, port, timeout });
-            } catch (InterruptedException e) {
-                logger.debug("ping program was interrupted");
+        try {
+            // probes may have to wait for others, so allow for twice the time of all tries
+            if (!done.await(2L * timeout * (retry + 1) + 1000, TimeUnit.MILLISECONDS)) {
+                logger.debug("timed out while waiting for the state of host '{}'", hostname);
             }
-
-        } while (currentTry++ < this.retry);
-
-        return -1;
+        } catch (InterruptedException e) {
+            logger.debug("interrupted while waiting for the state of host '{}'", hostname);
+            Thread.currentThread().interrupt();
+        }
+        if (invalidConfig[0]) {
+            throw new InvalidConfigurationException("System Ping not supported");
+        }
+        return result[0];
     }
 
     @Override
     public String toString() {
         return this.hostname + ";" + this.port + ";" + this.retry + ";" + this.refreshInterval + ";" + this.timeout
-                + ";" + this.useSystemPing;
+                + ";" + this.useSystemPing + ";" + this.useArpCache;
     }
 }
@@ -146,6 +146,31 @@ public class NetworkUtils {
         return (inetAddress2Int(addr) & 0xFFFFFFFFL);
     }
 
+    /**
+     * Converts a MAC address like <tt>00:11:22:33:44:55</tt> or <tt>00-11-22-33-44-55</tt> to 48 bits packaged
+     * into a 64 bits <tt>long</tt>.
+     *
+     * @param mac MAC address
+     * @return 48 bits long
+     * @throws IllegalArgumentException the address is not a valid MAC address.
+     */
+    public static final long macAddress2Long(String mac) {
+        String[] parts = mac.trim().split("[:-]");
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("Invalid MAC address: " + mac);
+        }
+
+        long value = 0;
+        for (String part : parts) {
+            int octet = Integer.parseInt(part, 16);
+            if (octet < 0 || octet > 0xFF) {
+                throw new IllegalArgumentException("Invalid MAC address: " + mac);
+            }
+            value = (value << 8) | octet;
+        }
+        return value;
+    }
+
     public static boolean nativePing(String hostname, int port, int timeout)
             throws InvalidConfigurationException, IOException, InterruptedException {
         Process proc;
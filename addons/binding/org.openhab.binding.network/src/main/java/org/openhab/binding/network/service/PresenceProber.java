@@ -0,0 +1,443 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.model.script.actions.Ping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The prober shared by all network things and the discovery. Probes are asynchronous, the result is reported to
+ * the given StateUpdate objects.
+ *
+ * Host names are resolved and ICMP or system pings are done on the threads of the "network" pool of the
+ * {@link ThreadPoolManager}. The probes of the discovery use the "networkDiscovery" pool instead, so a scan of a
+ * subnet doesn't delay the probes of the things. TCP probes are non-blocking connects, all of them are handled
+ * by one task of the "network" pool with a NIO selector, which ends if there are no more connects.
+ * Concurrent probes of the same host with the same settings share the result.
+ * If requested, a device is reported as reachable without any probe if it is in the ARP table of the system.
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceProber {
+    private static final String THREADPOOL_NAME = "network";
+    private static final String DISCOVERY_THREADPOOL_NAME = "networkDiscovery";
+
+    private static final PresenceProber INSTANCE = new PresenceProber();
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceProber.class);
+
+    private final ArpTable arpTable = new ArpTable();
+
+    // probes in progress by host and settings
+    private final Map<String, Probe> runningProbes = new HashMap<>();
+
+    // connects to be registered at the selector, guarded by itself
+    private final List<Probe> connectRequests = new ArrayList<>();
+    private boolean selectorRunning;
+    private volatile Selector selector;
+
+    public static PresenceProber getInstance() {
+        return INSTANCE;
+    }
+
+    PresenceProber() {
+    }
+
+    public ArpTable getArpTable() {
+        return arpTable;
+    }
+
+    /**
+     * Probes a host. The result is reported to the StateUpdate object, which is called by a thread of the prober
+     * and must not block. A probe already running for the same host with the same settings reports its result to
+     * the StateUpdate object as well.
+     *
+     * @param hostname The hostname or IP of the device
+     * @param port The TCP port to connect to or 0 to ping
+     * @param timeout The timeout of each try in ms
+     * @param retry How often to retry before the device is stated as not reachable
+     * @param useSystemPing Use the ping program of the system, the port is ignored
+     * @param useArpCache Report the device as reachable if it is in the ARP table of the system
+     * @param stateUpdate Receives the ping time in ms, 0 if the device is in the ARP table
+     *            or -1 if the device is not reachable
+     */
+    public void probe(String hostname, int port, int timeout, int retry, boolean useSystemPing, boolean useArpCache,
+            StateUpdate stateUpdate) {
+        probe(hostname, useSystemPing ? 0 : port, timeout, retry, useSystemPing, useArpCache, false, stateUpdate);
+    }
+
+    /**
+     * Pings a host for the discovery, without retries. See {@link #probe}.
+     *
+     * @param hostname The IP of the device
+     * @param timeout The timeout of the ping in ms
+     * @param useSystemPing Use the ping program of the system
+     * @param stateUpdate Receives the ping time in ms or -1 if the device is not reachable
+     */
+    public void discover(String hostname, int timeout, boolean useSystemPing, StateUpdate stateUpdate) {
+        probe(hostname, 0, timeout, 0, useSystemPing, false, true, stateUpdate);
+    }
+
+    private void probe(String hostname, int port, int timeout, int retry, boolean useSystemPing,
+            boolean useArpCache, boolean discovery, StateUpdate stateUpdate) {
+        String key = hostname + ":" + (useSystemPing ? "system" : port) + ":" + timeout + ":" + retry + ":"
+                + useArpCache + ":" + discovery;
+        ExecutorService pool = ThreadPoolManager.getPool(discovery ? DISCOVERY_THREADPOOL_NAME : THREADPOOL_NAME);
+        final Probe probe;
+        synchronized (runningProbes) {
+            Probe runningProbe = runningProbes.get(key);
+            if (runningProbe != null) {
+                runningProbe.stateUpdates.add(stateUpdate);
+                return;
+            }
+            probe = new Probe(key, hostname, port, timeout, retry, useSystemPing, useArpCache, pool);
+            probe.stateUpdates.add(stateUpdate);
+            runningProbes.put(key, probe);
+        }
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                resolve(probe);
+            }
+        });
+    }
+
+    /**
+     * Resolves the host name, which may block, and starts the probe
+     */
+    private void resolve(Probe probe) {
+        try {
+            probe.address = InetAddress.getByName(probe.hostname);
+        } catch (UnknownHostException e) {
+            logger.debug("couldn't resolve host '{}'", probe.hostname);
+            report(probe, -1);
+            return;
+        }
+
+        if (probe.useArpCache && arpTable.contains(probe.address.getHostAddress())) {
+            logger.debug("host '{}' found in the ARP table", probe.hostname);
+            report(probe, 0);
+            return;
+        }
+
+        if (probe.isTcp()) {
+            connect(probe);
+        } else {
+            ping(probe);
+        }
+    }
+
+    private void start(final Probe probe) {
+        if (probe.isTcp()) {
+            connect(probe);
+        } else {
+            probe.pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ping(probe);
+                }
+            });
+        }
+    }
+
+    /**
+     * Pings the host, blocking the calling thread
+     */
+    private void ping(Probe probe) {
+        try {
+            long start = System.nanoTime();
+            boolean success;
+            if (probe.useSystemPing) {
+                success = NetworkUtils.nativePing(probe.hostname, probe.port, probe.timeout);
+            } else {
+                success = Ping.checkVitality(probe.hostname, probe.port, probe.timeout);
+            }
+            completed(probe, success ? elapsed(start) : -1);
+        } catch (InvalidConfigurationException e) {
+            invalidConfig(probe);
+        } catch (IOException e) {
+            logger.debug("couldn't ping host '{}' timeout '{}'", probe.hostname, probe.timeout);
+            completed(probe, -1);
+        } catch (InterruptedException e) {
+            logger.debug("ping program was interrupted");
+            completed(probe, -1);
+        }
+    }
+
+    private void connect(Probe probe) {
+        synchronized (connectRequests) {
+            connectRequests.add(probe);
+            if (!selectorRunning) {
+                selectorRunning = true;
+                ThreadPoolManager.getPool(THREADPOOL_NAME).execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        select();
+                    }
+                });
+            } else if (selector != null) {
+                selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * Runs the selector of the TCP probes until there are no more probes.
+     */
+    private void select() {
+        Selector selector;
+        try {
+            selector = Selector.open();
+            this.selector = selector;
+        } catch (IOException e) {
+            logger.error("Could not open selector: {}", e.getMessage());
+            List<Probe> probes;
+            synchronized (connectRequests) {
+                probes = new ArrayList<>(connectRequests);
+                connectRequests.clear();
+                selectorRunning = false;
+            }
+            for (Probe probe : probes) {
+                completed(probe, -1);
+            }
+            return;
+        }
+
+        try {
+            while (true) {
+                List<Probe> probes;
+                synchronized (connectRequests) {
+                    if (connectRequests.isEmpty() && !hasValidKeys(selector)) {
+                        selectorRunning = false;
+                        return;
+                    }
+                    probes = new ArrayList<>(connectRequests);
+                    connectRequests.clear();
+                }
+                for (Probe probe : probes) {
+                    openConnection(selector, probe);
+                }
+
+                long wait = Long.MAX_VALUE;
+                long now = System.nanoTime();
+                for (SelectionKey key : selector.keys()) {
+                    if (key.isValid()) {
+                        wait = Math.min(wait, ((Probe) key.attachment()).deadline - now);
+                    }
+                }
+                if (wait == Long.MAX_VALUE) {
+                    // removes the cancelled keys
+                    selector.selectNow();
+                } else {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait) + 1));
+                }
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (key.isValid() && key.isConnectable()) {
+                        finishConnection(key);
+                    }
+                }
+
+                now = System.nanoTime();
+                for (SelectionKey key : selector.keys()) {
+                    Probe probe = (Probe) key.attachment();
+                    if (key.isValid() && now - probe.deadline >= 0) {
+                        logger.debug("timed out while connecting to host '{}' port '{}' timeout '{}'", probe.hostname,
+                                probe.port, probe.timeout);
+                        close(key);
+                        completed(probe, -1);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Selector failed: {}", e.getMessage());
+            List<Probe> probes = new ArrayList<>();
+            synchronized (connectRequests) {
+                probes.addAll(connectRequests);
+                connectRequests.clear();
+                selectorRunning = false;
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid()) {
+                    probes.add((Probe) key.attachment());
+                    close(key);
+                }
+            }
+            for (Probe probe : probes) {
+                completed(probe, -1);
+            }
+        } finally {
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.debug("Could not close selector: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean hasValidKeys(Selector selector) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void openConnection(Selector selector, Probe probe) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            probe.start = System.nanoTime();
+            probe.deadline = probe.start + TimeUnit.MILLISECONDS.toNanos(probe.timeout);
+            if (channel.connect(new InetSocketAddress(probe.address, probe.port))) {
+                channel.close();
+                completed(probe, elapsed(probe.start));
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            }
+        } catch (IOException e) {
+            logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']", probe.hostname,
+                    probe.port, probe.timeout);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            completed(probe, -1);
+        }
+    }
+
+    private void finishConnection(SelectionKey key) {
+        Probe probe = (Probe) key.attachment();
+        double result;
+        try {
+            ((SocketChannel) key.channel()).finishConnect();
+            result = elapsed(probe.start);
+            logger.debug("established connection [host '{}' port '{}' timeout '{}']", probe.hostname, probe.port,
+                    probe.timeout);
+        } catch (IOException e) {
+            logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']", probe.hostname,
+                    probe.port, probe.timeout);
+            result = -1;
+        }
+        close(key);
+        completed(probe, result);
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            logger.trace("Could not close channel: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retries a failed probe or reports the result
+     */
+    private void completed(Probe probe, double result) {
+        if (result < 0 && probe.tries++ < probe.retry) {
+            start(probe);
+            return;
+        }
+        report(probe, result);
+    }
+
+    /**
+     * Reports the result to all StateUpdate objects of the probe
+     */
+    private void report(Probe probe, double result) {
+        List<StateUpdate> stateUpdates;
+        synchronized (runningProbes) {
+            runningProbes.remove(probe.key);
+            stateUpdates = probe.stateUpdates;
+        }
+        for (StateUpdate stateUpdate : stateUpdates) {
+            try {
+                stateUpdate.newState(result);
+            } catch (RuntimeException e) {
+                logger.warn("Could not report state of host '{}': {}", probe.hostname, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void invalidConfig(Probe probe) {
+        List<StateUpdate> stateUpdates;
+        synchronized (runningProbes) {
+            runningProbes.remove(probe.key);
+            stateUpdates = probe.stateUpdates;
+        }
+        for (StateUpdate stateUpdate : stateUpdates) {
+            stateUpdate.invalidConfig();
+        }
+    }
+
+    private static double elapsed(long start) {
+        return (System.nanoTime() - start) / 1000000.0;
+    }
+
+    private static class Probe {
+        final String key;
+        final String hostname;
+        final int port;
+        final int timeout;
+        final int retry;
+        final boolean useSystemPing;
+        final boolean useArpCache;
+        final ExecutorService pool;
+
+        // guarded by runningProbes
+        final List<StateUpdate> stateUpdates = new ArrayList<>(1);
+
+        InetAddress address;
+        int tries;
+        long start;
+        long deadline;
+
+        Probe(String key, String hostname, int port, int timeout, int retry, boolean useSystemPing,
+                boolean useArpCache, ExecutorService pool) {
+            this.key = key;
+            this.hostname = hostname;
+            this.port = port;
+            this.timeout = timeout;
+            this.retry = retry;
+            this.useSystemPing = useSystemPing;
+            this.useArpCache = useArpCache;
+            this.pool = pool;
+        }
+
+        boolean isTcp() {
+            return !useSystemPing && port > 0;
+        }
+    }
+}
@@ -8,30 +8,23 @@
  */
 package org.openhab.binding.network.service.dhcp;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
-import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 /**
- * Parses a dhcp packet and extracts the OP code and all DHCP Options.
+ * Parses a dhcp packet and extracts the OP code, the client addresses and the DHCP Options needed to detect
+ * devices. The packet is parsed in place and the extracted values are kept as primitives, so one instance can be
+ * reused for all received packets without allocating anything.
  *
  * Example:
  *   DatagramSocket socket = new DatagramSocket(67);
+ *   DatagramPacket packet = new DatagramPacket(new byte[1500], 1500);
+ *   DHCPPacket dhcp = new DHCPPacket();
  *   while (true) {
- *      DatagramPacket packet = new DatagramPacket(new byte[1500], 1500);
  *      socket.receive(packet);
- *      DHCPPacket dhcp = new DHCPPacket(packet);
- *      InetAddress requestedAddress = dhcp.getRequestedIPAddress();
+ *      if (dhcp.parse(packet.getData(), packet.getOffset(), packet.getLength())
+ *              && dhcp.hasRequestedIPAddress()) {
+ *          int requestedAddress = dhcp.getRequestedIPAddress();
+ *      }
  *   }
  *
- * If used this way, beware that a <tt>BadPacketExpcetion</tt> is thrown
- * if the datagram contains invalid DHCP data.
- *
  * @author David Graeff <david.graeff@web.de>
  */
 class DHCPPacket {
@@ -63,111 +56,100 @@ class DHCPPacket {
     // Magic cookie
     static final int _MAGIC_COOKIE = 0x63825363;
 
-    /**
-     * If a DHCP datagram is malformed this Exception is thrown.
-     *
-     * It inherits from <tt>IllegalArgumentException</tt> and <tt>RuntimeException</tt>
-     * so it doesn't need to be explicitly caught.
-     *
-     * @author David Gräff
-     */
-    static class BadPacketException extends IllegalArgumentException {
-        private static final long serialVersionUID = 5866225879843384688L;
+    /** Offsets of the static part of the packet **/
+    private static final int OFFSET_HTYPE = 1;
+    private static final int OFFSET_HLEN = 2;
+    private static final int OFFSET_CIADDR = 12;
+    private static final int OFFSET_CHADDR = 28;
+    private static final int OFFSET_MAGIC_COOKIE = _BOOTP_ABSOLUTE_MIN_LEN;
+    private static final int OFFSET_OPTIONS = OFFSET_MAGIC_COOKIE + 4;
 
-        BadPacketException(String message) {
-            super(message);
-        }
-
-        BadPacketException(String message, Throwable cause) {
-            super(message, cause);
-        }
-
-    }
+    private static final int HTYPE_ETHERNET = 1;
+    private static final int ETHERNET_ADDRESS_LENGTH = 6;
 
     private byte op;
-    private Map<Byte, byte[]> options;
+    private int messageType;
+    private int clientAddress;
+    private long clientMacAddress;
+    private boolean hasClientMacAddress;
+    private int requestedAddress;
+    private boolean hasRequestedAddress;
 
     /**
-     * Constructor for the <tt>DHCPPacket</tt> class. Parses the given datagram.
+     * Parses the given datagram content. The values of the previously parsed packet are replaced.
+     *
+     * @param buffer The buffer containing the datagram
+     * @param offset The offset of the datagram in the buffer
+     * @param length The length of the datagram
+     * @return false if the datagram does not contain valid DHCP data
      */
-    public DHCPPacket(DatagramPacket datagram) throws BadPacketException, IOException {
-        this.op = BOOTREPLY;
-        this.options = new LinkedHashMap<Byte, byte[]>();
-
-        byte[] buffer = datagram.getData();
-        int offset = datagram.getOffset();
-        int length = datagram.getLength();
-
-        // absolute minimum size for a valid packet
-        if (length < _BOOTP_ABSOLUTE_MIN_LEN) {
-            throw new BadPacketException(
-                    "DHCP Packet too small (" + length + ") absolute minimum is " + _BOOTP_ABSOLUTE_MIN_LEN);
-        }
+    public boolean parse(byte[] buffer, int offset, int length) {
+        op = BOOTREPLY;
+        messageType = -1;
+        clientAddress = 0;
+        hasClientMacAddress = false;
+        hasRequestedAddress = false;
+
+        // absolute minimum size for a valid packet including the magic cookie,
         // maximum size for a valid DHCP packet
-        if (length > _DHCP_MAX_MTU) {
-            throw new BadPacketException("DHCP Packet too big (" + length + ") max MTU is " + _DHCP_MAX_MTU);
+        if (length < OFFSET_OPTIONS || length > _DHCP_MAX_MTU || offset + length > buffer.length) {
+            return false;
         }
 
-        // turn buffer into a readable stream
-        ByteArrayInputStream inBStream = new ByteArrayInputStream(buffer, offset, length);
-        DataInputStream inStream = new DataInputStream(inBStream);
-
-        byte[] dummy = new byte[128];
-
         // parse static part of packet
-        this.op = inStream.readByte();
-        inStream.readByte(); // read hardware type (ETHERNET)
-        inStream.readByte(); // read hardware address length (6 bytes)
-        inStream.readByte(); // read hops
-        inStream.readInt(); // read transaction id
-        inStream.readShort(); // read secsonds elapsed
-        inStream.readShort(); // read flags
-        inStream.readFully(dummy, 0, 4); // ciaddr
-        inStream.readFully(dummy, 0, 4); // yiaddr
-        inStream.readFully(dummy, 0, 4); // siaddr
-        inStream.readFully(dummy, 0, 4); // giaddr
-        inStream.readFully(dummy, 0, 16); // chaddr
-        inStream.readFully(dummy, 0, 64); // sname
-        inStream.readFully(dummy, 0, 128); // file
+        op = buffer[offset];
+        clientAddress = readInt(buffer, offset + OFFSET_CIADDR);
+        if ((buffer[offset + OFFSET_HTYPE] & 0xFF) == HTYPE_ETHERNET
+                && (buffer[offset + OFFSET_HLEN] & 0xFF) == ETHERNET_ADDRESS_LENGTH) {
+            long mac = 0;
+            for (int i = 0; i < ETHERNET_ADDRESS_LENGTH; i++) {
+                mac = (mac << 8) | (buffer[offset + OFFSET_CHADDR + i] & 0xFF);
+            }
+            clientMacAddress = mac;
+            hasClientMacAddress = true;
+        }
 
         // check for DHCP MAGIC_COOKIE
-        inBStream.mark(4); // read ahead 4 bytes
-        if (inStream.readInt() != _MAGIC_COOKIE) {
-            throw new BadPacketException("Packet seams to be truncated");
+        if (readInt(buffer, offset + OFFSET_MAGIC_COOKIE) != _MAGIC_COOKIE) {
+            return false;
         }
 
         // DHCP Packet: parsing options
-        int type = 0;
-
-        while (true) {
-            int r = inBStream.read();
-            if (r < 0) {
-                break;
-            } // EOF
-
-            type = (byte) r;
-
+        int position = offset + OFFSET_OPTIONS;
+        int end = offset + length;
+        while (position < end) {
+            byte type = buffer[position++];
             if (type == DHO_PAD) {
                 continue;
-            } // skip Padding
+            }
             if (type == DHO_END) {
-                break;
-            } // break if end of options
-
-            r = inBStream.read();
-            if (r < 0) {
-                break;
-            } // EOF
-
-            int len = Math.min(r, inBStream.available());
-            byte[] unit_opt = new byte[len];
-            inBStream.read(unit_opt);
-
-            this.options.put((byte) type, unit_opt);
-        }
-        if (type != DHO_END) {
-            throw new BadPacketException("Packet seams to be truncated");
+                return true;
+            }
+            if (position >= end) {
+                return false;
+            }
+            int optionLength = buffer[position++] & 0xFF;
+            if (position + optionLength > end) {
+                return false;
+            }
+
+            if (type == DHO_DHCP_MESSAGE_TYPE) {
+                if (optionLength != 1) {
+                    return false;
+                }
+                messageType = buffer[position];
+            } else if (type == DHO_DHCP_REQUESTED_ADDRESS) {
+                if (optionLength != 4) {
+                    return false;
+                }
+                requestedAddress = readInt(buffer, position);
+                hasRequestedAddress = true;
+            }
+            position += optionLength;
         }
+
+        // packet seems to be truncated
+        return false;
     }
 
     /**
@@ -183,35 +165,49 @@ class DHCPPacket {
     /**
      * Return the DHCP Option Type.
      *
-     * <p>
-     * This is a short-cut for <tt>getOptionAsByte(DHO_DHCP_MESSAGE_TYPE)</tt>.
+     * @return option type, or -1 if not present.
+     */
+    public int getDHCPMessageType() {
+        return messageType;
+    }
+
+    /**
+     * Returns the ciaddr field, the address of a client renewing its lease.
      *
-     * @return option type, of <tt>null</tt> if not present.
+     * @return the IPv4 address as 32 bits int, 0 if not set
      */
-    public Byte getDHCPMessageType() {
-        byte[] opt = options.get(DHO_DHCP_MESSAGE_TYPE);
-        if (opt == null) {
-            return null;
-        }
-        if (opt.length != 1) {
-            throw new BadPacketException(
-                    "option " + DHO_DHCP_MESSAGE_TYPE + " is wrong size:" + opt.length + " should be 1");
-        }
-        return opt[0];
+    public int getClientIPAddress() {
+        return clientAddress;
+    }
+
+    public boolean hasClientMACAddress() {
+        return hasClientMacAddress;
+    }
+
+    /**
+     * Returns the chaddr field of an ethernet client.
+     *
+     * @return the MAC address as 48 bits long
+     */
+    public long getClientMACAddress() {
+        return clientMacAddress;
+    }
+
+    public boolean hasRequestedIPAddress() {
+        return hasRequestedAddress;
     }
 
     /**
      * Returns the requested IP address of a BOOTREQUEST packet.
+     *
+     * @return the IPv4 address as 32 bits int
      */
-    InetAddress getRequestedIPAddress() throws IllegalArgumentException, UnknownHostException {
-        byte[] opt = options.get(DHO_DHCP_REQUESTED_ADDRESS);
-        if (opt == null) {
-            return null;
-        }
-        if (opt.length != 4) {
-            throw new BadPacketException(
-                    "option " + DHO_DHCP_REQUESTED_ADDRESS + " is wrong size:" + opt.length + " should be 4");
-        }
-        return InetAddress.getByAddress(opt);
+    public int getRequestedIPAddress() {
+        return requestedAddress;
+    }
+
+    private static int readInt(byte[] buffer, int position) {
+        return ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16)
+                | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
     }
 }
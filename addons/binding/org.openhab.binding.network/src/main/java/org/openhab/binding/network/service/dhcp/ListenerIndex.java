@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.service.dhcp;
+
+import java.util.Arrays;
+
+import org.openhab.binding.network.service.StateUpdate;
+
+/**
+ * Maps a primitive key, like an IPv4 or MAC address, to a StateUpdate object. Lookups don't lock and don't
+ * allocate, which suits the receiver thread looking up every packet. Changes are rare and copy the sorted arrays.
+ *
+ * @author agent - Initial contribution
+ */
+class ListenerIndex {
+    private static final Entries EMPTY = new Entries(new long[0], new StateUpdate[0]);
+
+    private volatile Entries entries = EMPTY;
+
+    public StateUpdate get(long key) {
+        Entries current = entries;
+        int index = Arrays.binarySearch(current.keys, key);
+        return index >= 0 ? current.values[index] : null;
+    }
+
+    public synchronized void put(long key, StateUpdate value) {
+        Entries current = entries;
+        int index = Arrays.binarySearch(current.keys, key);
+        if (index >= 0) {
+            StateUpdate[] values = current.values.clone();
+            values[index] = value;
+            entries = new Entries(current.keys, values);
+            return;
+        }
+
+        int insert = -index - 1;
+        int size = current.keys.length;
+        long[] keys = new long[size + 1];
+        StateUpdate[] values = new StateUpdate[size + 1];
+        System.arraycopy(current.keys, 0, keys, 0, insert);
+        System.arraycopy(current.values, 0, values, 0, insert);
+        keys[insert] = key;
+        values[insert] = value;
+        System.arraycopy(current.keys, insert, keys, insert + 1, size - insert);
+        System.arraycopy(current.values, insert, values, insert + 1, size - insert);
+        entries = new Entries(keys, values);
+    }
+
+    public synchronized void remove(long key) {
+        Entries current = entries;
+        int index = Arrays.binarySearch(current.keys, key);
+        if (index < 0) {
+            return;
+        }
+
+        int size = current.keys.length;
+        long[] keys = new long[size - 1];
+        StateUpdate[] values = new StateUpdate[size - 1];
+        System.arraycopy(current.keys, 0, keys, 0, index);
+        System.arraycopy(current.values, 0, values, 0, index);
+        System.arraycopy(current.keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(current.values, index + 1, values, index, size - index - 1);
+        entries = new Entries(keys, values);
+    }
+
+    public boolean isEmpty() {
+        return entries.keys.length == 0;
+    }
+
+    private static class Entries {
+        final long[] keys;
+        final StateUpdate[] values;
+
+        Entries(long[] keys, StateUpdate[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+    }
+}
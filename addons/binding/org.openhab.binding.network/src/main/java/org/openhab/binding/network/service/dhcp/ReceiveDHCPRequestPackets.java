@@ -14,9 +14,10 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
-import java.util.Map;
-import java.util.TreeMap;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.openhab.binding.network.service.NetworkUtils;
 import org.openhab.binding.network.service.StateUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,34 +27,122 @@ import org.slf4j.LoggerFactory;
  * If the first one is registered and there is no singleton instance, an instance will be created and the
  * receiver thread will be started. If the last StateUpdate is removed, the thread will be stopped
  * after the receive socket is closed. This instance listens to the UDP port 67 and will call
- * StateUpdate.newState(0) for the address that is registered and matches the DHO_DHCP_REQUESTED_ADDRESS address field.
+ * StateUpdate.newState(0) for the address that is registered and matches the DHO_DHCP_REQUESTED_ADDRESS address field
+ * (or the client address of a renewing client), and for the MAC address that is registered and matches the client
+ * hardware address.
+ *
+ * Packets are parsed in place and the addresses are looked up as numbers, so packets of clients nobody listens
+ * for are dropped without allocating anything.
  *
  * @author David Graeff <david.graeff@web.de>
  */
 public class ReceiveDHCPRequestPackets extends Thread {
-    private byte[] buffer = new byte[1024];
+    private byte[] buffer = new byte[DHCPPacket._DHCP_MAX_MTU];
     private DatagramSocket dsocket = new DatagramSocket(null);
     private DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+    private final DHCPPacket request = new DHCPPacket();
     private boolean willbeclosed = false;
-    private Logger logger = LoggerFactory.getLogger(ReceiveDHCPRequestPackets.class);
+    private static Logger logger = LoggerFactory.getLogger(ReceiveDHCPRequestPackets.class);
     private static ReceiveDHCPRequestPackets instance;
-    private static Map<String, StateUpdate> registeredListeners = new TreeMap<>();
+    private static final ListenerIndex addressListeners = new ListenerIndex();
+    private static final ListenerIndex macListeners = new ListenerIndex();
+
+    private static final AtomicLong packetCount = new AtomicLong();
+    private static final AtomicLong invalidCount = new AtomicLong();
+    private static final AtomicLong requestCount = new AtomicLong();
+    private static final AtomicLong matchCount = new AtomicLong();
 
+    /**
+     * Registers a StateUpdate object for the requests of an IPv4 address.
+     *
+     * @param hostAddress The IPv4 address
+     * @param receiveParseSimpleUDP Is notified about requests of the address
+     */
     public static synchronized void register(String hostAddress, StateUpdate receiveParseSimpleUDP)
+            throws SocketException, UnknownHostException {
+        long address = toAddressKey(hostAddress);
+        startIfStopped();
+        addressListeners.put(address, receiveParseSimpleUDP);
+    }
+
+    /**
+     * Registers a StateUpdate object for the requests of a client hardware address.
+     *
+     * @param macAddress The MAC address like 00:11:22:33:44:55
+     * @param receiveParseSimpleUDP Is notified about requests of the client
+     * @throws IllegalArgumentException if the MAC address is not valid
+     */
+    public static synchronized void registerMac(String macAddress, StateUpdate receiveParseSimpleUDP)
             throws SocketException {
+        long mac = NetworkUtils.macAddress2Long(macAddress);
+        startIfStopped();
+        macListeners.put(mac, receiveParseSimpleUDP);
+    }
+
+    public static synchronized void unregister(String hostAddress) {
+        try {
+            addressListeners.remove(toAddressKey(hostAddress));
+        } catch (UnknownHostException e) {
+            return;
+        }
+        stopIfUnused();
+    }
+
+    public static synchronized void unregisterMac(String macAddress) {
+        try {
+            macListeners.remove(NetworkUtils.macAddress2Long(macAddress));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        stopIfUnused();
+    }
+
+    /**
+     * @return the number of received packets
+     */
+    public static long getPacketCount() {
+        return packetCount.get();
+    }
+
+    /**
+     * @return the number of received packets that are no valid DHCP packets
+     */
+    public static long getInvalidCount() {
+        return invalidCount.get();
+    }
+
+    /**
+     * @return the number of received DHCPREQUEST messages
+     */
+    public static long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return the number of DHCPREQUEST messages of registered addresses
+     */
+    public static long getMatchCount() {
+        return matchCount.get();
+    }
+
+    private static long toAddressKey(String hostAddress) throws UnknownHostException {
+        try {
+            return NetworkUtils.inetAddress2Long(InetAddress.getByName(hostAddress));
+        } catch (IllegalArgumentException e) {
+            throw new UnknownHostException("Only IPv4 addresses are supported: " + hostAddress);
+        }
+    }
+
+    private static void startIfStopped() throws SocketException {
         if (instance == null) {
             instance = new ReceiveDHCPRequestPackets();
             instance.start();
         }
-        registeredListeners.put(hostAddress, receiveParseSimpleUDP);
     }
 
-    public static void unregister(String hostAddress) {
-        synchronized (registeredListeners) {
-            registeredListeners.remove(hostAddress);
-            if (!registeredListeners.isEmpty()) {
-                return;
-            }
+    private static void stopIfUnused() {
+        if (!addressListeners.isEmpty() || !macListeners.isEmpty()) {
+            return;
         }
 
         if (instance != null && instance.isAlive()) {
@@ -66,6 +155,8 @@ public class ReceiveDHCPRequestPackets extends Thread {
             } catch (InterruptedException e) { }
             instance.interrupt();
             instance.dsocket = null;
+            logger.debug("DHCP request packet listener offline: {} packets, {} invalid, {} requests, {} matched",
+                    packetCount, invalidCount, requestCount, matchCount);
         }
         instance = null;
     }
@@ -83,11 +174,10 @@ public class ReceiveDHCPRequestPackets extends Thread {
             while (!willbeclosed) {
                 packet.setLength(buffer.length);
                 dsocket.receive(packet);
+                packetCount.incrementAndGet();
 
-                DHCPPacket request;
-                try {
-                    request = new DHCPPacket(packet);
-                } catch (Exception e) {
+                if (!request.parse(buffer, packet.getOffset(), packet.getLength())) {
+                    invalidCount.incrementAndGet();
                     continue;
                 }
 
@@ -95,24 +185,36 @@ public class ReceiveDHCPRequestPackets extends Thread {
                     continue; // skipping non BOOTREQUEST message types
                 }
 
-                Byte dhcpMessageType = request.getDHCPMessageType();
-
-                if (dhcpMessageType == null || dhcpMessageType != DHCPPacket.DHCPREQUEST) {
+                if (request.getDHCPMessageType() != DHCPPacket.DHCPREQUEST) {
                     continue; // skipping non DHCPREQUEST message types
                 }
+                requestCount.incrementAndGet();
+
+                // a renewing client sends its address as ciaddr instead of the requested address
+                int address = request.hasRequestedIPAddress() ? request.getRequestedIPAddress()
+                        : request.getClientIPAddress();
+                StateUpdate addressReceiver = address != 0 ? addressListeners.get(address & 0xFFFFFFFFL) : null;
+                StateUpdate macReceiver = request.hasClientMACAddress()
+                        ? macListeners.get(request.getClientMACAddress()) : null;
 
-                InetAddress requestedAddress = request.getRequestedIPAddress();
-                if (requestedAddress == null) {
-                    logger.error("DHCPREQUEST field is missing");
+                if (addressReceiver == null && macReceiver == null) {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("DHCP request for unknown address: {}",
+                                NetworkUtils.int2InetAddress(address).getHostAddress());
+                    }
                     continue;
                 }
-                String requestedAddressStr = requestedAddress.getHostAddress();
-                StateUpdate receiver = registeredListeners.get(requestedAddressStr);
-                if (receiver != null) {
-                    logger.info("DHCP request for registered address: " + requestedAddressStr);
-                    receiver.newState(0);
-                } else {
-                    logger.info("DHCP request for unknown address: " + requestedAddressStr);
+
+                matchCount.incrementAndGet();
+                if (addressReceiver != null) {
+                    logger.info("DHCP request for registered address: {}",
+                            NetworkUtils.int2InetAddress(address).getHostAddress());
+                    addressReceiver.newState(0);
+                }
+                if (macReceiver != null && macReceiver != addressReceiver) {
+                    logger.info("DHCP request for registered MAC address: {}",
+                            Long.toHexString(request.getClientMACAddress()));
+                    macReceiver.newState(0);
                 }
             }
         } catch (IOException e) {
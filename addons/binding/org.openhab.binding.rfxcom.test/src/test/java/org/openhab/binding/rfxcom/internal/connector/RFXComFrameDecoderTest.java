@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.connector;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Test;
+
+/**
+ * Test for the RFXCOM frame decoder.
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComFrameDecoderTest {
+
+    private void put(RFXComFrameDecoder decoder, String hex) {
+        byte[] data = DatatypeConverter.parseHexBinary(hex);
+        decoder.put(data, 0, data.length);
+    }
+
+    private String nextFrame(RFXComFrameDecoder decoder) {
+        byte[] frame = decoder.nextFrame();
+        return frame == null ? null : DatatypeConverter.printHexBinary(frame);
+    }
+
+    @Test
+    public void testCompleteMessages() {
+        RFXComFrameDecoder decoder = new RFXComFrameDecoder();
+        put(decoder, "04020143000A520211420101");
+
+        assertEquals("0402014300", nextFrame(decoder));
+        assertNull(nextFrame(decoder));
+        assertEquals(7, decoder.available());
+    }
+
+    @Test
+    public void testSplitMessage() {
+        RFXComFrameDecoder decoder = new RFXComFrameDecoder();
+        put(decoder, "0A5202");
+        assertNull(nextFrame(decoder));
+
+        put(decoder, "11420101");
+        assertNull(nextFrame(decoder));
+
+        put(decoder, "001B0079");
+        assertEquals("0A520211420101001B0079", nextFrame(decoder));
+        assertEquals(0, decoder.available());
+    }
+
+    @Test
+    public void testSkipInvalidStartBytes() {
+        RFXComFrameDecoder decoder = new RFXComFrameDecoder();
+        put(decoder, "00FF800402014300");
+
+        assertEquals("0402014300", nextFrame(decoder));
+        assertNull(nextFrame(decoder));
+    }
+
+    @Test
+    public void testWrapAround() {
+        RFXComFrameDecoder decoder = new RFXComFrameDecoder();
+        for (int i = 0; i < 300; i++) {
+            put(decoder, "04020143");
+            assertNull(nextFrame(decoder));
+            put(decoder, "00");
+            assertEquals("0402014300", nextFrame(decoder));
+        }
+        assertEquals(0, decoder.available());
+    }
+
+    @Test
+    public void testReadFromStream() throws IOException {
+        RFXComFrameDecoder decoder = new RFXComFrameDecoder();
+        byte[] data = DatatypeConverter.parseHexBinary("04020143000402014401");
+
+        assertEquals(10, decoder.read(new ByteArrayInputStream(data)));
+        assertEquals("0402014300", nextFrame(decoder));
+        assertEquals("0402014401", nextFrame(decoder));
+        assertNull(nextFrame(decoder));
+        assertEquals(-1, decoder.read(new ByteArrayInputStream(new byte[0])));
+    }
+}
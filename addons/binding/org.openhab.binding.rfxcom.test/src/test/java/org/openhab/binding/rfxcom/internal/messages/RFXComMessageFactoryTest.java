@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.messages;
+
+import static org.junit.Assert.*;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Test;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
+
+/**
+ * Test for the RFXCOM message factory.
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComMessageFactoryTest {
+
+    @Test
+    public void testPacketTypeFromByte() throws RFXComException {
+        for (PacketType packetType : PacketType.values()) {
+            assertEquals(packetType, PacketType.fromByte(packetType.toByte()));
+        }
+    }
+
+    @Test
+    public void testCreateMessageForImplementedTypes() throws RFXComException {
+        for (PacketType packetType : PacketType.values()) {
+            byte[] packet = new byte[] { 0x04, packetType.toByte(), 0x00, 0x00, 0x00 };
+            try {
+                assertNotNull(RFXComMessageFactory.createMessage(packetType));
+                assertTrue("Implemented " + packetType, RFXComMessageFactory.isImplemented(packet));
+            } catch (RFXComMessageNotImplementedException e) {
+                assertFalse("Not implemented " + packetType, RFXComMessageFactory.isImplemented(packet));
+            }
+        }
+    }
+
+    @Test
+    public void testCreateMessageFromPacket() throws RFXComException {
+        byte[] packet = DatatypeConverter.parseHexBinary("0402014300");
+        assertTrue(RFXComMessageFactory.isImplemented(packet));
+
+        RFXComMessage msg = RFXComMessageFactory.createMessage(packet);
+        assertTrue(msg instanceof RFXComTransmitterMessage);
+    }
+
+    @Test
+    public void testUnknownPacketTypeIsNotImplemented() {
+        assertFalse(RFXComMessageFactory.isImplemented(DatatypeConverter.parseHexBinary("07CC01271356ECC0")));
+    }
+}
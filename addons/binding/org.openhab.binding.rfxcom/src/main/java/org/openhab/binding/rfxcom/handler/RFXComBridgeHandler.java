@@ -30,9 +30,9 @@ import org.openhab.binding.rfxcom.internal.connector.RFXComEventListener;
 import org.openhab.binding.rfxcom.internal.connector.RFXComJD2XXConnector;
 import org.openhab.binding.rfxcom.internal.connector.RFXComSerialConnector;
 import org.openhab.binding.rfxcom.internal.connector.RFXComTcpConnector;
+import org.openhab.binding.rfxcom.internal.connector.RFXComTransmitQueue;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
-import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage;
 import org.openhab.binding.rfxcom.internal.messages.RFXComInterfaceMessage;
 import org.openhab.binding.rfxcom.internal.messages.RFXComInterfaceMessage.Commands;
 import org.openhab.binding.rfxcom.internal.messages.RFXComInterfaceMessage.SubType;
@@ -43,6 +43,10 @@ import org.openhab.binding.rfxcom.internal.messages.RFXComTransmitterMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import gnu.io.NoSuchPortException;
 
 /**
@@ -62,9 +66,7 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
     private List<DeviceMessageListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
 
     private static final int timeout = 5000;
-    private static byte seqNbr = 0;
-    private static RFXComTransmitterMessage responseMessage = null;
-    private Object notifierObject = new Object();
+    private volatile RFXComTransmitQueue transmitQueue;
     private RFXComBridgeConfiguration configuration = null;
     private ScheduledFuture<?> connectorTask;
 
@@ -90,6 +92,10 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
             connector.disconnect();
         }
 
+        if (transmitQueue != null) {
+            transmitQueue.clear();
+        }
+
         if (connectorTask != null && !connectorTask.isCancelled()) {
             connectorTask.cancel(true);
             connectorTask = null;
@@ -119,26 +125,6 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
         }
     }
 
-    private static synchronized byte getSeqNumber() {
-        return seqNbr;
-    }
-
-    private static synchronized byte getNextSeqNumber() {
-        if (++seqNbr == 0) {
-            seqNbr = 1;
-        }
-
-        return seqNbr;
-    }
-
-    private static synchronized RFXComTransmitterMessage getResponseMessage() {
-        return responseMessage;
-    }
-
-    private static synchronized void setResponseMessage(RFXComTransmitterMessage respMessage) {
-        responseMessage = respMessage;
-    }
-
     private void connect() {
         logger.debug("Connecting to RFXCOM transceiver");
 
@@ -158,8 +144,12 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
             }
 
             if (connector != null) {
+                if (transmitQueue != null) {
+                    transmitQueue.clear();
+                }
                 connector.disconnect();
                 connector.connect(configuration);
+                transmitQueue = new RFXComTransmitQueue(connector, scheduler, timeout);
 
                 logger.debug("Reset controller");
                 connector.sendMessage(RFXComMessageFactory.CMD_RESET);
@@ -317,56 +307,47 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
         throw new IllegalArgumentException("");
     }
 
-    public synchronized void sendMessage(RFXComMessage msg) throws RFXComException {
-
-        ((RFXComBaseMessage) msg).seqNbr = getNextSeqNumber();
-        byte[] data = msg.decodeMessage();
-
-        logger.debug("Transmitting message '{}'", msg);
-        logger.trace("Transmitting data: {}", DatatypeConverter.printHexBinary(data));
-
-        setResponseMessage(null);
-
-        try {
-            connector.sendMessage(data);
-        } catch (IOException e) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR);
-            throw new RFXComException("Send failed, reason: " + e.getMessage(), e);
+    /**
+     * Queues the message for transmission and returns immediately. The returned future is completed with the response
+     * of the transceiver.
+     */
+    public ListenableFuture<RFXComTransmitterMessage> sendMessage(RFXComMessage msg) throws RFXComException {
+        RFXComTransmitQueue queue = transmitQueue;
+        if (queue == null) {
+            throw new RFXComException("Transceiver not connected");
         }
 
-        try {
+        final ListenableFuture<RFXComTransmitterMessage> future = queue.send(msg);
+        Futures.addCallback(future, new FutureCallback<RFXComTransmitterMessage>() {
 
-            RFXComTransmitterMessage resp = null;
-            synchronized (notifierObject) {
-                notifierObject.wait(timeout);
-                resp = getResponseMessage();
+            @Override
+            public void onSuccess(RFXComTransmitterMessage response) {
             }
 
-            if (resp != null) {
-                switch (resp.response) {
-                    case ACK:
-                    case ACK_DELAYED:
-                        logger.debug("Command successfully transmitted, '{}' received", resp.response);
-                        break;
-
-                    case NAK:
-                    case NAK_INVALID_AC_ADDRESS:
+            @Override
+            public void onFailure(Throwable t) {
+                if (future.isCancelled()) {
+                    return;
                 }
-            } else {
-                logger.warn("No response received from transceiver");
+                logger.warn("Transmitting message failed: {}", t.getMessage());
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR);
             }
-
-        } catch (InterruptedException ie) {
-            logger.error("No acknowledge received from RFXCOM controller, timeout {}ms ", timeout);
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR);
-        }
+        });
+        return future;
     }
 
     private class MessageListener implements RFXComEventListener {
 
         @Override
         public void packetReceived(byte[] packet) {
+            if (!RFXComMessageFactory.isImplemented(packet)) {
+                // skip packets of foreign devices which are not supported anyway before decoding them
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Message not supported, data: {}", DatatypeConverter.printHexBinary(packet));
+                }
+                updateStatus(ThingStatus.ONLINE);
+                return;
+            }
             try {
                 RFXComMessage message = RFXComMessageFactory.createMessage(packet);
                 logger.debug("Message received: {}", message);
@@ -380,15 +361,11 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
                 } else if (message instanceof RFXComTransmitterMessage) {
                     RFXComTransmitterMessage resp = (RFXComTransmitterMessage) message;
 
-                    byte seqNbr = getSeqNumber();
-                    if (resp.seqNbr == seqNbr) {
-                        logger.debug("Transmitter response received: {}", message.toString());
-                        setResponseMessage(resp);
-                        synchronized (notifierObject) {
-                            notifierObject.notify();
-                        }
-                    } else {
-                        logger.warn("Sequence number '{}' does not match, expecting number '{}'", resp.seqNbr, seqNbr);
+                    logger.debug("Transmitter response received: {}", message);
+                    RFXComTransmitQueue queue = transmitQueue;
+                    if (queue == null || !queue.responseReceived(resp)) {
+                        logger.warn("Sequence number '{}' does not match any outstanding transmission",
+                                resp.seqNbr & 0xFF);
                     }
 
                 } else {
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Splits the byte stream of a RFXCOM transceiver into messages. The first byte of each message contains the number
+ * of the following bytes. Received data is read directly into a ring buffer, so no bytes are copied until a complete
+ * message is available. Bytes which can't be the start of a message (length 0 or more than 127) are skipped.
+ * <p>
+ * This class is not thread safe, it is used by one reader thread per connection.
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComFrameDecoder {
+
+    // a message has at most 128 bytes, so the buffer always has room for a partial message and a new chunk
+    private static final int BUFFER_SIZE = 512;
+    private static final int MASK = BUFFER_SIZE - 1;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int head;
+    private int tail;
+
+    /**
+     * Reads the available bytes from the stream into the free space of the buffer. Blocks until at least one byte is
+     * available, if the stream blocks. Returns the number of bytes read or -1 at the end of the stream.
+     */
+    public int read(InputStream in) throws IOException {
+        int free = BUFFER_SIZE - available();
+        int offset = tail & MASK;
+        int length = Math.min(free, BUFFER_SIZE - offset);
+        int len = in.read(buffer, offset, length);
+        if (len > 0) {
+            tail += len;
+        }
+        return len;
+    }
+
+    /**
+     * Adds the given bytes to the buffer.
+     *
+     * @throws IllegalStateException if the bytes don't fit into the free space of the buffer
+     */
+    public void put(byte[] data, int offset, int length) {
+        if (length > BUFFER_SIZE - available()) {
+            throw new IllegalStateException("Frame buffer overflow");
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[(tail + i) & MASK] = data[offset + i];
+        }
+        tail += length;
+    }
+
+    /**
+     * Returns the next complete message or null, if no complete message is available.
+     */
+    public byte[] nextFrame() {
+        while (available() > 0) {
+            int msgLen = buffer[head & MASK];
+            if (msgLen <= 0) {
+                // no valid start of a message, try to find new start
+                head++;
+                continue;
+            }
+            int frameLen = msgLen + 1;
+            if (available() < frameLen) {
+                return null;
+            }
+            byte[] frame = new byte[frameLen];
+            int offset = head & MASK;
+            int firstPart = Math.min(frameLen, BUFFER_SIZE - offset);
+            System.arraycopy(buffer, offset, frame, 0, firstPart);
+            if (firstPart < frameLen) {
+                System.arraycopy(buffer, 0, frame, firstPart, frameLen - firstPart);
+            }
+            head += frameLen;
+            return frame;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of buffered bytes, which are not part of a returned message yet.
+     */
+    public int available() {
+        return tail - head;
+    }
+
+    /**
+     * Discards all buffered bytes.
+     */
+    public void clear() {
+        head = tail;
+    }
+}
@@ -11,7 +11,6 @@ package org.openhab.binding.rfxcom.internal.connector;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
-import java.util.Arrays;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -19,7 +18,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * RFXCOM stream reader to parse RFXCOM output into messages.
+ * RFXCOM stream reader to parse RFXCOM output into messages. The reader blocks on the stream and splits the
+ * received data with a {@link RFXComFrameDecoder}.
  *
  * @author James Hewitt-Thomas - New class
  * @author Pauli Anttila - Original read loop
@@ -28,7 +28,7 @@ public class RFXComStreamReader extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(RFXComStreamReader.class);
 
-    private boolean interrupted = false;
+    private volatile boolean interrupted = false;
     private RFXComBaseConnector connector;
     private InputStream in;
 
@@ -49,77 +49,34 @@ public class RFXComStreamReader extends Thread {
 
     @Override
     public void run() {
-        final int dataBufferMaxLen = Byte.MAX_VALUE;
-
-        byte[] dataBuffer = new byte[dataBufferMaxLen];
-
-        int msgLen = 0;
-        int index = 0;
-        boolean start_found = false;
+        RFXComFrameDecoder decoder = new RFXComFrameDecoder();
 
         logger.debug("Data listener started");
 
         try {
+            while (!interrupted) {
+                // blocks until data is available, the JD2XX stream returns 0 after its read timeout
+                int len = decoder.read(in);
+                if (len < 0) {
+                    throw new IOException("End of stream reached");
+                }
 
-            byte[] tmpData = new byte[20];
-            int len = -1;
-
-            while (interrupted != true) {
-
-                if ((len = in.read(tmpData)) > 0) {
-
-                    byte[] logData = Arrays.copyOf(tmpData, len);
-                    logger.trace("Received data (len={}): {}", len, DatatypeConverter.printHexBinary(logData));
-
-                    for (int i = 0; i < len; i++) {
-
-                        if (index > dataBufferMaxLen) {
-                            // too many bytes received, try to find new
-                            // start
-                            start_found = false;
-                        }
-
-                        if (start_found == false && tmpData[i] > 0) {
-
-                            start_found = true;
-                            index = 0;
-                            dataBuffer[index++] = tmpData[i];
-                            msgLen = tmpData[i] + 1;
-
-                        } else if (start_found) {
-
-                            dataBuffer[index++] = tmpData[i];
-
-                            if (index == msgLen) {
-
-                                // whole message received, send an event
-
-                                byte[] msg = new byte[msgLen];
-
-                                for (int j = 0; j < msgLen; j++) {
-                                    msg[j] = dataBuffer[j];
-                                }
-
-                                connector.sendMsgToListeners(msg);
-
-                                // find new start
-                                start_found = false;
-                            }
-                        }
-                    }
-                } else {
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
+                byte[] msg;
+                while ((msg = decoder.nextFrame()) != null) {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Received data (len={}): {}", msg.length, DatatypeConverter.printHexBinary(msg));
                     }
+                    connector.sendMsgToListeners(msg);
                 }
             }
         } catch (InterruptedIOException e) {
             Thread.currentThread().interrupt();
             logger.error("Interrupted via InterruptedIOException");
         } catch (IOException e) {
-            logger.error("Reading from serial port failed", e);
-            connector.sendErrorToListeners(e.getMessage());
+            if (!interrupted) {
+                logger.error("Reading from serial port failed", e);
+                connector.sendErrorToListeners(e.getMessage());
+            }
         }
 
         logger.debug("Data listener stopped");
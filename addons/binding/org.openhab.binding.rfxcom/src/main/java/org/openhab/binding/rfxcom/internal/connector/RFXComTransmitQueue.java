@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.connector;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComTransmitterMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Transmits messages to a RFXCOM transceiver without blocking the callers. Every message gets a sequence number and
+ * is tracked in a table until the transceiver responds with an ACK or NAK for this sequence number or the response
+ * times out. Up to {@link #MAX_OUTSTANDING} messages are sent without waiting for the previous responses, further
+ * messages are queued and sent as soon as a response arrives.
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComTransmitQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(RFXComTransmitQueue.class);
+
+    // the transceiver buffers only a few messages while it is transmitting
+    private static final int MAX_OUTSTANDING = 4;
+
+    private final RFXComConnectorInterface connector;
+    private final ScheduledExecutorService scheduler;
+    private final long timeout;
+
+    private final Transmission[] outstanding = new Transmission[256];
+    private final Queue<Transmission> waiting = new ArrayDeque<>();
+    private int outstandingCount;
+    private int seqNbr;
+
+    public RFXComTransmitQueue(RFXComConnectorInterface connector, ScheduledExecutorService scheduler,
+            long timeout) {
+        this.connector = connector;
+        this.scheduler = scheduler;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Queues the message for transmission. The returned future is completed with the response of the transceiver or
+     * fails, if the message could not be sent or no response has been received in time.
+     */
+    public ListenableFuture<RFXComTransmitterMessage> send(RFXComMessage msg) {
+        Transmission transmission = new Transmission((RFXComBaseMessage) msg);
+        synchronized (this) {
+            if (outstandingCount < MAX_OUTSTANDING) {
+                transmit(transmission);
+            } else {
+                logger.debug("Transceiver busy, queueing message '{}'", msg);
+                waiting.add(transmission);
+            }
+        }
+        return transmission.future;
+    }
+
+    /**
+     * Completes the transmission with the sequence number of the response.
+     *
+     * @return false, if no transmission with this sequence number is outstanding
+     */
+    public boolean responseReceived(RFXComTransmitterMessage response) {
+        Transmission transmission;
+        synchronized (this) {
+            transmission = remove(response.seqNbr & 0xFF);
+            if (transmission == null) {
+                return false;
+            }
+            transmitWaiting();
+        }
+
+        switch (response.response) {
+            case ACK:
+            case ACK_DELAYED:
+                logger.debug("Command successfully transmitted, '{}' received", response.response);
+                break;
+            case NAK:
+            case NAK_INVALID_AC_ADDRESS:
+                logger.warn("Command transmission of message '{}' failed, '{}' received", transmission.msg,
+                        response.response);
+                break;
+        }
+        transmission.future.set(response);
+        return true;
+    }
+
+    /**
+     * Cancels all outstanding and waiting transmissions.
+     */
+    public void clear() {
+        synchronized (this) {
+            for (int i = 0; i < outstanding.length; i++) {
+                Transmission transmission = remove(i);
+                if (transmission != null) {
+                    transmission.future.cancel(false);
+                }
+            }
+            Transmission transmission;
+            while ((transmission = waiting.poll()) != null) {
+                transmission.future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Assigns the next free sequence number and sends the message, must be called with the lock held.
+     */
+    private void transmit(final Transmission transmission) {
+        do {
+            if (++seqNbr > 255) {
+                seqNbr = 1;
+            }
+        } while (outstanding[seqNbr] != null);
+        final int nbr = seqNbr;
+
+        try {
+            transmission.msg.seqNbr = (byte) nbr;
+            byte[] data = transmission.msg.decodeMessage();
+
+            logger.debug("Transmitting message '{}'", transmission.msg);
+            logger.trace("Transmitting data: {}", DatatypeConverter.printHexBinary(data));
+
+            connector.sendMessage(data);
+        } catch (IOException e) {
+            transmission.future.setException(new RFXComException("Send failed, reason: " + e.getMessage(), e));
+            return;
+        } catch (RFXComException e) {
+            transmission.future.setException(e);
+            return;
+        }
+
+        outstanding[nbr] = transmission;
+        outstandingCount++;
+        transmission.timeoutFuture = scheduler.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                synchronized (RFXComTransmitQueue.this) {
+                    if (outstanding[nbr] != transmission) {
+                        return;
+                    }
+                    remove(nbr);
+                    transmitWaiting();
+                }
+                transmission.future.setException(
+                        new RFXComException("No response received from transceiver, timeout " + timeout + "ms"));
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends waiting messages while there are free slots, must be called with the lock held.
+     */
+    private void transmitWaiting() {
+        while (outstandingCount < MAX_OUTSTANDING && !waiting.isEmpty()) {
+            transmit(waiting.poll());
+        }
+    }
+
+    /**
+     * Removes the outstanding transmission with the sequence number, must be called with the lock held.
+     */
+    private Transmission remove(int nbr) {
+        Transmission transmission = outstanding[nbr];
+        if (transmission != null) {
+            outstanding[nbr] = null;
+            outstandingCount--;
+            if (transmission.timeoutFuture != null) {
+                transmission.timeoutFuture.cancel(false);
+            }
+        }
+        return transmission;
+    }
+
+    private static class Transmission {
+        private final RFXComBaseMessage msg;
+        private final SettableFuture<RFXComTransmitterMessage> future = SettableFuture.create();
+        private ScheduledFuture<?> timeoutFuture;
+
+        public Transmission(RFXComBaseMessage msg) {
+            this.msg = msg;
+        }
+    }
+}
@@ -73,6 +73,14 @@ public abstract class RFXComBaseMessage implements RFXComMessage {
         FS20(114),
         IO_LINES(128);
 
+        private static final PacketType[] packetTypesByByte = new PacketType[256];
+
+        static {
+            for (PacketType packetType : PacketType.values()) {
+                packetTypesByByte[packetType.packetType & 0xFF] = packetType;
+            }
+        }
+
         private final int packetType;
 
         PacketType(int packetType) {
@@ -84,10 +92,9 @@ public abstract class RFXComBaseMessage implements RFXComMessage {
         }
 
         public static PacketType fromByte(int input) throws RFXComUnsupportedValueException {
-            for (PacketType packetType : PacketType.values()) {
-                if (packetType.packetType == input) {
-                    return packetType;
-                }
+            PacketType packetType = packetTypesByByte[input & 0xFF];
+            if (packetType != null) {
+                return packetType;
             }
 
             throw new RFXComUnsupportedValueException(PacketType.class, input);
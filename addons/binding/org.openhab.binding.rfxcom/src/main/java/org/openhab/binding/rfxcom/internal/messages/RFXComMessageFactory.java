@@ -8,70 +8,19 @@
  */
 package org.openhab.binding.rfxcom.internal.messages;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
 import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
 
 public class RFXComMessageFactory {
 
-    @SuppressWarnings("serial")
-    private static final Map<PacketType, Class<? extends RFXComMessage>> messageClasses = Collections
-            .unmodifiableMap(new HashMap<PacketType, Class<? extends RFXComMessage>>() {
-                {
-                    put(PacketType.INTERFACE_CONTROL, RFXComControlMessage.class);
-                    put(PacketType.INTERFACE_MESSAGE, RFXComInterfaceMessage.class);
-                    put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage.class);
-                    put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage.class);
-                    put(PacketType.LIGHTING1, RFXComLighting1Message.class);
-                    put(PacketType.LIGHTING2, RFXComLighting2Message.class);
-                    // put(PacketType.LIGHTING3, RFXComLighting3Message.class);
-                    put(PacketType.LIGHTING4, RFXComLighting4Message.class);
-                    put(PacketType.LIGHTING5, RFXComLighting5Message.class);
-                    put(PacketType.LIGHTING6, RFXComLighting6Message.class);
-                    // put(PacketType.CHIME, RFXComChimeMessage.class);
-                    // put(PacketType.FAN, RFXComFanMessage.class);
-                    put(PacketType.CURTAIN1, RFXComCurtain1Message.class);
-                    put(PacketType.BLINDS1, RFXComBlinds1Message.class);
-                    put(PacketType.RFY, RFXComRfyMessage.class);
-                    // put(PacketType.HOME_CONFORT, RFXComHomeConfort.class);
-                    put(PacketType.SECURITY1, RFXComSecurity1Message.class);
-                    // put(PacketType.SECURITY2, RFXComSecurity2Message.class);
-                    // put(PacketType.CAMERA1, RFXComCamera1Message.class);
-                    // put(PacketType.REMOTE_CONTROL, RFXComRemoteControlMessage.class);
-                    put(PacketType.THERMOSTAT1, RFXComThermostat1Message.class);
-                    // put(PacketType.THERMOSTAT2, RFXComThermostat2Message.class);
-                    // put(PacketType.THERMOSTAT3, RFXComThermostat3Message.class);
-                    // put(PacketType.RADIATOR1, RFXComRadiator1Message.class);
-                    // put(PacketType.BBQ1, RFXComBBQMessage.class);
-                    put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage.class);
-                    put(PacketType.TEMPERATURE, RFXComTemperatureMessage.class);
-                    put(PacketType.HUMIDITY, RFXComHumidityMessage.class);
-                    put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage.class);
-                    // put(PacketType.BAROMETRIC, RFXComBarometricMessage.class);
-                    put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, RFXComTemperatureHumidityBarometricMessage.class);
-                    put(PacketType.RAIN, RFXComRainMessage.class);
-                    put(PacketType.WIND, RFXComWindMessage.class);
-                    // put(PacketType.UV, RFXComUVMessage.class);
-                    put(PacketType.DATE_TIME, RFXComDateTimeMessage.class);
-                    // put(PacketType.CURRENT, RFXComCurrentMessage.class);
-                    put(PacketType.ENERGY, RFXComEnergyMessage.class);
-                    put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage.class);
-                    // put(PacketType.POWER, RFXComPowerMessage.class);
-                    // put(PacketType.WEIGHT, RFXComWeightMessage.class);
-                    // put(PacketType.GAS, RFXComGasMessage.class);
-                    // put(PacketType.WATER, RFXComWaterMessage.class);
-                    // put(PacketType.RFXSENSOR, RFXComRFXSensorMessage.class);
-                    // put(PacketType.RFXMETER, RFXComRFXMeterMessage.class);
-                    // put(PacketType.FS20, RFXComFS20Message.class);
-                    // put(PacketType.IO_LINES, RFXComIOLinesMessage.class);
-                }
-            });
+    private static final boolean[] implementedPacketTypes = new boolean[256];
+
+    static {
+        for (PacketType packetType : PacketType.values()) {
+            implementedPacketTypes[packetType.toByte() & 0xFF] = newMessage(packetType) != null;
+        }
+    }
 
     /**
      * Command to reset RFXCOM controller.
@@ -102,37 +51,131 @@ public class RFXComMessageFactory {
             0x00, 0x00, 0x00, 0x00, 0x00 };
 
     public static RFXComMessage createMessage(PacketType packetType) throws RFXComException {
-
-        try {
-            Class<? extends RFXComMessage> cl = messageClasses.get(packetType);
-            if (cl == null) {
-                throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
-            }
-            return cl.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new RFXComException(e);
+        RFXComMessage message = newMessage(packetType);
+        if (message == null) {
+            throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
         }
+        return message;
     }
 
     public static RFXComMessage createMessage(byte[] packet) throws RFXComException {
         PacketType packetType = PacketType.fromByte(packet[1]);
 
+        RFXComMessage message = createMessage(packetType);
         try {
-            Class<? extends RFXComMessage> cl = messageClasses.get(packetType);
-            if (cl == null) {
-                throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
-            }
-            Constructor<?> c = cl.getConstructor(byte[].class);
-            return (RFXComMessage) c.newInstance(packet);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof RFXComException) {
-                throw (RFXComException) e.getCause();
-            } else {
-                throw new RFXComException(e);
-            }
-        } catch (NoSuchMethodException | IllegalAccessException | InstantiationException e) {
+            message.encodeMessage(packet);
+        } catch (RuntimeException e) {
+            // e.g. a truncated packet
             throw new RFXComException(e);
         }
+        return message;
+    }
+
+    /**
+     * Returns true, if a message class is implemented for the packet type of the received packet. Allows to skip
+     * unsupported packets before decoding them.
+     */
+    public static boolean isImplemented(byte[] packet) {
+        return packet.length > 1 && implementedPacketTypes[packet[1] & 0xFF];
+    }
+
+    private static RFXComMessage newMessage(PacketType packetType) {
+        switch (packetType) {
+            case INTERFACE_CONTROL:
+                return new RFXComControlMessage();
+            case INTERFACE_MESSAGE:
+                return new RFXComInterfaceMessage();
+            case TRANSMITTER_MESSAGE:
+                return new RFXComTransmitterMessage();
+            case UNDECODED_RF_MESSAGE:
+                return new RFXComUndecodedRFMessage();
+            case LIGHTING1:
+                return new RFXComLighting1Message();
+            case LIGHTING2:
+                return new RFXComLighting2Message();
+            // case LIGHTING3:
+            // return new RFXComLighting3Message();
+            case LIGHTING4:
+                return new RFXComLighting4Message();
+            case LIGHTING5:
+                return new RFXComLighting5Message();
+            case LIGHTING6:
+                return new RFXComLighting6Message();
+            // case CHIME:
+            // return new RFXComChimeMessage();
+            // case FAN:
+            // return new RFXComFanMessage();
+            case CURTAIN1:
+                return new RFXComCurtain1Message();
+            case BLINDS1:
+                return new RFXComBlinds1Message();
+            case RFY:
+                return new RFXComRfyMessage();
+            // case HOME_CONFORT:
+            // return new RFXComHomeConfort();
+            case SECURITY1:
+                return new RFXComSecurity1Message();
+            // case SECURITY2:
+            // return new RFXComSecurity2Message();
+            // case CAMERA1:
+            // return new RFXComCamera1Message();
+            // case REMOTE_CONTROL:
+            // return new RFXComRemoteControlMessage();
+            case THERMOSTAT1:
+                return new RFXComThermostat1Message();
+            // case THERMOSTAT2:
+            // return new RFXComThermostat2Message();
+            // case THERMOSTAT3:
+            // return new RFXComThermostat3Message();
+            // case RADIATOR1:
+            // return new RFXComRadiator1Message();
+            // case BBQ1:
+            // return new RFXComBBQMessage();
+            case TEMPERATURE_RAIN:
+                return new RFXComTemperatureRainMessage();
+            case TEMPERATURE:
+                return new RFXComTemperatureMessage();
+            case HUMIDITY:
+                return new RFXComHumidityMessage();
+            case TEMPERATURE_HUMIDITY:
+                return new RFXComTemperatureHumidityMessage();
+            // case BAROMETRIC:
+            // return new RFXComBarometricMessage();
+            case TEMPERATURE_HUMIDITY_BAROMETRIC:
+                return new RFXComTemperatureHumidityBarometricMessage();
+            case RAIN:
+                return new RFXComRainMessage();
+            case WIND:
+                return new RFXComWindMessage();
+            // case UV:
+            // return new RFXComUVMessage();
+            case DATE_TIME:
+                return new RFXComDateTimeMessage();
+            // case CURRENT:
+            // return new RFXComCurrentMessage();
+            case ENERGY:
+                return new RFXComEnergyMessage();
+            case CURRENT_ENERGY:
+                return new RFXComCurrentEnergyMessage();
+            // case POWER:
+            // return new RFXComPowerMessage();
+            // case WEIGHT:
+            // return new RFXComWeightMessage();
+            // case GAS:
+            // return new RFXComGasMessage();
+            // case WATER:
+            // return new RFXComWaterMessage();
+            // case RFXSENSOR:
+            // return new RFXComRFXSensorMessage();
+            // case RFXMETER:
+            // return new RFXComRFXMeterMessage();
+            // case FS20:
+            // return new RFXComFS20Message();
+            // case IO_LINES:
+            // return new RFXComIOLinesMessage();
+            default:
+                return null;
+        }
     }
 
     public static PacketType convertPacketType(String packetType) throws IllegalArgumentException {
@@ -135,15 +135,29 @@ class SysteminfoOSGiTest extends OSGiTest{
         initializeThing(thingConfig,channelID,acceptedItemType,priority,pid)
     }
 
+    private void initializeRuntimeThingWithChannel(String channelID,String acceptedItemType,String pool) {
+        Configuration thingConfig = new Configuration()
+        thingConfig.put(SysteminfoBindingConstants.HIGH_PRIORITY_REFRESH_TIME, new BigDecimal(DEFAULT_TEST_INTERVAL_HIGH))
+        thingConfig.put(SysteminfoBindingConstants.MEDIUM_PRIORITY_REFRESH_TIME, new BigDecimal(DEFAULT_TEST_INTERVAL_MEDIUM))
+
+        Configuration channelConfig  = new Configuration()
+        channelConfig.put("priority", DEFAULT_CHANNEL_TEST_PRIORITY)
+        channelConfig.put("pool", pool)
+        initializeThing(SysteminfoBindingConstants.THING_TYPE_RUNTIME,thingConfig,channelID,acceptedItemType,channelConfig)
+    }
+
     private void initializeThing(Configuration thingConfiguration,String channelID,String acceptedItemType,String priority,int pid) {
-        ThingTypeUID thingTypeUID = SysteminfoBindingConstants.THING_TYPE_COMPUTER;
+        Configuration channelConfig  = new Configuration()
+        channelConfig.put("priority", priority)
+        channelConfig.put("pid",new BigDecimal(pid))
+        initializeThing(SysteminfoBindingConstants.THING_TYPE_COMPUTER,thingConfiguration,channelID,acceptedItemType,channelConfig)
+    }
+
+    private void initializeThing(ThingTypeUID thingTypeUID,Configuration thingConfiguration,String channelID,String acceptedItemType,Configuration channelConfig) {
         ThingUID thingUID = new ThingUID(thingTypeUID,DEFAULT_TEST_THING_NAME);
 
         ChannelUID channelUID = new ChannelUID(thingUID,channelID)
         ChannelTypeUID channelTypeUID = new ChannelTypeUID(SysteminfoBindingConstants.BINDING_ID,channelUID.getIdWithoutGroup())
-        Configuration channelConfig  = new Configuration()
-        channelConfig.put("priority", priority)
-        channelConfig.put("pid",new BigDecimal(pid))
         Channel channel = new Channel(channelUID,channelTypeUID,acceptedItemType,ChannelKind.STATE,channelConfig,new HashSet(),new HashMap(),null,null)
 
         systemInfoThing = ThingBuilder.create(thingTypeUID,thingUID).withConfiguration(thingConfiguration).withChannel(channel).build();
@@ -666,6 +680,46 @@ class SysteminfoOSGiTest extends OSGiTest{
         testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
     }
 
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel network#dataSentRate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_SENT_RATE
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel network#dataReceivedRate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_RECEIVED_RATE
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel network#packagesSentRate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_PACKAGES_SENT_RATE
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel network#packagesReceivedRate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_PACKAGES_RECEIVED_RATE
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
     @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
     @Test
     public void 'assert channel network#networkName is updated' () {
@@ -686,6 +740,76 @@ class SysteminfoOSGiTest extends OSGiTest{
         testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
     }
 
+    @Test
+    public void 'assert channel heap#used is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_HEAP_USED
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,SysteminfoBindingConstants.DEFAULT_POOL);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert channel gc#load is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_GC_LOAD
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,SysteminfoBindingConstants.DEFAULT_POOL);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert channel threads#count is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_THREADS_COUNT
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,SysteminfoBindingConstants.DEFAULT_POOL);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert channel pool#active is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_POOL_ACTIVE
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,SysteminfoBindingConstants.DEFAULT_POOL);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert channel pool#queued is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_POOL_QUEUED
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,SysteminfoBindingConstants.DEFAULT_POOL);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert channel events#rate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_EVENTS_RATE
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,SysteminfoBindingConstants.DEFAULT_POOL);
+        testItemStateIsUpdated(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert channel pool#active is undefined for unknown pool' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_POOL_ACTIVE
+        String acceptedItemType = "Number";
+
+        initializeRuntimeThingWithChannel(channnelID,acceptedItemType,"notExistingPool");
+
+        waitForAssert({
+            assertThat systemInfoThing.getStatus(), is(equalTo(ThingStatus.ONLINE))
+        }, DEFAULT_THING_INITIALIZE_MAX_TIME)
+        def GenericItem item = itemRegistry.getItem(DEFAULT_TEST_ITEM_NAME) as GenericItem
+        waitForAssert({
+            assertThat item.getState(), is(equalTo(UnDefType.UNDEF))
+        }, DEFAULT_THING_INITIALIZE_MAX_TIME)
+    }
+
     class SysteminfoDiscoveryServiceMock extends SysteminfoDiscoveryService {
         String hostname;
         SysteminfoDiscoveryServiceMock(String hostname) {
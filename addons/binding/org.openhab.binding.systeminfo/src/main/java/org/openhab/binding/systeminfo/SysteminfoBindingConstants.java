@@ -22,6 +22,8 @@ public class SysteminfoBindingConstants {
 
     public final static ThingTypeUID THING_TYPE_COMPUTER = new ThingTypeUID(BINDING_ID, "computer");
 
+    public final static ThingTypeUID THING_TYPE_RUNTIME = new ThingTypeUID(BINDING_ID, "runtime");
+
     // Thing properties
     /**
      * Number of CPU logical cores
@@ -48,6 +50,21 @@ public class SysteminfoBindingConstants {
      */
     public final static String PROPERTY_OS_VERSION = "os_version";
 
+    /**
+     * Version of the Java runtime
+     */
+    public final static String PROPERTY_JAVA_VERSION = "java_version";
+
+    /**
+     * Vendor of the Java runtime
+     */
+    public final static String PROPERTY_JAVA_VENDOR = "java_vendor";
+
+    /**
+     * Name of the Java virtual machine
+     */
+    public final static String PROPERTY_VM_NAME = "vm_name";
+
     // List of all Channel IDs
 
     /**
@@ -245,6 +262,26 @@ public class SysteminfoBindingConstants {
      */
     public final static String CHANNEL_NETWORK_PACKAGES_RECEIVED = "network#packagesReceived";
 
+    /**
+     * Network data sent per second
+     */
+    public final static String CHANNEL_NETWORK_DATA_SENT_RATE = "network#dataSentRate";
+
+    /**
+     * Network data received per second
+     */
+    public final static String CHANNEL_NETWORK_DATA_RECEIVED_RATE = "network#dataReceivedRate";
+
+    /**
+     * Network packages sent per second
+     */
+    public final static String CHANNEL_NETWORK_PACKAGES_SENT_RATE = "network#packagesSentRate";
+
+    /**
+     * Network packages received per second
+     */
+    public final static String CHANNEL_NETWORK_PACKAGES_RECEIVED_RATE = "network#packagesReceivedRate";
+
     /**
      * Network name
      */
@@ -286,6 +323,93 @@ public class SysteminfoBindingConstants {
      */
     public final static String CHANNEL_PROCESS_PATH = "process#path";
 
+    // List of all Channel IDs of the runtime thing
+
+    /**
+     * Size of the used heap memory of the JVM
+     */
+    public final static String CHANNEL_HEAP_USED = "heap#used";
+
+    /**
+     * Size of the heap memory, which is committed for the JVM
+     */
+    public final static String CHANNEL_HEAP_COMMITTED = "heap#committed";
+
+    /**
+     * Maximum size of the heap memory of the JVM
+     */
+    public final static String CHANNEL_HEAP_MAX = "heap#total";
+
+    /**
+     * Size of the used non-heap memory of the JVM
+     */
+    public final static String CHANNEL_NON_HEAP_USED = "nonHeap#used";
+
+    /**
+     * Size of the non-heap memory, which is committed for the JVM
+     */
+    public final static String CHANNEL_NON_HEAP_COMMITTED = "nonHeap#committed";
+
+    /**
+     * Number of garbage collections since the start of the JVM
+     */
+    public final static String CHANNEL_GC_COUNT = "gc#count";
+
+    /**
+     * Time spent in garbage collections since the start of the JVM
+     */
+    public final static String CHANNEL_GC_TIME = "gc#time";
+
+    /**
+     * Percents of the time spent in garbage collections since the previous refresh
+     */
+    public final static String CHANNEL_GC_LOAD = "gc#load";
+
+    /**
+     * Number of live threads of the JVM
+     */
+    public final static String CHANNEL_THREADS_COUNT = "threads#count";
+
+    /**
+     * Number of live daemon threads of the JVM
+     */
+    public final static String CHANNEL_THREADS_DAEMON = "threads#daemon";
+
+    /**
+     * Peak number of live threads since the start of the JVM
+     */
+    public final static String CHANNEL_THREADS_PEAK = "threads#peak";
+
+    /**
+     * Name of the channel group for thread pool information
+     */
+    public final static String CHANNEL_GROUP_POOL = "pool";
+
+    /**
+     * Number of threads of a thread pool, which are executing tasks
+     */
+    public final static String CHANNEL_POOL_ACTIVE = "pool#active";
+
+    /**
+     * Number of tasks waiting in the queue of a thread pool
+     */
+    public final static String CHANNEL_POOL_QUEUED = "pool#queued";
+
+    /**
+     * Number of threads of a thread pool
+     */
+    public final static String CHANNEL_POOL_SIZE = "pool#size";
+
+    /**
+     * Number of events posted on the event bus since the thing was initialized
+     */
+    public final static String CHANNEL_EVENTS_TOTAL = "events#total";
+
+    /**
+     * Events posted on the event bus per second
+     */
+    public final static String CHANNEL_EVENTS_RATE = "events#rate";
+
     // Thing configuraion
     /**
      * Name of the configuration parameter of the thing that defines refresh time for High priority channels
@@ -310,4 +434,14 @@ public class SysteminfoBindingConstants {
      */
     public final static String PID_PARAM = "pid";
 
+    /**
+     * Name of the channel configuration parameter pool
+     */
+    public final static String POOL_PARAM = "pool";
+
+    /**
+     * Default value of the channel configuration parameter pool, the pool of the thing handlers
+     */
+    public final static String DEFAULT_POOL = "thingHandler";
+
 }
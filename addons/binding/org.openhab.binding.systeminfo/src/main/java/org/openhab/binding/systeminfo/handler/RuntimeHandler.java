@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.handler;
+
+import static org.openhab.binding.systeminfo.SysteminfoBindingConstants.*;
+
+import java.util.Map;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.systeminfo.model.EventCounter;
+import org.openhab.binding.systeminfo.model.RuntimeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RuntimeHandler} is responsible for providing real time information about the Java virtual machine and
+ * the openHAB runtime (memory, garbage collection, threads, thread pools and the event bus). The channels are
+ * scheduled by their priority like the channels of the {@link SysteminfoHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RuntimeHandler extends SysteminfoHandler {
+
+    private final EventCounter eventCounter;
+
+    private RuntimeInfo runtimeInfo;
+
+    private Logger logger = LoggerFactory.getLogger(RuntimeHandler.class);
+
+    public RuntimeHandler(Thing thing, EventCounter eventCounter) {
+        super(thing);
+        this.eventCounter = eventCounter;
+    }
+
+    @Override
+    protected boolean instantiateSysteminfoLibrary() {
+        try {
+            this.runtimeInfo = new RuntimeInfo(eventCounter);
+            logger.debug("Runtime information is instatiated!");
+            return true;
+        } catch (Exception e) {
+            logger.error("Can not instantate RuntimeInfo object!", e);
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean updateProperties() {
+        Map<String, String> properties = editProperties();
+        properties.put(PROPERTY_JAVA_VERSION, runtimeInfo.getJavaVersion().toString());
+        properties.put(PROPERTY_JAVA_VENDOR, runtimeInfo.getJavaVendor().toString());
+        properties.put(PROPERTY_VM_NAME, runtimeInfo.getVmName().toString());
+        updateProperties(properties);
+        logger.debug("Properties updated!");
+        return true;
+    }
+
+    @Override
+    protected void updateSnapshot() {
+        runtimeInfo.updateSnapshot();
+    }
+
+    /**
+     * This method gets the information for specific channel through the {@link RuntimeInfo}. The channels of the
+     * thread pool groups read the name of the pool from the channel configuration.
+     *
+     * @param channelUID - the UID of the channel
+     * @return State object or null, if the channel is unknown
+     */
+    @Override
+    protected State getInfoForChannel(ChannelUID channelUID) {
+        State state = null;
+
+        // The pool groups may contain an index. All digits are deleted from the group ID.
+        String channelID = channelUID.getGroupId().replaceAll("\\d+", "") + "#" + channelUID.getIdWithoutGroup();
+
+        try {
+            switch (channelID) {
+                case CHANNEL_HEAP_USED:
+                    state = runtimeInfo.getHeapUsed();
+                    break;
+                case CHANNEL_HEAP_COMMITTED:
+                    state = runtimeInfo.getHeapCommitted();
+                    break;
+                case CHANNEL_HEAP_MAX:
+                    state = runtimeInfo.getHeapMax();
+                    break;
+                case CHANNEL_NON_HEAP_USED:
+                    state = runtimeInfo.getNonHeapUsed();
+                    break;
+                case CHANNEL_NON_HEAP_COMMITTED:
+                    state = runtimeInfo.getNonHeapCommitted();
+                    break;
+                case CHANNEL_GC_COUNT:
+                    state = runtimeInfo.getGcCount();
+                    break;
+                case CHANNEL_GC_TIME:
+                    state = runtimeInfo.getGcTime();
+                    break;
+                case CHANNEL_GC_LOAD:
+                    state = runtimeInfo.getGcLoad();
+                    break;
+                case CHANNEL_THREADS_COUNT:
+                    state = runtimeInfo.getThreadCount();
+                    break;
+                case CHANNEL_THREADS_DAEMON:
+                    state = runtimeInfo.getDaemonThreadCount();
+                    break;
+                case CHANNEL_THREADS_PEAK:
+                    state = runtimeInfo.getPeakThreadCount();
+                    break;
+                case CHANNEL_POOL_ACTIVE:
+                    state = runtimeInfo.getPoolActiveCount(getPoolName(channelUID));
+                    break;
+                case CHANNEL_POOL_QUEUED:
+                    state = runtimeInfo.getPoolQueuedCount(getPoolName(channelUID));
+                    break;
+                case CHANNEL_POOL_SIZE:
+                    state = runtimeInfo.getPoolSize(getPoolName(channelUID));
+                    break;
+                case CHANNEL_EVENTS_TOTAL:
+                    state = runtimeInfo.getEventsTotal();
+                    break;
+                case CHANNEL_EVENTS_RATE:
+                    state = runtimeInfo.getEventsRate();
+                    break;
+                default:
+                    logger.error("Channel with unknown ID: {} !", channelID);
+            }
+        } catch (Exception e) {
+            logger.error("Unexpected error occurred while getting runtime information!", e);
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                    "Can not get runtime info as result of unexpected error. Please try to restart the binding (remove and re-add the thing)!");
+        }
+        return state;
+    }
+
+    /**
+     * This method gets the name of the thread pool tracked by a channel of a pool group
+     *
+     * @param channelUID - channel unique identifier
+     * @return the name of the pool
+     */
+    private String getPoolName(ChannelUID channelUID) {
+        String poolName = DEFAULT_POOL;
+        Channel channel = this.thing.getChannel(channelUID.getId());
+        if (channel != null) {
+            Configuration channelProperties = channel.getConfiguration();
+            Object poolValue = channelProperties.get(POOL_PARAM);
+            if (poolValue instanceof String && !((String) poolValue).isEmpty()) {
+                poolName = (String) poolValue;
+            } else {
+                logger.debug("Channel {} has no thread pool configured ! Fall back to default value.", channelUID);
+            }
+        }
+        return poolName;
+    }
+}
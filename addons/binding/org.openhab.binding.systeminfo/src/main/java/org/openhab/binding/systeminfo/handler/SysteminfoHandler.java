@@ -107,7 +107,12 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
-    private boolean instantiateSysteminfoLibrary() {
+    /**
+     * Creates the source of the information provided by the channels.
+     *
+     * @return true if the source is available
+     */
+    protected boolean instantiateSysteminfoLibrary() {
         try {
             this.systeminfo = new OshiSysteminfo();
             logger.debug("OSHI Systeminfo library is instatiated!");
@@ -140,7 +145,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         }
     }
 
-    private boolean updateProperties() {
+    protected boolean updateProperties() {
         Map<String, String> properties = editProperties();
         try {
             properties.put(PROPERTY_CPU_LOGICAL_CORES, systeminfo.getCpuLogicalCores().toString());
@@ -234,8 +239,13 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
-    private void publishData(Set<ChannelUID> channels) {
+    /**
+     * Updates the linked channels from one snapshot of the system information, so values shared by several channels
+     * are read only once.
+     */
+    private synchronized void publishData(Set<ChannelUID> channels) {
         if (channels != null) {
+            updateSnapshot();
             Iterator<ChannelUID> iter = channels.iterator();
             while (iter.hasNext()) {
                 ChannelUID channeUID = iter.next();
@@ -246,6 +256,18 @@ public class SysteminfoHandler extends BaseThingHandler {
         }
     }
 
+    private synchronized void refreshChannel(ChannelUID channelUID) {
+        updateSnapshot();
+        publishDataForChannel(channelUID);
+    }
+
+    /**
+     * Replaces the values read at the previous refresh, before the channels are updated.
+     */
+    protected void updateSnapshot() {
+        systeminfo.updateSnapshot();
+    }
+
     private void publishDataForChannel(ChannelUID channelUID) {
         State state = getInfoForChannel(channelUID);
         String channelID = channelUID.getId();
@@ -265,7 +287,7 @@ public class SysteminfoHandler extends BaseThingHandler {
      * @param channelUID - the UID of the channel
      * @return State object or null, if there is no information for the device with this index
      */
-    private State getInfoForChannel(ChannelUID channelUID) {
+    protected State getInfoForChannel(ChannelUID channelUID) {
         State state = null;
         String channelID = channelUID.getId();
         String channelIDWithoutGroup = channelUID.getIdWithoutGroup();
@@ -403,6 +425,18 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_NETWORK_PACKAGES_SENT:
                     state = systeminfo.getNetworkPackageSent(deviceIndex);
                     break;
+                case CHANNEL_NETWORK_DATA_SENT_RATE:
+                    state = systeminfo.getNetworkDataSentRate(deviceIndex);
+                    break;
+                case CHANNEL_NETWORK_DATA_RECEIVED_RATE:
+                    state = systeminfo.getNetworkDataReceivedRate(deviceIndex);
+                    break;
+                case CHANNEL_NETWORK_PACKAGES_SENT_RATE:
+                    state = systeminfo.getNetworkPackageSentRate(deviceIndex);
+                    break;
+                case CHANNEL_NETWORK_PACKAGES_RECEIVED_RATE:
+                    state = systeminfo.getNetworkPackageReceivedRate(deviceIndex);
+                    break;
                 case CHANNEL_PROCESS_LOAD:
                     state = systeminfo.getProcessCpuUsage(deviceIndex);
                     break;
@@ -489,7 +523,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         if (thing.getStatus().equals(ThingStatus.ONLINE)) {
             if (command instanceof RefreshType) {
                 logger.debug("Refresh command received for channel {}!", channelUID);
-                publishDataForChannel(channelUID);
+                refreshChannel(channelUID);
             } else {
                 logger.debug("Unsupported command {}! Supported commands: REFRESH", command);
             }
@@ -543,6 +577,11 @@ public class SysteminfoHandler extends BaseThingHandler {
                 isChannelConfigChanged = true;
                 handleChannelConfigurationChange(oldChannel, newChannelConfig, PID_PARAM);
             }
+
+            if (isConfigurationKeyChanged(currentChannelConfig, newChannelConfig, POOL_PARAM)) {
+                isChannelConfigChanged = true;
+                handleChannelConfigurationChange(oldChannel, newChannelConfig, POOL_PARAM);
+            }
         }
 
         if (!(isInitialized() && isChannelConfigChanged)) {
@@ -559,7 +598,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         Object newValue = newConfig.get(parameter);
         logger.debug("Channel with UID : {} has changed its {} from {} to {}", channel.getUID(), parameter, oldValue,
                 newValue);
-        publishDataForChannel(channel.getUID());
+        refreshChannel(channel.getUID());
     }
 
     private void stopScheduledUpdates() {
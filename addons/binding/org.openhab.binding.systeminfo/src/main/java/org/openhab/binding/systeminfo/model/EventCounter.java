@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.model;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFilter;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+
+/**
+ * The {@link EventCounter} subscribes to all events of the event bus and counts them. It does not look at the events,
+ * so it adds almost nothing to the cost of posting an event.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class EventCounter implements EventSubscriber {
+
+    private final AtomicLong count = new AtomicLong();
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return Collections.singleton(EventSubscriber.ALL_EVENT_TYPES);
+    }
+
+    @Override
+    public EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        count.incrementAndGet();
+    }
+
+    /**
+     * @return the number of events received since the counter was registered
+     */
+    public long getCount() {
+        return count.get();
+    }
+}
@@ -9,6 +9,10 @@
 package org.openhab.binding.systeminfo.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -32,6 +36,10 @@ import oshi.util.EdidUtil;
  * This implementation of {@link SysteminfoInterface} is using the open source library OSHI to provide system
  * information. OSHI is a free JNA-based (native) Operating System and Hardware Information library for Java.
  *
+ * The values read from the system are kept in a snapshot until {@link #updateSnapshot()} is called, so each value is
+ * read only once per refresh, no matter how many channels use it. Rates are calculated from the network counters of
+ * successive snapshots.
+ *
  * @author Svilen Valkanov
  *
  * @see <a href="https://github.com/oshi/oshi">OSHI github repository</a>
@@ -42,13 +50,15 @@ public class OshiSysteminfo implements SysteminfoInterface {
     private OperatingSystem operatingSystem;
     private NetworkIF[] networks;
     private Display[] displays;
-    private OSFileStore[] fileStores;
     private GlobalMemory memory;
     private PowerSource[] powerSources;
     private CentralProcessor cpu;
     private HWDiskStore[] drives;
     private Sensors sensors;
 
+    private Snapshot snapshot = new Snapshot();
+    private final Map<Integer, NetworkRates> networkRates = new HashMap<>();
+
     public final static int PRECISION_AFTER_DECIMAl_SIGN = 1;
 
     /**
@@ -60,7 +70,6 @@ public class OshiSysteminfo implements SysteminfoInterface {
         HardwareAbstractionLayer hal = systemInfo.getHardware();
         operatingSystem = systemInfo.getOperatingSystem();
         displays = hal.getDisplays();
-        fileStores = operatingSystem.getFileSystem().getFileStores();
         memory = hal.getMemory();
         powerSources = hal.getPowerSources();
         cpu = hal.getProcessor();
@@ -78,13 +87,54 @@ public class OshiSysteminfo implements SysteminfoInterface {
     }
 
     private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+        OSProcess process = snapshot.processes.get(pid);
         if (process == null) {
-            throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            process = operatingSystem.getProcess(pid);
+            if (process == null) {
+                throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            }
+            snapshot.processes.put(pid, process);
         }
         return process;
     }
 
+    private OSFileStore getFileStore(int index) throws DeviceNotFoundException {
+        // OSFileStore holds the values of the time it was created
+        if (snapshot.fileStores == null) {
+            snapshot.fileStores = operatingSystem.getFileSystem().getFileStores();
+        }
+        return (OSFileStore) getDevice(snapshot.fileStores, index);
+    }
+
+    private NetworkIF getNetwork(int index) throws DeviceNotFoundException {
+        NetworkIF network = (NetworkIF) getDevice(networks, index);
+        if (snapshot.updatedNetworks.add(index)) {
+            network.updateNetworkStats();
+            NetworkRates rates = networkRates.get(index);
+            if (rates == null) {
+                rates = new NetworkRates();
+                networkRates.put(index, rates);
+            }
+            rates.update(network);
+        }
+        return network;
+    }
+
+    private void readMemory() {
+        if (!snapshot.memoryRead) {
+            snapshot.memoryTotal = memory.getTotal();
+            snapshot.memoryAvailable = memory.getAvailable();
+            snapshot.swapTotal = memory.getSwapTotal();
+            snapshot.swapUsed = memory.getSwapUsed();
+            snapshot.memoryRead = true;
+        }
+    }
+
+    @Override
+    public void updateSnapshot() {
+        snapshot = new Snapshot();
+    }
+
     @Override
     public StringType getOsFamily() {
         String osFamily = operatingSystem.getFamily();
@@ -138,29 +188,35 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getCpuLoad() {
-        double processorLoad = cpu.getSystemCpuLoad();
+        if (snapshot.cpuLoad == null) {
+            snapshot.cpuLoad = cpu.getSystemCpuLoad();
+        }
+        double processorLoad = snapshot.cpuLoad;
         BigDecimal processorLoadPercent = getPercentsValue(processorLoad);
         return new DecimalType(processorLoadPercent);
     }
 
     @Override
     public DecimalType getMemoryTotal() {
-        long totalMemory = memory.getTotal();
+        readMemory();
+        long totalMemory = snapshot.memoryTotal;
         totalMemory = getSizeInMB(totalMemory);
         return new DecimalType(totalMemory);
     }
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        readMemory();
+        long availableMemory = snapshot.memoryAvailable;
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
 
     @Override
     public DecimalType getMemoryUsed() {
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        readMemory();
+        long totalMemory = snapshot.memoryTotal;
+        long availableMemory = snapshot.memoryAvailable;
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -168,7 +224,7 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = getFileStore(index);
         long totalSpace = fileStore.getTotalSpace();
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
@@ -176,7 +232,7 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = getFileStore(index);
         long freeSpace = fileStore.getUsableSpace();
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
@@ -184,7 +240,7 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = getFileStore(index);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -194,7 +250,7 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = getFileStore(deviceIndex);
         long freeStorage = fileStore.getUsableSpace();
         long totalStorage = fileStore.getTotalSpace();
         double freePercentDecimal = (double) freeStorage / (double) totalStorage;
@@ -204,28 +260,28 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getStorageName(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = getFileStore(index);
         String name = fileStore.getName();
         return new StringType(name);
     }
 
     @Override
     public StringType getStorageType(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
+        OSFileStore fileStore = getFileStore(deviceIndex);
         String type = fileStore.getType();
         return new StringType(type);
     }
 
     @Override
     public StringType getStorageDescription(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        OSFileStore fileStore = getFileStore(index);
         String description = fileStore.getDescription();
         return new StringType(description);
     }
 
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = getNetwork(index);
         String[] ipAddresses = netInterface.getIPv4addr();
         String ipv4 = (String) getDevice(ipAddresses, 0);
         return new StringType(ipv4);
@@ -233,14 +289,14 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getNetworkName(int index) throws DeviceNotFoundException {
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = getNetwork(index);
         String name = netInterface.getName();
         return new StringType(name);
     }
 
     @Override
     public StringType getNetworkDisplayName(int index) throws DeviceNotFoundException {
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
+        NetworkIF netInterface = getNetwork(index);
         String adapterName = netInterface.getDisplayName();
         return new StringType(adapterName);
     }
@@ -263,21 +319,30 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        if (snapshot.cpuTemperature == null) {
+            snapshot.cpuTemperature = sensors.getCpuTemperature();
+        }
+        BigDecimal cpuTemp = new BigDecimal(snapshot.cpuTemperature);
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return new DecimalType(cpuTemp);
     }
 
     @Override
     public DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
+        if (snapshot.cpuVoltage == null) {
+            snapshot.cpuVoltage = sensors.getCpuVoltage();
+        }
+        BigDecimal cpuVoltage = new BigDecimal(snapshot.cpuVoltage);
         cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return new DecimalType(cpuVoltage);
     }
 
     @Override
     public DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
+        if (snapshot.fanSpeeds == null) {
+            snapshot.fanSpeeds = sensors.getFanSpeeds();
+        }
+        int[] fanSpeeds = snapshot.fanSpeeds;
         int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
         return new DecimalType(speed);
     }
@@ -312,8 +377,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        readMemory();
+        long availableMemory = snapshot.memoryAvailable;
+        long totalMemory = snapshot.memoryTotal;
         BigDecimal freePercent;
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
@@ -347,15 +413,17 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapTotal() {
-        long swapTotal = memory.getSwapTotal();
+        readMemory();
+        long swapTotal = snapshot.swapTotal;
         swapTotal = getSizeInMB(swapTotal);
         return new DecimalType(swapTotal);
     }
 
     @Override
     public DecimalType getSwapAvailable() {
-        long swapTotal = memory.getSwapTotal();
-        long swapUsed = memory.getSwapUsed();
+        readMemory();
+        long swapTotal = snapshot.swapTotal;
+        long swapUsed = snapshot.swapUsed;
         long swapAvaialble = swapTotal - swapUsed;
         swapAvaialble = getSizeInMB(swapAvaialble);
         return new DecimalType(swapAvaialble);
@@ -363,15 +431,17 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsed() {
-        long swapTotal = memory.getSwapUsed();
+        readMemory();
+        long swapTotal = snapshot.swapUsed;
         swapTotal = getSizeInMB(swapTotal);
         return new DecimalType(swapTotal);
     }
 
     @Override
     public DecimalType getSwapAvailablePercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        readMemory();
+        long usedSwap = snapshot.swapUsed;
+        long totalSwap = snapshot.swapTotal;
         long freeSwap = totalSwap - usedSwap;
         BigDecimal freePercent;
         if (totalSwap > 0) {
@@ -394,6 +464,12 @@ public class OshiSysteminfo implements SysteminfoInterface {
         return result;
     }
 
+    private BigDecimal getRate(double rate) {
+        BigDecimal result = new BigDecimal(rate);
+        result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return result;
+    }
+
     private BigDecimal getTimeInMinutes(double timeInSeconds) {
         BigDecimal timeInMinutes = new BigDecimal(timeInSeconds / 60);
         timeInMinutes = timeInMinutes.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_UP);
@@ -446,7 +522,10 @@ public class OshiSysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
+        if (snapshot.loadAverages == null) {
+            snapshot.loadAverages = cpu.getSystemLoadAverage(3);
+        }
+        double processorLoads[] = snapshot.loadAverages;
         BigDecimal result = new BigDecimal(processorLoads[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
@@ -466,43 +545,63 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getNetworkMac(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
+        NetworkIF network = getNetwork(networkIndex);
         String mac = network.getMacaddr();
         return new StringType(mac);
     }
 
     @Override
     public DecimalType getNetworkPackageReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = getNetwork(networkIndex);
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPackageSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = getNetwork(networkIndex);
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = getNetwork(networkIndex);
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = getNetwork(networkIndex);
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
 
+    @Override
+    public DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException {
+        getNetwork(networkIndex);
+        return new DecimalType(getRate(networkRates.get(networkIndex).bytesSentRate / 1024));
+    }
+
+    @Override
+    public DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException {
+        getNetwork(networkIndex);
+        return new DecimalType(getRate(networkRates.get(networkIndex).bytesRecvRate / 1024));
+    }
+
+    @Override
+    public DecimalType getNetworkPackageSentRate(int networkIndex) throws DeviceNotFoundException {
+        getNetwork(networkIndex);
+        return new DecimalType(getRate(networkRates.get(networkIndex).packetsSentRate));
+    }
+
+    @Override
+    public DecimalType getNetworkPackageReceivedRate(int networkIndex) throws DeviceNotFoundException {
+        getNetwork(networkIndex);
+        return new DecimalType(getRate(networkRates.get(networkIndex).packetsRecvRate));
+    }
+
     @Override
     public StringType getProcessName(int pid) throws DeviceNotFoundException {
         OSProcess process = getProcess(pid);
@@ -540,4 +639,65 @@ public class OshiSysteminfo implements SysteminfoInterface {
         return new DecimalType(threadCount);
     }
 
+    /**
+     * The values read from the system during one refresh, values not read yet are null or not marked as read
+     */
+    private static class Snapshot {
+        private Double cpuLoad;
+        private double[] loadAverages;
+        private boolean memoryRead;
+        private long memoryTotal;
+        private long memoryAvailable;
+        private long swapTotal;
+        private long swapUsed;
+        private Double cpuTemperature;
+        private Double cpuVoltage;
+        private int[] fanSpeeds;
+        private OSFileStore[] fileStores;
+        private final Map<Integer, OSProcess> processes = new HashMap<>();
+        private final Set<Integer> updatedNetworks = new HashSet<>();
+    }
+
+    /**
+     * The rates of a network interface, calculated from the counters of two snapshots which are at least
+     * {@link #MIN_RATE_INTERVAL} milliseconds apart
+     */
+    private static class NetworkRates {
+        // counters read again within this interval keep the previous rates, they would be too inaccurate
+        private static final long MIN_RATE_INTERVAL = 1000;
+
+        private long timeStamp = -1;
+        private long bytesSent;
+        private long bytesRecv;
+        private long packetsSent;
+        private long packetsRecv;
+        private double bytesSentRate;
+        private double bytesRecvRate;
+        private double packetsSentRate;
+        private double packetsRecvRate;
+
+        private void update(NetworkIF network) {
+            long now = network.getTimeStamp();
+            if (timeStamp >= 0 && now - timeStamp < MIN_RATE_INTERVAL) {
+                return;
+            }
+            if (timeStamp >= 0) {
+                double seconds = (now - timeStamp) / 1000.0;
+                bytesSentRate = getRate(bytesSent, network.getBytesSent(), seconds);
+                bytesRecvRate = getRate(bytesRecv, network.getBytesRecv(), seconds);
+                packetsSentRate = getRate(packetsSent, network.getPacketsSent(), seconds);
+                packetsRecvRate = getRate(packetsRecv, network.getPacketsRecv(), seconds);
+            }
+            timeStamp = now;
+            bytesSent = network.getBytesSent();
+            bytesRecv = network.getBytesRecv();
+            packetsSent = network.getPacketsSent();
+            packetsRecv = network.getPacketsRecv();
+        }
+
+        private static double getRate(long previous, long current, double seconds) {
+            // the counters start again from 0 if they overflow or the interface is reset
+            return current >= previous ? (current - previous) / seconds : 0;
+        }
+    }
 }
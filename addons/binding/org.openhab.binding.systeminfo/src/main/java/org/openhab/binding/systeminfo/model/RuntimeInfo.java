@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.model;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
+
+/**
+ * The {@link RuntimeInfo} provides information about the Java virtual machine openHAB is running in and about the
+ * thread pools and the event bus of openHAB. The JVM information is read from the platform MXBeans.
+ *
+ * Like {@link OshiSysteminfo}, the values are kept in a snapshot until {@link #updateSnapshot()} is called. The
+ * rates are calculated from the counters of successive snapshots, which are at least
+ * {@link #MIN_RATE_INTERVAL} milliseconds apart.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class RuntimeInfo {
+
+    /**
+     * Snapshots taken shortly after each other, e.g. for a REFRESH command, do not update the rates.
+     */
+    private static final long MIN_RATE_INTERVAL = 1000;
+
+    public final static int PRECISION_AFTER_DECIMAl_SIGN = 1;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private final EventCounter eventCounter;
+
+    private Snapshot snapshot;
+
+    private long rateTime = -1;
+    private long rateGcTime;
+    private long rateEvents;
+    private double gcLoad;
+    private double eventRate;
+
+    /**
+     * @param eventCounter the counter of the events posted on the event bus
+     */
+    public RuntimeInfo(EventCounter eventCounter) {
+        this.eventCounter = eventCounter;
+        updateSnapshot();
+    }
+
+    /**
+     * Takes a new snapshot and updates the rates. The values of the snapshot are read lazily, except the counters
+     * needed for the rates.
+     */
+    public void updateSnapshot() {
+        Snapshot newSnapshot = new Snapshot();
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            // -1 if the collector does not provide the value
+            newSnapshot.gcCount += Math.max(gcBean.getCollectionCount(), 0);
+            newSnapshot.gcTime += Math.max(gcBean.getCollectionTime(), 0);
+        }
+        newSnapshot.events = eventCounter.getCount();
+
+        long now = System.nanoTime();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(now - rateTime);
+        if (rateTime < 0 || elapsed >= MIN_RATE_INTERVAL) {
+            if (rateTime >= 0) {
+                gcLoad = (double) (newSnapshot.gcTime - rateGcTime) / elapsed;
+                eventRate = (newSnapshot.events - rateEvents) * 1000.0 / elapsed;
+            }
+            rateTime = now;
+            rateGcTime = newSnapshot.gcTime;
+            rateEvents = newSnapshot.events;
+        }
+        snapshot = newSnapshot;
+    }
+
+    private MemoryUsage getHeap() {
+        if (snapshot.heap == null) {
+            snapshot.heap = memoryBean.getHeapMemoryUsage();
+        }
+        return snapshot.heap;
+    }
+
+    private MemoryUsage getNonHeap() {
+        if (snapshot.nonHeap == null) {
+            snapshot.nonHeap = memoryBean.getNonHeapMemoryUsage();
+        }
+        return snapshot.nonHeap;
+    }
+
+    private ThreadPoolExecutor getPool(String poolName) {
+        if (!snapshot.pools.containsKey(poolName)) {
+            snapshot.pools.put(poolName, ThreadPools.find(poolName));
+        }
+        return snapshot.pools.get(poolName);
+    }
+
+    public StringType getJavaVersion() {
+        return new StringType(System.getProperty("java.version"));
+    }
+
+    public StringType getJavaVendor() {
+        return new StringType(System.getProperty("java.vendor"));
+    }
+
+    public StringType getVmName() {
+        return new StringType(runtimeBean.getVmName() + " " + runtimeBean.getVmVersion());
+    }
+
+    /**
+     * @return used heap memory in MB
+     */
+    public DecimalType getHeapUsed() {
+        return new DecimalType(getSizeInMB(getHeap().getUsed()));
+    }
+
+    /**
+     * @return heap memory committed for the JVM in MB
+     */
+    public DecimalType getHeapCommitted() {
+        return new DecimalType(getSizeInMB(getHeap().getCommitted()));
+    }
+
+    /**
+     * @return maximum heap memory in MB, or UNDEF if the JVM does not define it
+     */
+    public State getHeapMax() {
+        long max = getHeap().getMax();
+        return max < 0 ? UnDefType.UNDEF : new DecimalType(getSizeInMB(max));
+    }
+
+    /**
+     * @return used non-heap memory in MB
+     */
+    public DecimalType getNonHeapUsed() {
+        return new DecimalType(getSizeInMB(getNonHeap().getUsed()));
+    }
+
+    /**
+     * @return non-heap memory committed for the JVM in MB
+     */
+    public DecimalType getNonHeapCommitted() {
+        return new DecimalType(getSizeInMB(getNonHeap().getCommitted()));
+    }
+
+    /**
+     * @return number of garbage collections of all collectors since the start of the JVM
+     */
+    public DecimalType getGcCount() {
+        return new DecimalType(snapshot.gcCount);
+    }
+
+    /**
+     * @return time spent in garbage collections of all collectors since the start of the JVM in ms
+     */
+    public DecimalType getGcTime() {
+        return new DecimalType(snapshot.gcTime);
+    }
+
+    /**
+     * @return percents of the time spent in garbage collections between the last two snapshots
+     */
+    public DecimalType getGcLoad() {
+        return new DecimalType(getPercentsValue(gcLoad));
+    }
+
+    public DecimalType getThreadCount() {
+        return new DecimalType(threadBean.getThreadCount());
+    }
+
+    public DecimalType getDaemonThreadCount() {
+        return new DecimalType(threadBean.getDaemonThreadCount());
+    }
+
+    public DecimalType getPeakThreadCount() {
+        return new DecimalType(threadBean.getPeakThreadCount());
+    }
+
+    /**
+     * @param poolName the name of a thread pool of the ThreadPoolManager
+     * @return number of threads executing tasks, or UNDEF if the pool has not been created yet
+     */
+    public State getPoolActiveCount(String poolName) {
+        ThreadPoolExecutor pool = getPool(poolName);
+        return pool == null ? UnDefType.UNDEF : new DecimalType(pool.getActiveCount());
+    }
+
+    /**
+     * The queue of a scheduled pool contains also the tasks scheduled for later.
+     *
+     * @param poolName the name of a thread pool of the ThreadPoolManager
+     * @return number of queued tasks, or UNDEF if the pool has not been created yet
+     */
+    public State getPoolQueuedCount(String poolName) {
+        ThreadPoolExecutor pool = getPool(poolName);
+        return pool == null ? UnDefType.UNDEF : new DecimalType(pool.getQueue().size());
+    }
+
+    /**
+     * @param poolName the name of a thread pool of the ThreadPoolManager
+     * @return number of threads of the pool, or UNDEF if the pool has not been created yet
+     */
+    public State getPoolSize(String poolName) {
+        ThreadPoolExecutor pool = getPool(poolName);
+        return pool == null ? UnDefType.UNDEF : new DecimalType(pool.getPoolSize());
+    }
+
+    /**
+     * @return number of events posted on the event bus since the thing was initialized
+     */
+    public DecimalType getEventsTotal() {
+        return new DecimalType(snapshot.events);
+    }
+
+    /**
+     * @return events posted on the event bus per second between the last two snapshots
+     */
+    public DecimalType getEventsRate() {
+        BigDecimal result = new BigDecimal(eventRate);
+        result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return new DecimalType(result);
+    }
+
+    private long getSizeInMB(long sizeInBytes) {
+        return sizeInBytes / (1024 * 1024);
+    }
+
+    private BigDecimal getPercentsValue(double decimalFraction) {
+        BigDecimal result = new BigDecimal(decimalFraction * 100);
+        result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return result;
+    }
+
+    private static class Snapshot {
+        private long gcCount;
+        private long gcTime;
+        private long events;
+        private MemoryUsage heap;
+        private MemoryUsage nonHeap;
+        private final Map<String, ThreadPoolExecutor> pools = new HashMap<>();
+    }
+}
@@ -19,6 +19,13 @@ import org.eclipse.smarthome.core.library.types.StringType;
  */
 public interface SysteminfoInterface {
 
+    /**
+     * Starts a new refresh. The information read from the system is kept and shared by all channels until the next
+     * call, so each value is read only once per refresh. The implementation is not thread safe, a refresh and the
+     * calls of the getters belonging to it must not overlap with other refreshes.
+     */
+    public void updateSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -308,6 +315,38 @@ public interface SysteminfoInterface {
      */
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException;
 
+    /**
+     * Get the rate of data sent in kB/s for this network, calculated between the last two refreshes
+     *
+     * @param networkIndex - the index of the network
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the rate of data received in kB/s for this network, calculated between the last two refreshes
+     *
+     * @param networkIndex - the index of the network
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the number of packages sent per second for this network, calculated between the last two refreshes
+     *
+     * @param networkIndex - the index of the network
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkPackageSentRate(int networkIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the number of packages received per second for this network, calculated between the last two refreshes
+     *
+     * @param networkIndex - the index of the network
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkPackageReceivedRate(int networkIndex) throws DeviceNotFoundException;
+
     // Display info
     /**
      * Get information about the display device as product number, manufacturer, serial number, width and height in cm";
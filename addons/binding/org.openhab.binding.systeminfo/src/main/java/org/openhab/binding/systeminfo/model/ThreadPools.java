@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.model;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+
+/**
+ * Looks up the thread pools of the {@link ThreadPoolManager}. A pool is created by the first binding using it.
+ *
+ * This class deliberately depends on an internal of the ESH core: the public methods of the
+ * {@link ThreadPoolManager} create a pool if it does not exist yet, and there is no public method to look up or
+ * list the existing pools. So the class extends the manager only to read its protected static map of pools, and has
+ * to be adapted if the ESH core changes that map.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+class ThreadPools extends ThreadPoolManager {
+
+    private ThreadPools() {
+    }
+
+    /**
+     * @param poolName the name of the thread pool
+     * @return the thread pool or null, if no pool with this name has been created yet
+     */
+    static ThreadPoolExecutor find(String poolName) {
+        ExecutorService pool;
+        synchronized (pools) {
+            pool = pools.get(poolName);
+        }
+        if (pool instanceof ThreadPoolExecutor) {
+            return (ThreadPoolExecutor) pool;
+        }
+        return null;
+    }
+}
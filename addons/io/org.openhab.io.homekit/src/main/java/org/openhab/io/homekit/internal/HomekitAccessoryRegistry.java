@@ -8,15 +8,10 @@
  */
 package org.openhab.io.homekit.internal;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
 
-import org.openhab.io.homekit.internal.accessories.GroupedAccessory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,87 +19,78 @@ import com.beowulfe.hap.HomekitAccessory;
 import com.beowulfe.hap.HomekitRoot;
 
 /**
- * Stores the created HomekitAccessories. GroupedAccessories are also held here
- * in a pre-created pending state until all required characteristics are found.
+ * Stores the created HomekitAccessories. The accessories are replaced as a whole by a newly computed set, only
+ * accessories which are new or differ from the existing ones are removed from or added to the bridge.
  *
  * @author Andy Lintner
  */
 class HomekitAccessoryRegistry {
 
     private HomekitRoot bridge;
-    private final List<HomekitAccessory> createdAccessories = new LinkedList<>();
-    private final Set<Integer> createdIds = new HashSet<>();
-    private final Map<String, GroupedAccessory> pendingGroupedAccessories = new HashMap<>();
-    private final List<HomekitTaggedItem> pendingCharacteristics = new LinkedList<>();
+    private final Map<Integer, CreatedAccessory> createdAccessories = new LinkedHashMap<>();
 
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
-    public void remove(HomekitTaggedItem taggedItem) {
-        Iterator<HomekitAccessory> i = createdAccessories.iterator();
+    /**
+     * Replaces the created accessories. An existing accessory is kept if the new accessory with the same id has
+     * the same signature.
+     *
+     * @param accessories the new accessories by id
+     * @param signatures the signatures of the new accessories by id, describing everything the accessory is made of
+     */
+    public synchronized void update(Map<Integer, HomekitAccessory> accessories, Map<Integer, String> signatures) {
+        int removed = 0;
+        Iterator<CreatedAccessory> i = createdAccessories.values().iterator();
         while (i.hasNext()) {
-            HomekitAccessory accessory = i.next();
-            if (accessory.getId() == taggedItem.getId()) {
-                logger.debug("Removed accessory " + accessory.getId());
-                bridge.removeAccessory(accessory);
+            CreatedAccessory created = i.next();
+            int id = created.accessory.getId();
+            if (!created.signature.equals(signatures.get(id))) {
+                if (bridge != null) {
+                    bridge.removeAccessory(created.accessory);
+                }
                 i.remove();
+                removed++;
+                logger.debug("Removed accessory " + id);
             }
         }
-    }
-
-    public synchronized void clear() {
-        while (!createdAccessories.isEmpty()) {
-            bridge.removeAccessory(createdAccessories.remove(0));
-        }
-        createdIds.clear();
-    }
-
-    public synchronized void setBridge(HomekitRoot bridge) {
-        this.bridge = bridge;
-        createdAccessories.forEach(accessory -> bridge.addAccessory(accessory));
-    }
 
-    public synchronized void addRootDevice(HomekitAccessory accessory) {
-        if (accessory instanceof GroupedAccessory) {
-            GroupedAccessory groupedAccessory = (GroupedAccessory) accessory;
-            pendingGroupedAccessories.put(groupedAccessory.getGroupName(), groupedAccessory);
-            for (HomekitTaggedItem characteristic : pendingCharacteristics) {
-                if (characteristic.getItem().getGroupNames().contains(groupedAccessory.getGroupName())) {
-                    addCharacteristicToGroup(groupedAccessory.getGroupName(), characteristic);
+        int added = 0;
+        for (HomekitAccessory accessory : accessories.values()) {
+            if (!createdAccessories.containsKey(accessory.getId())) {
+                createdAccessories.put(accessory.getId(),
+                        new CreatedAccessory(accessory, signatures.get(accessory.getId())));
+                if (bridge != null) {
+                    bridge.addAccessory(accessory);
                 }
+                added++;
+                logger.debug("Added accessory " + accessory.getId());
             }
-        } else {
-            doAddDevice(accessory);
         }
+        logger.debug("Updated accessories: {} added, {} removed, {} total", added, removed, createdAccessories.size());
     }
 
-    public synchronized void addCharacteristic(HomekitTaggedItem item) {
-        for (String group : item.getItem().getGroupNames()) {
-            if (pendingGroupedAccessories.containsKey(group)) {
-                addCharacteristicToGroup(group, item);
-                logger.debug("Added " + item.getItem().getName() + " to " + group);
-                return;
-            }
+    public synchronized void clear() {
+        if (bridge != null) {
+            createdAccessories.values().forEach(created -> bridge.removeAccessory(created.accessory));
         }
-        pendingCharacteristics.add(item);
-        logger.debug("Stored " + item.getItem().getName() + " until group is ready");
+        createdAccessories.clear();
     }
 
-    private void addCharacteristicToGroup(String group, HomekitTaggedItem item) {
-        GroupedAccessory accessory = pendingGroupedAccessories.get(group);
-        accessory.addCharacteristic(item);
-        if (accessory.isComplete()) {
-            pendingGroupedAccessories.remove(group);
-            doAddDevice(accessory);
+    public synchronized void setBridge(HomekitRoot bridge) {
+        this.bridge = bridge;
+        if (bridge != null) {
+            createdAccessories.values().forEach(created -> bridge.addAccessory(created.accessory));
         }
     }
 
-    private void doAddDevice(HomekitAccessory accessory) {
-        createdAccessories.add(accessory);
-        createdIds.add(accessory.getId());
-        if (bridge != null) {
-            bridge.addAccessory(accessory);
+    private static class CreatedAccessory {
+        private final HomekitAccessory accessory;
+        private final String signature;
+
+        public CreatedAccessory(HomekitAccessory accessory, String signature) {
+            this.accessory = accessory;
+            this.signature = signature;
         }
-        logger.debug("Added accessory " + accessory.getId());
     }
 
 }
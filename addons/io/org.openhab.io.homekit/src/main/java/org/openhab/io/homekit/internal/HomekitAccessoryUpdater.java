@@ -70,6 +70,26 @@ public class HomekitAccessoryUpdater {
         });
     }
 
+    /**
+     * Moves the subscriptions of an item to the instance replacing it in the item registry, so accessories which
+     * are kept across an item update keep notifying Homekit.
+     */
+    public void replaceItem(GenericItem oldItem, GenericItem newItem) {
+        if (oldItem == newItem) {
+            return;
+        }
+        for (ItemKey itemKey : subscriptionsByName.keySet()) {
+            if (itemKey.item == oldItem) {
+                Subscription subscription = subscriptionsByName.remove(itemKey);
+                if (subscription != null) {
+                    oldItem.removeStateChangeListener(subscription);
+                    newItem.addStateChangeListener(subscription);
+                    subscriptionsByName.put(new ItemKey(newItem, itemKey.key), subscription);
+                }
+            }
+        }
+    }
+
     @FunctionalInterface
     private static interface Subscription extends StateChangeListener {
 
@@ -8,61 +8,73 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
-
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.openhab.io.homekit.internal.accessories.GroupedAccessory;
 import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.beowulfe.hap.HomekitAccessory;
 import com.beowulfe.hap.HomekitRoot;
 
 /**
- * Listens for changes to the item registry. When changes are detected, check
- * for Homekit tags and, if present, add the items to the HomekitAccessoryRegistry.
+ * Listens for changes to the item registry. When changes are detected, the accessories of all items with Homekit
+ * tags are computed in one pass and the HomekitAccessoryRegistry is updated with the result. Changes arriving in
+ * quick succession, like during a model reload, are collected into a single rebuild.
  *
  * @author Andy Lintner
  */
 public class HomekitChangeListener implements ItemRegistryChangeListener {
 
+    private static final String THREADPOOL_HOMEKIT = "homekit";
+    private static final int REBUILD_DELAY = 1000;
+
     private ItemRegistry itemRegistry;
     private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
     private Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_HOMEKIT);
+    private ScheduledFuture<?> rebuildTask;
     private HomekitSettings settings;
 
     @Override
-    public synchronized void added(Item item) {
-        HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
-        if (taggedItem.isTagged()) {
-            if (taggedItem.isRootDevice()) {
-                createRootDevice(taggedItem);
-            }
-            if (taggedItem.isCharacteristic()) {
-                createCharacteristic(taggedItem);
-            }
-        }
+    public void added(Item item) {
+        scheduleRebuild();
     }
 
     @Override
     public void allItemsChanged(Collection<String> oldItemNames) {
-        clearAccessories();
+        scheduleRebuild();
     }
 
     @Override
-    public synchronized void removed(Item item) {
-        HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
-        if (taggedItem.isTagged()) {
-            accessoryRegistry.remove(taggedItem);
-        }
+    public void removed(Item item) {
+        scheduleRebuild();
     }
 
     @Override
     public void updated(Item oldElement, Item element) {
-        removed(oldElement);
-        added(element);
+        if (oldElement instanceof GenericItem && element instanceof GenericItem) {
+            updater.replaceItem((GenericItem) oldElement, (GenericItem) element);
+        }
+        scheduleRebuild();
     }
 
     public synchronized void clearAccessories() {
@@ -76,7 +88,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public synchronized void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getAll().forEach(item -> added(item));
+        rebuild();
     }
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
@@ -87,25 +99,109 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.settings = settings;
     }
 
-    public void stop() {
+    public synchronized void stop() {
         if (this.itemRegistry != null) {
             this.itemRegistry.removeRegistryChangeListener(this);
         }
+        if (rebuildTask != null) {
+            rebuildTask.cancel(false);
+            rebuildTask = null;
+        }
+    }
+
+    private synchronized void scheduleRebuild() {
+        if (rebuildTask != null) {
+            rebuildTask.cancel(false);
+        }
+        rebuildTask = scheduler.schedule(() -> rebuild(), REBUILD_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Computes the accessories of all tagged items and updates the accessory registry with them.
+     */
+    private synchronized void rebuild() {
+        rebuildTask = null;
+        if (itemRegistry == null) {
+            return;
+        }
+
+        Collection<Item> items = itemRegistry.getItems();
+        Set<String> rootGroupNames = new HashSet<>();
+        for (Item item : items) {
+            if (HomekitTaggedItem.isRootGroup(item)) {
+                rootGroupNames.add(item.getName());
+            }
+        }
+
+        Map<Integer, HomekitAccessory> accessories = new LinkedHashMap<>();
+        Map<String, GroupedAccessory> groupedAccessories = new HashMap<>();
+        Map<String, Set<String>> groupedCharacteristics = new HashMap<>();
+        List<HomekitTaggedItem> characteristics = new ArrayList<>();
+        for (Item item : items) {
+            HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, rootGroupNames::contains);
+            if (!taggedItem.isTagged()) {
+                continue;
+            }
+            if (taggedItem.isRootDevice()) {
+                HomekitAccessory accessory = createRootDevice(taggedItem);
+                if (accessory instanceof GroupedAccessory) {
+                    GroupedAccessory groupedAccessory = (GroupedAccessory) accessory;
+                    groupedAccessories.put(groupedAccessory.getGroupName(), groupedAccessory);
+                    groupedCharacteristics.put(groupedAccessory.getGroupName(), new TreeSet<>());
+                } else if (accessory != null) {
+                    accessories.put(accessory.getId(), accessory);
+                }
+            }
+            if (taggedItem.isCharacteristic()) {
+                characteristics.add(taggedItem);
+            }
+        }
+
+        for (HomekitTaggedItem characteristic : characteristics) {
+            for (String group : characteristic.getItem().getGroupNames()) {
+                GroupedAccessory groupedAccessory = groupedAccessories.get(group);
+                if (groupedAccessory != null) {
+                    groupedAccessory.addCharacteristic(characteristic);
+                    groupedCharacteristics.get(group)
+                            .add(characteristic.getCharacteristicType() + "=" + characteristic.getItem().getName());
+                    logger.debug("Added " + characteristic.getItem().getName() + " to " + group);
+                    break;
+                }
+            }
+        }
+
+        Map<Integer, String> signatures = new HashMap<>();
+        for (GroupedAccessory groupedAccessory : groupedAccessories.values()) {
+            if (groupedAccessory.isComplete()) {
+                accessories.put(groupedAccessory.getId(), groupedAccessory);
+                signatures.put(groupedAccessory.getId(),
+                        getSignature(groupedAccessory) + groupedCharacteristics.get(groupedAccessory.getGroupName()));
+            } else {
+                logger.debug("Skipped incomplete homekit device " + groupedAccessory.getGroupName());
+            }
+        }
+        for (HomekitAccessory accessory : accessories.values()) {
+            if (!signatures.containsKey(accessory.getId())) {
+                signatures.put(accessory.getId(), getSignature(accessory));
+            }
+        }
+
+        accessoryRegistry.update(accessories, signatures);
     }
 
-    private void createRootDevice(HomekitTaggedItem taggedItem) {
+    private HomekitAccessory createRootDevice(HomekitTaggedItem taggedItem) {
         try {
-            logger.debug("Adding homekit device " + taggedItem.getItem().getName());
-            accessoryRegistry
-                    .addRootDevice(HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
-            logger.debug("Added homekit device " + taggedItem.getItem().getName());
+            return HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings);
         } catch (Exception e) {
             logger.error("Could not add device: " + e.getMessage(), e);
+            return null;
         }
     }
 
-    private void createCharacteristic(HomekitTaggedItem taggedItem) {
-        logger.debug("Adding grouped homekit characteristic " + taggedItem.getItem().getName());
-        accessoryRegistry.addCharacteristic(taggedItem);
+    /**
+     * Describes what an accessory is made of, accessories with the same signature are interchangeable
+     */
+    private String getSignature(HomekitAccessory accessory) {
+        return accessory.getClass().getName() + ":" + accessory.getId() + ":" + accessory.getLabel();
     }
 }
@@ -10,10 +10,10 @@ package org.openhab.io.homekit.internal;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.eclipse.smarthome.core.items.Item;
-import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.library.items.ColorItem;
 import org.eclipse.smarthome.core.library.items.DimmerItem;
 import org.slf4j.Logger;
@@ -34,7 +34,11 @@ public class HomekitTaggedItem {
     private Logger logger = LoggerFactory.getLogger(HomekitTaggedItem.class);
     private final int id;
 
-    public HomekitTaggedItem(Item item, ItemRegistry itemRegistry) {
+    /**
+     * @param item the item
+     * @param rootGroupNames tests whether the group of the given name is tagged as a root device
+     */
+    public HomekitTaggedItem(Item item, Predicate<String> rootGroupNames) {
         this.item = item;
         for (String tag : item.getTags()) {
 
@@ -49,7 +53,7 @@ public class HomekitTaggedItem {
              * This matches items with tags that require a parent group like the "TargetTemperature" in
              * thermostats
              */
-            if (isMemberOfRootGroup(item, itemRegistry)) {
+            if (isMemberOfRootGroup(item, rootGroupNames)) {
                 homekitCharacteristicType = HomekitCharacteristicType.valueOfTag(tag);
             }
 
@@ -122,17 +126,26 @@ public class HomekitTaggedItem {
         return id;
     }
 
-    private boolean isMemberOfRootGroup(Item item, ItemRegistry itemRegistry) {
-        for (String groupName : item.getGroupNames()) {
-            Item groupItem = itemRegistry.get(groupName);
-            if (groupItem != null) {
-                for (String groupTag : groupItem.getTags()) {
-                    if (HomekitDeviceType.valueOfTag(groupTag) != null) {
-                        return true;
-                    }
+    /**
+     * Checks whether the item is a group tagged as a root device, so its members can be characteristics
+     */
+    public static boolean isRootGroup(Item groupItem) {
+        if (groupItem != null) {
+            for (String groupTag : groupItem.getTags()) {
+                if (HomekitDeviceType.valueOfTag(groupTag) != null) {
+                    return true;
                 }
             }
         }
         return false;
     }
+
+    private boolean isMemberOfRootGroup(Item item, Predicate<String> rootGroupNames) {
+        for (String groupName : item.getGroupNames()) {
+            if (rootGroupNames.test(groupName)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.eclipse.smarthome.core.items.StateChangeListener;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.io.hueemulation.internal.api.HueDevice;
+import org.openhab.io.hueemulation.internal.api.HueGroup;
+import org.openhab.io.hueemulation.internal.api.HueState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps track of all items with a supported tag, so requests don't need to scan the item registry. The JSON of each
+ * Hue device is serialized when the item is added or its state changes and the listings of all devices are
+ * concatenated from these fragments only after a change. Every change increments the version of the index, which is
+ * used as ETag of the listings.
+ *
+ * Tagged {@link GroupItem}s are additionally exposed as Hue groups of their tagged members, the implicit group "0"
+ * contains all devices.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class HueDeviceIndex implements ItemRegistryChangeListener, StateChangeListener {
+    private Logger logger = LoggerFactory.getLogger(HueDeviceIndex.class);
+
+    /**
+     * Id of the group of all devices
+     */
+    public static final String GROUP_ALL = "0";
+
+    private static final Set<String> SUPPORTED_TAGS = new HashSet<String>(
+            Arrays.asList("Switchable", "Lighting", "TargetTemperature"));
+
+    private Gson gson = new Gson();
+    private ItemRegistry itemRegistry;
+
+    private final Map<String, Entry> entries = new TreeMap<String, Entry>();
+    private final Map<String, GroupItem> groups = new TreeMap<String, GroupItem>();
+    // the version is based on the current time, so an ETag does not repeat after a restart
+    private long version = System.currentTimeMillis();
+    private String devicesJson;
+    private String deviceNamesJson;
+    private List<String> deviceNames;
+    private String groupsJson;
+
+    /**
+     * Starts tracking the items of the registry.
+     *
+     * @param itemRegistry
+     */
+    public synchronized void setItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = itemRegistry;
+        itemRegistry.addRegistryChangeListener(this);
+        for (Item item : itemRegistry.getItems()) {
+            added(item);
+        }
+    }
+
+    /**
+     * Stops tracking the items and clears the index.
+     */
+    public synchronized void stop() {
+        if (itemRegistry != null) {
+            itemRegistry.removeRegistryChangeListener(this);
+            itemRegistry = null;
+        }
+        clear();
+    }
+
+    @Override
+    public synchronized void added(Item item) {
+        if (!isTagged(item)) {
+            return;
+        }
+        Entry entry = new Entry(item);
+        Entry old = entries.put(item.getName(), entry);
+        if (old != null) {
+            removeStateChangeListener(old.item);
+        }
+        if (item instanceof GenericItem) {
+            ((GenericItem) item).addStateChangeListener(this);
+        }
+        if (item instanceof GroupItem) {
+            groups.put(item.getName(), (GroupItem) item);
+        }
+        logger.debug("Added Hue device {}", item.getName());
+        changed();
+    }
+
+    @Override
+    public synchronized void removed(Item item) {
+        Entry entry = entries.remove(item.getName());
+        if (entry != null) {
+            groups.remove(item.getName());
+            removeStateChangeListener(entry.item);
+            logger.debug("Removed Hue device {}", item.getName());
+            changed();
+        }
+    }
+
+    @Override
+    public synchronized void updated(Item oldItem, Item item) {
+        removed(oldItem);
+        added(item);
+    }
+
+    @Override
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
+        clear();
+        if (itemRegistry != null) {
+            for (Item item : itemRegistry.getItems()) {
+                added(item);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stateChanged(Item item, State oldState, State newState) {
+        Entry entry = entries.get(item.getName());
+        if (entry != null && entry.item == item) {
+            entry.update();
+            changed();
+        }
+    }
+
+    @Override
+    public void stateUpdated(Item item, State state) {
+        // only changes are relevant
+    }
+
+    /**
+     * Returns the version of the index, which changes whenever a device is added, removed or changes its state.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the JSON object of all devices keyed by item name.
+     */
+    public synchronized String getDevicesJson() {
+        if (devicesJson == null) {
+            StringBuilder sb = new StringBuilder("{");
+            for (Entry entry : entries.values()) {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append(entry.nameJson).append(':').append(entry.deviceJson);
+            }
+            devicesJson = sb.append('}').toString();
+        }
+        return devicesJson;
+    }
+
+    /**
+     * Returns the JSON object of all device labels keyed by item name.
+     */
+    public synchronized String getDeviceNamesJson() {
+        if (deviceNamesJson == null) {
+            StringBuilder sb = new StringBuilder("{");
+            for (Entry entry : entries.values()) {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append(entry.nameJson).append(':').append(entry.labelJson);
+            }
+            deviceNamesJson = sb.append('}').toString();
+        }
+        return deviceNamesJson;
+    }
+
+    /**
+     * Returns the item names of all devices.
+     */
+    public synchronized List<String> getDeviceNames() {
+        if (deviceNames == null) {
+            deviceNames = Collections.unmodifiableList(new ArrayList<String>(entries.keySet()));
+        }
+        return deviceNames;
+    }
+
+    /**
+     * Returns the JSON of the device or null, if the item is not a Hue device.
+     *
+     * @param name the item name
+     */
+    public synchronized String getDeviceJson(String name) {
+        Entry entry = entries.get(name);
+        return entry != null ? entry.deviceJson : null;
+    }
+
+    /**
+     * Returns the JSON object of all groups keyed by group id.
+     */
+    public synchronized String getGroupsJson() {
+        if (groupsJson == null) {
+            StringBuilder sb = new StringBuilder("{");
+            for (GroupItem group : groups.values()) {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append(gson.toJson(group.getName())).append(':').append(gson.toJson(toHueGroup(group)));
+            }
+            groupsJson = sb.append('}').toString();
+        }
+        return groupsJson;
+    }
+
+    /**
+     * Returns the JSON of the group or null, if there is no such group.
+     *
+     * @param id the group id, "0" for the group of all devices
+     */
+    public synchronized String getGroupJson(String id) {
+        if (GROUP_ALL.equals(id)) {
+            return gson.toJson(new HueGroup(GROUP_ALL, getDeviceNames().toArray(new String[0]), new HueState()));
+        }
+        GroupItem group = groups.get(id);
+        return group != null ? gson.toJson(toHueGroup(group)) : null;
+    }
+
+    /**
+     * Returns the items of all devices in the group or null, if there is no such group.
+     *
+     * @param id the group id, "0" for the group of all devices
+     */
+    public synchronized List<Item> getGroupDevices(String id) {
+        List<Item> items = new ArrayList<Item>();
+        if (GROUP_ALL.equals(id)) {
+            for (Entry entry : entries.values()) {
+                items.add(entry.item);
+            }
+            return items;
+        }
+        GroupItem group = groups.get(id);
+        if (group == null) {
+            return null;
+        }
+        for (Item member : group.getAllMembers()) {
+            if (entries.containsKey(member.getName())) {
+                items.add(member);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Converts an Item to a HueDevice
+     *
+     * @param item
+     * @return
+     *         HueDevice
+     */
+    public static HueDevice itemToDevice(Item item) {
+        State itemState = item.getState();
+        HueState hueState;
+        if (itemState instanceof HSBType) {
+            HSBType color = (HSBType) itemState;
+            hueState = new HueState(color);
+        } else if (itemState instanceof DecimalType) {
+            short bri = (short) ((((DecimalType) itemState).intValue() * 255) / 100);
+            hueState = new HueState(bri);
+        } else if (itemState instanceof OnOffType) {
+            short bri = (short) (((OnOffType) itemState) == OnOffType.ON ? 255 : 0);
+            hueState = new HueState(bri);
+        } else {
+            hueState = new HueState((short) 0);
+        }
+
+        HueDevice d = new HueDevice(hueState, item.getLabel(), item.getName());
+        return d;
+    }
+
+    /**
+     * Converts a GroupItem to a HueGroup of its tagged members
+     */
+    private HueGroup toHueGroup(GroupItem group) {
+        List<Item> members = getGroupDevices(group.getName());
+        String[] lights = new String[members.size()];
+        for (int i = 0; i < lights.length; i++) {
+            lights[i] = members.get(i).getName();
+        }
+        return new HueGroup(group.getLabel(), lights, itemToDevice(group).state);
+    }
+
+    /**
+     * Checks if the item has one of our supported tags
+     *
+     * @param item
+     * @return
+     */
+    private boolean isTagged(Item item) {
+        for (String tag : item.getTags()) {
+            if (SUPPORTED_TAGS.contains(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void clear() {
+        for (Entry entry : entries.values()) {
+            removeStateChangeListener(entry.item);
+        }
+        entries.clear();
+        groups.clear();
+        changed();
+    }
+
+    private void removeStateChangeListener(Item item) {
+        if (item instanceof GenericItem) {
+            ((GenericItem) item).removeStateChangeListener(this);
+        }
+    }
+
+    private void changed() {
+        version++;
+        devicesJson = null;
+        deviceNamesJson = null;
+        deviceNames = null;
+        groupsJson = null;
+    }
+
+    /**
+     * A tagged item with the serialized JSON fragments of its Hue device.
+     */
+    private class Entry {
+        private final Item item;
+        private final String nameJson;
+        private final String labelJson;
+        private String deviceJson;
+
+        public Entry(Item item) {
+            this.item = item;
+            this.nameJson = gson.toJson(item.getName());
+            this.labelJson = gson.toJson(item.getLabel());
+            update();
+        }
+
+        public void update() {
+            deviceJson = gson.toJson(itemToDevice(item));
+        }
+    }
+}
@@ -14,43 +14,43 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.InetAddress;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Dictionary;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
-import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
-import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.openhab.io.hueemulation.internal.api.HueCreateUser;
-import org.openhab.io.hueemulation.internal.api.HueDataStore;
-import org.openhab.io.hueemulation.internal.api.HueDevice;
 import org.openhab.io.hueemulation.internal.api.HueErrorResponse;
-import org.openhab.io.hueemulation.internal.api.HueGroup;
 import org.openhab.io.hueemulation.internal.api.HueState;
+import org.ops4j.pax.web.service.WebContainer;
 import org.osgi.service.component.ComponentContext;
+import org.osgi.service.http.HttpContext;
 import org.osgi.service.http.HttpService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,29 +76,38 @@ public class HueEmulationServlet extends HttpServlet {
     private static final String CHARSET = "utf-8";
     private static final String NEW_CLIENT_RESP = "[{\"success\":{\"username\": \"%s\"}}]";
     private static final String STATE_RESP = "[{\"success\":{\"/lights/%s/state/on\":%s}}]";
+    private static final String ACTION_RESP = "[{\"success\":{\"/groups/%s/action/on\":%s}}]";
+    private static final String THREADPOOL_NAME = "hueemulation";
     private static final File USER_FILE = new File(
             ConfigConstants.getUserDataFolder() + File.separator + "hueemulation" + File.separator + "usernames");
     private static final File UDN_FILE = new File(
             ConfigConstants.getUserDataFolder() + File.separator + "hueemulation" + File.separator + "udn");
 
-    private static final String[] SUPPORTED_TAGS = new String[] { "Switchable", "Lighting", "TargetTemperature" };
-
     private Gson gson = new Gson();
     private HttpService httpService;
     private ItemRegistry itemRegistry;
     private EventPublisher eventPublisher;
+    private final HueDeviceIndex deviceIndex = new HueDeviceIndex();
+    private final ExecutorService executor = ThreadPoolManager.getPool(THREADPOOL_NAME);
     private HueEmulationUpnpServer disco;
     private String udn;
     private String xmlDoc;
     private CopyOnWriteArrayList<String> userNames = new CopyOnWriteArrayList<String>();
 
     private boolean pairingEnabled = false;
+    private volatile boolean syncFallbackLogged = false;
 
     protected void activate(Map<String, Object> config) {
         modified(config);
         try {
             Dictionary<String, String> servletParams = new Hashtable<String, String>();
-            httpService.registerServlet(PATH, this, servletParams, httpService.createDefaultHttpContext());
+            HttpContext httpContext = httpService.createDefaultHttpContext();
+            if (httpService instanceof WebContainer) {
+                // the plain HttpService registers servlets without support for asynchronous requests
+                ((WebContainer) httpService).registerServlet(PATH, this, servletParams, null, true, httpContext);
+            } else {
+                httpService.registerServlet(PATH, this, servletParams, httpContext);
+            }
             if (USER_FILE.exists()) {
                 FileInputStream fis = null;
                 try {
@@ -155,9 +164,11 @@ public class HueEmulationServlet extends HttpServlet {
 
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
+        deviceIndex.setItemRegistry(itemRegistry);
     }
 
     protected void unsetItemRegistry(ItemRegistry itemRegistry) {
+        deviceIndex.stop();
         this.itemRegistry = null;
     }
 
@@ -227,6 +238,7 @@ public class HueEmulationServlet extends HttpServlet {
                 apiDataStore(req, resp);
             } else {
                 String function = pathParts[1];
+                final String id = pathParts.length > 2 ? pathParts[2] : null;
                 if ("lights".equals(function)) {
                     switch (pathParts.length) {
                         case 2:
@@ -239,13 +251,19 @@ public class HueEmulationServlet extends HttpServlet {
                             /**
                              * /api/{username}/lights/{id}
                              */
-                            apiLight(pathParts[2], req, resp);
+                            apiLight(id, req, resp);
                             break;
                         case 4:
                             /**
                              * /api/{username}/lights/{id}/state
                              */
-                            apiState(pathParts[2], req, resp);
+                            executeAsync(req, resp, new ApiCall() {
+                                @Override
+                                public void execute(HttpServletRequest req, HttpServletResponse resp)
+                                        throws IOException {
+                                    apiState(id, req, resp);
+                                }
+                            });
                             break;
                         default:
                             break;
@@ -254,16 +272,28 @@ public class HueEmulationServlet extends HttpServlet {
                     switch (pathParts.length) {
                         case 2:
                             /**
-                             * /api/{username}/group
+                             * /api/{username}/groups
                              */
-                            emptyResponse(req, resp);
+                            apiGroups(req, resp);
                             break;
                         case 3:
                             /**
-                             * /api/{username}/group/{id}
+                             * /api/{username}/groups/{id}
+                             */
+                            apiGroup(id, req, resp);
+                            break;
+                        case 4:
+                            /**
+                             * /api/{username}/groups/{id}/action
                              */
-                            if ("0".equals(pathParts[2])) {
-                                apiGroupZero(req, resp);
+                            if ("action".equals(pathParts[3])) {
+                                executeAsync(req, resp, new ApiCall() {
+                                    @Override
+                                    public void execute(HttpServletRequest req, HttpServletResponse resp)
+                                            throws IOException {
+                                        apiGroupAction(id, req, resp);
+                                    }
+                                });
                             }
                             break;
                         default:
@@ -293,30 +323,8 @@ public class HueEmulationServlet extends HttpServlet {
             // will throw exception if not found
             Item item = itemRegistry.getItem(id);
             HueState state = gson.fromJson(req.getReader(), HueState.class);
-            HSBType hsb = state.toHSBType();
             logger.debug("HuState " + state);
-            logger.debug("HSBType " + hsb);
-            Command command = null;
-            if (hsb.getBrightness().intValue() > 0) {
-                // if state is on then send HSB, Brightness or ON
-                if (item.getAcceptedCommandTypes().contains(HSBType.class)) {
-                    command = hsb;
-                } else {
-                    // try and set the brightness level first
-                    command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), hsb.getBrightness().toString());
-                    if (command == null) {
-                        // if the item does not accept a number or String type, try ON
-                        command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), "ON");
-                    }
-                }
-            } else {
-                // if state is off, then send 0 or 0FF
-                command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), "0");
-                if (command == null) {
-                    command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), "OFF");
-                }
-            }
-
+            Command command = toCommand(item, state);
             if (command != null) {
                 logger.debug("sending {} to {}", command, id);
                 eventPublisher.post(ItemEventFactory.createCommandEvent(id, command));
@@ -344,9 +352,13 @@ public class HueEmulationServlet extends HttpServlet {
      */
     private void apiLight(String id, HttpServletRequest req, HttpServletResponse resp) throws IOException {
         try {
-            Item item = itemRegistry.getItem(id);
+            String json = deviceIndex.getDeviceJson(id);
+            if (json == null) {
+                // untagged items are not indexed
+                json = gson.toJson(HueDeviceIndex.itemToDevice(itemRegistry.getItem(id)));
+            }
             PrintWriter out = resp.getWriter();
-            out.write(gson.toJson(itemToDevice(item)));
+            out.write(json);
             out.close();
         } catch (ItemNotFoundException e) {
             logger.debug("Item not found: " + id);
@@ -362,23 +374,98 @@ public class HueEmulationServlet extends HttpServlet {
      * @throws IOException
      */
     public void apiLights(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (isNotModified(req, resp)) {
+            return;
+        }
         PrintWriter out = resp.getWriter();
-        out.write(gson.toJson(getHueDeviceNames()));
+        out.write(deviceIndex.getDeviceNamesJson());
         out.close();
     }
 
     /**
-     * Hue API call to get a listing of Group 0
+     * Hue API call to get a listing of all groups
      *
      * @param req
      * @param resp
      * @throws IOException
      */
-    public void apiGroupZero(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    public void apiGroups(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (isNotModified(req, resp)) {
+            return;
+        }
         PrintWriter out = resp.getWriter();
-        String[] lights = getHueDeviceNames().keySet().toArray(new String[0]);
-        HueState action = new HueState();
-        out.write(gson.toJson(new HueGroup("0", lights, action)));
+        out.write(deviceIndex.getGroupsJson());
+        out.close();
+    }
+
+    /**
+     * Hue API call to get a single group, group 0 contains all lights
+     *
+     * @param id
+     * @param req
+     * @param resp
+     * @throws IOException
+     */
+    public void apiGroup(String id, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String json = deviceIndex.getGroupJson(id);
+        if (json == null) {
+            logger.debug("Group not found: {}", id);
+            apiServerError(req, resp, HueErrorResponse.NOT_AVAILABLE, "Group not found " + id);
+            return;
+        }
+        PrintWriter out = resp.getWriter();
+        out.write(json);
+        out.close();
+    }
+
+    /**
+     * Hue API call to set the state of all lights of a group. The commands for all members are created first and
+     * then posted together. Commands for group items are forwarded to their members, so members of a group item
+     * which receives the command are skipped.
+     *
+     * @param id
+     * @param req
+     * @param resp
+     * @throws IOException
+     */
+    private void apiGroupAction(String id, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!req.getMethod().equals(METHOD_PUT)) {
+            apiServerError(req, resp, HueErrorResponse.METHOD_NOT_AVAILABLE, "Only PUT allowed for this resource");
+            return;
+        }
+        List<Item> items = deviceIndex.getGroupDevices(id);
+        if (items == null) {
+            logger.debug("Group not found: {}", id);
+            apiServerError(req, resp, HueErrorResponse.NOT_AVAILABLE, "The Hue group could not be found");
+            return;
+        }
+        HueState state = gson.fromJson(req.getReader(), HueState.class);
+        logger.debug("HuState " + state);
+        Map<String, Command> commands = new LinkedHashMap<String, Command>();
+        Set<String> forwarded = new HashSet<String>();
+        for (Item item : items) {
+            Command command = toCommand(item, state);
+            if (command != null) {
+                commands.put(item.getName(), command);
+                if (item instanceof GroupItem) {
+                    addMemberNames((GroupItem) item, forwarded);
+                }
+            } else {
+                logger.debug("Item {} does not accept Decimal, ON/OFF or String types", item.getName());
+            }
+        }
+        List<Event> events = new ArrayList<Event>(commands.size());
+        for (Map.Entry<String, Command> command : commands.entrySet()) {
+            if (!forwarded.contains(command.getKey())) {
+                events.add(ItemEventFactory.createCommandEvent(command.getKey(), command.getValue()));
+            }
+        }
+        logger.debug("sending {} commands to group {}", events.size(), id);
+        for (Event event : events) {
+            eventPublisher.post(event);
+        }
+        PrintWriter out = resp.getWriter();
+        out.write(String.format(ACTION_RESP, id, String.valueOf(state.on)));
         out.close();
     }
 
@@ -390,10 +477,13 @@ public class HueEmulationServlet extends HttpServlet {
      * @throws IOException
      */
     public void apiDataStore(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (isNotModified(req, resp)) {
+            return;
+        }
         PrintWriter out = resp.getWriter();
-        HueDataStore ds = new HueDataStore();
-        ds.lights = getHueDevices();
-        out.write(gson.toJson(ds));
+        out.write("{\"lights\":");
+        out.write(deviceIndex.getDevicesJson());
+        out.write("}");
     }
 
     /**
@@ -476,84 +566,102 @@ public class HueEmulationServlet extends HttpServlet {
     }
 
     /**
-     * Returns a map of all our items that have voice tags.
+     * Converts the requested Hue state to a command accepted by the item
      *
-     * @param username
+     * @param item
+     * @param state
      * @return
-     *         Map <item name, HueDevice>
+     *         the command or null if the item accepts none of the possible commands
      */
-    private Map<String, HueDevice> getHueDevices() {
-        Collection<Item> items = getTaggedItems();
-        Map<String, HueDevice> devices = new HashMap<String, HueDevice>();
-        Iterator<Item> it = items.iterator();
-        while (it.hasNext()) {
-            Item item = it.next();
-            devices.put(item.getName(), itemToDevice(item));
+    private Command toCommand(Item item, HueState state) {
+        HSBType hsb = state.toHSBType();
+        logger.debug("HSBType " + hsb);
+        Command command = null;
+        if (hsb.getBrightness().intValue() > 0) {
+            // if state is on then send HSB, Brightness or ON
+            if (item.getAcceptedCommandTypes().contains(HSBType.class)) {
+                command = hsb;
+            } else {
+                // try and set the brightness level first
+                command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), hsb.getBrightness().toString());
+                if (command == null) {
+                    // if the item does not accept a number or String type, try ON
+                    command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), "ON");
+                }
+            }
+        } else {
+            // if state is off, then send 0 or 0FF
+            command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), "0");
+            if (command == null) {
+                command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), "OFF");
+            }
         }
-        return devices;
+        return command;
     }
 
     /**
-     * Returns the item name and voice name of each item
-     *
-     * @param username
-     * @return
-     *         Map<item name, item voice tag>
+     * Adds the names of all members of the group, including nested groups and their members
      */
-    public Map<String, String> getHueDeviceNames() {
-        Collection<Item> items = getTaggedItems();
-        Map<String, String> devices = new HashMap<String, String>();
-        Iterator<Item> it = items.iterator();
-        while (it.hasNext()) {
-            Item item = it.next();
-            devices.put(item.getName(), item.getLabel());
+    private void addMemberNames(GroupItem group, Set<String> names) {
+        for (Item member : group.getMembers()) {
+            if (names.add(member.getName()) && member instanceof GroupItem) {
+                addMemberNames((GroupItem) member, names);
+            }
         }
-        return devices;
     }
 
     /**
-     * Converts an Item to a HueDevice
+     * Executes the API call on our thread pool using an asynchronous request, so slow command paths don't block the
+     * HTTP server threads. Falls back to executing the call directly, if the container does not support asynchronous
+     * requests for this servlet, which is logged once.
      *
-     * @param item
-     * @return
-     *         HueDevice
+     * @param req
+     * @param resp
+     * @param call
+     * @throws IOException
      */
-    private HueDevice itemToDevice(Item item) {
-        State itemState = item.getState();
-        HueState hueState;
-        if (itemState instanceof HSBType) {
-            HSBType color = (HSBType) itemState;
-            hueState = new HueState(color);
-        } else if (itemState instanceof DecimalType) {
-            short bri = (short) ((((DecimalType) itemState).intValue() * 255) / 100);
-            hueState = new HueState(bri);
-        } else if (itemState instanceof OnOffType) {
-            short bri = (short) (((OnOffType) itemState) == OnOffType.ON ? 255 : 0);
-            hueState = new HueState(bri);
-        } else {
-            hueState = new HueState((short) 0);
+    private void executeAsync(HttpServletRequest req, HttpServletResponse resp, final ApiCall call)
+            throws IOException {
+        if (!req.isAsyncSupported()) {
+            if (!syncFallbackLogged) {
+                syncFallbackLogged = true;
+                logger.info("Asynchronous requests are not supported, Hue API calls are handled by the HTTP threads");
+            }
+            call.execute(req, resp);
+            return;
         }
-
-        HueDevice d = new HueDevice(hueState, item.getLabel(), item.getName());
-        return d;
+        final AsyncContext context = req.startAsync();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    call.execute((HttpServletRequest) context.getRequest(),
+                            (HttpServletResponse) context.getResponse());
+                } catch (Exception e) {
+                    logger.warn("Could not process Hue API request: {}", e.getMessage(), e);
+                } finally {
+                    context.complete();
+                }
+            }
+        });
     }
 
     /**
-     * Gets all items that match our tag
+     * Sets the ETag of the current version of our devices and checks if the client already knows this version
      *
+     * @param req
+     * @param resp
      * @return
+     *         true if the response has been completed with 304 Not Modified
      */
-    private Collection<Item> getTaggedItems() {
-        Collection<Item> items = new LinkedList<Item>();
-        for (Item item : itemRegistry.getItems()) {
-            for (String tag : item.getTags()) {
-                if (ArrayUtils.contains(SUPPORTED_TAGS, tag)) {
-                    items.add(item);
-                    break;
-                }
-            }
+    private boolean isNotModified(HttpServletRequest req, HttpServletResponse resp) {
+        String etag = "\"" + Long.toHexString(deviceIndex.getVersion()) + "\"";
+        resp.setHeader("ETag", etag);
+        if (etag.equals(req.getHeader("If-None-Match"))) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
         }
-        return items;
+        return false;
     }
 
     /**
@@ -636,4 +744,11 @@ public class HueEmulationServlet extends HttpServlet {
     public boolean getPairingEnabled() {
         return pairingEnabled;
     }
+
+    /**
+     * A Hue API call, which may be executed asynchronously
+     */
+    private interface ApiCall {
+        void execute(HttpServletRequest req, HttpServletResponse resp) throws IOException;
+    }
 }
@@ -107,13 +107,14 @@ public class ImperiHomeApiServlet extends HttpServlet {
         modified(config);
 
         systemHandler = new SystemHandler(imperiHomeConfig);
-        deviceRegistry = new DeviceRegistry();
+        deviceRegistry = new DeviceRegistry(gson);
         actionRegistry = new ActionRegistry(eventPublisher);
         itemProcessor = new ItemProcessor(itemRegistry, deviceRegistry, actionRegistry, imperiHomeConfig);
         roomListHandler = new RoomListHandler(deviceRegistry);
         devicesListHandler = new DevicesListHandler(deviceRegistry);
         deviceActionHandler = new DeviceActionHandler(deviceRegistry);
-        deviceHistoryHandler = new DeviceHistoryHandler(deviceRegistry, persistenceServiceRegistry);
+        deviceHistoryHandler = new DeviceHistoryHandler(deviceRegistry, persistenceServiceRegistry,
+                imperiHomeConfig);
 
         try {
             Dictionary<String, String> servletParams = new Hashtable<String, String>();
@@ -201,11 +202,21 @@ public class ImperiHomeApiServlet extends HttpServlet {
         if (URL_PATTERN_ROOMS.matcher(path).matches()) {
             response = roomListHandler.handle(req);
         } else if (URL_PATTERN_DEVICES.matcher(path).matches()) {
-            response = devicesListHandler.handle(req);
+            // Device list is pre-serialized
+            String devices = devicesListHandler.handle(req, resp);
+            if (devices != null) {
+                resp.getWriter().write(devices);
+            }
+            return;
         } else if (actionMatcher.matches()) {
             deviceActionHandler.handle(req, actionMatcher);
         } else if (historyMatcher.matches()) {
-            response = deviceHistoryHandler.handle(req, historyMatcher);
+            // History is serialized while querying persistence
+            String history = deviceHistoryHandler.handle(req, historyMatcher);
+            if (history != null) {
+                resp.getWriter().write(history);
+                return;
+            }
         } else if (URL_PATTERN_SYSTEM.matcher(path).matches()) {
             response = systemHandler.handle(req);
         } else {
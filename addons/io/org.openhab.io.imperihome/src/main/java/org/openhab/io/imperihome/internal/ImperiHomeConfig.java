@@ -11,6 +11,7 @@ package org.openhab.io.imperihome.internal;
 import java.util.Map;
 
 import org.eclipse.smarthome.core.id.InstanceUUID;
+import org.openhab.io.imperihome.internal.io.HistoryWriter.Aggregation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,10 +22,14 @@ import org.slf4j.LoggerFactory;
  */
 public class ImperiHomeConfig {
 
+    private static final int DEFAULT_HISTORY_POINTS = 500;
+
     private final Logger logger = LoggerFactory.getLogger(ImperiHomeConfig.class);
 
     private String systemId;
     private String rootUrl;
+    private int historyPoints = DEFAULT_HISTORY_POINTS;
+    private Aggregation historyAggregation = Aggregation.MINMAX;
 
     public void update(Map<String, Object> config) {
         Object cSystemId = config.get("system.id");
@@ -42,6 +47,26 @@ public class ImperiHomeConfig {
             }
         }
 
+        historyPoints = DEFAULT_HISTORY_POINTS;
+        Object historyPointsObj = config.get("history.points");
+        if (historyPointsObj != null) {
+            try {
+                historyPoints = Math.max(2, Integer.parseInt(historyPointsObj.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid history.points value: {}", historyPointsObj);
+            }
+        }
+
+        historyAggregation = Aggregation.MINMAX;
+        Object historyAggregationObj = config.get("history.aggregation");
+        if (historyAggregationObj != null) {
+            try {
+                historyAggregation = Aggregation.valueOf(historyAggregationObj.toString().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid history.aggregation value: {}", historyAggregationObj);
+            }
+        }
+
         logger.info("Configuration updated");
     }
 
@@ -53,4 +78,12 @@ public class ImperiHomeConfig {
         return rootUrl;
     }
 
+    public int getHistoryPoints() {
+        return historyPoints;
+    }
+
+    public Aggregation getHistoryAggregation() {
+        return historyAggregation;
+    }
+
 }
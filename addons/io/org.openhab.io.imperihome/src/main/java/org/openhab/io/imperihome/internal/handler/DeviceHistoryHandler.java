@@ -8,50 +8,74 @@
  */
 package org.openhab.io.imperihome.internal.handler;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
-import org.openhab.io.imperihome.internal.model.HistoryItem;
-import org.openhab.io.imperihome.internal.model.HistoryList;
+import org.openhab.io.imperihome.internal.ImperiHomeConfig;
+import org.openhab.io.imperihome.internal.io.HistoryWriter;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Device history request handler.
+ * Device history request handler. The history is written as JSON while iterating the persisted values, downsampled to
+ * the configured number of points. Results are cached for a short time, so multiple clients requesting the same graph
+ * only cause a single persistence query.
  *
  * @author Pepijn de Geus - Initial contribution
  */
 public class DeviceHistoryHandler {
 
     private static final String CHARSET = "UTF-8";
+    private static final int CACHE_SIZE = 32;
+    private static final long CACHE_TTL = 60 * 1000;
+    private static final long MINUTE = 60 * 1000;
 
     private final Logger logger = LoggerFactory.getLogger(DeviceHistoryHandler.class);
 
     private final DeviceRegistry deviceRegistry;
     private final PersistenceServiceRegistry persistenceServiceRegistry;
+    private final ImperiHomeConfig config;
 
-    public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry) {
+    // Guarded by itself
+    private final Map<String, CachedHistory> cache = new LinkedHashMap<String, CachedHistory>(CACHE_SIZE, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedHistory> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry,
+            ImperiHomeConfig config) {
         this.deviceRegistry = deviceRegistry;
         this.persistenceServiceRegistry = persistenceServiceRegistry;
+        this.config = config;
     }
 
-    public HistoryList handle(HttpServletRequest req, Matcher urlMatcher) {
+    /**
+     * @return History JSON, or null if the history could not be retrieved.
+     */
+    public String handle(HttpServletRequest req, Matcher urlMatcher) {
         String deviceId, field;
         long start, end;
         try {
@@ -65,6 +89,22 @@ public class DeviceHistoryHandler {
 
         logger.debug("History request for device {}, field {}: {}-{}", deviceId, field, start, end);
 
+        int points = config.getHistoryPoints();
+        HistoryWriter.Aggregation aggregation = config.getHistoryAggregation();
+
+        // Each client sends its own current time, align the range to whole buckets of at least a minute, so the
+        // requests of several clients for the same graph share one cache entry
+        long bucket = Math.max(1, Math.round((double) (end - start) / points / MINUTE)) * MINUTE;
+        start = start / bucket * bucket;
+        end = (end + bucket - 1) / bucket * bucket;
+
+        String cacheKey = deviceId + '/' + field + '/' + start + '/' + end + '/' + points + '/' + aggregation;
+        String cached = getCached(cacheKey);
+        if (cached != null) {
+            logger.debug("Serving history from cache");
+            return cached;
+        }
+
         AbstractDevice device = deviceRegistry.getDevice(deviceId);
         if (device == null) {
             logger.warn("Received history request for unknown device: {}", urlMatcher.group(0));
@@ -81,39 +121,74 @@ public class DeviceHistoryHandler {
             return null;
         }
 
-        return serveHistory(device, (QueryablePersistenceService) persistence, start, end);
+        String history = serveHistory(device, (QueryablePersistenceService) persistence, start, end, points,
+                aggregation);
+        synchronized (cache) {
+            cache.put(cacheKey, new CachedHistory(history));
+        }
+        return history;
+    }
+
+    private String getCached(String cacheKey) {
+        synchronized (cache) {
+            CachedHistory cached = cache.get(cacheKey);
+            if (cached == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - cached.created > CACHE_TTL) {
+                cache.remove(cacheKey);
+                return null;
+            }
+            return cached.json;
+        }
     }
 
-    private HistoryList serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
-            long end) {
+    private String serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start, long end,
+            int points, HistoryWriter.Aggregation aggregation) {
         logger.info("Querying persistence for history of Item {}, from {} to {}", device.getItemName(), start, end);
 
         FilterCriteria criteria = new FilterCriteria().setItemName(device.getItemName()).setBeginDate(new Date(start))
-                .setEndDate(new Date(end));
+                .setEndDate(new Date(end)).setOrdering(Ordering.ASCENDING);
 
-        List<HistoryItem> resultItems = new LinkedList<>();
-        Iterable<HistoricItem> historicItems = persistence.query(criteria);
+        try {
+            StringWriter json = new StringWriter();
+            HistoryWriter writer = new HistoryWriter(json, start, end, points, aggregation);
 
-        Iterator<HistoricItem> iterator = historicItems.iterator();
-        if (!iterator.hasNext()) {
-            logger.info("Persistence returned no results for history query");
-        } else {
-            while (iterator.hasNext()) {
-                HistoricItem historicItem = iterator.next();
+            int results = 0;
+            int values = 0;
+            for (HistoricItem historicItem : persistence.query(criteria)) {
+                results++;
                 State state = historicItem.getState();
                 if (state instanceof DecimalType) {
-                    Number value = ((DecimalType) state).toBigDecimal();
-                    resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
+                    writer.add(historicItem.getTimestamp().getTime(), ((DecimalType) state).doubleValue());
+                    values++;
                 }
             }
+            int written = writer.close();
 
-            if (resultItems.isEmpty()) {
+            if (results == 0) {
+                logger.info("Persistence returned no results for history query");
+            } else if (values == 0) {
                 logger.warn(
                         "Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+            } else {
+                logger.debug("Downsampled {} history values to {} points", values, written);
             }
+
+            return json.toString();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write history", e);
         }
+    }
 
-        return new HistoryList(resultItems);
+    private static class CachedHistory {
+        private final String json;
+        private final long created;
+
+        public CachedHistory(String json) {
+            this.json = json;
+            this.created = System.currentTimeMillis();
+        }
     }
 
 }
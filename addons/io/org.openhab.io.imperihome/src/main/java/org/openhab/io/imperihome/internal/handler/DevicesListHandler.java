@@ -8,23 +8,25 @@
  */
 package org.openhab.io.imperihome.internal.handler;
 
-import java.util.Collection;
-
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
-import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
-import org.openhab.io.imperihome.internal.model.device.DeviceList;
+import org.openhab.io.imperihome.internal.processor.DeviceListSnapshot;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Device list request handler.
+ * Device list request handler. Serves the pre-serialized device list snapshot from the {@link DeviceRegistry}. The
+ * snapshot version is sent as ETag; clients passing a known version as 'since' parameter only receive the devices
+ * changed since that version.
  *
  * @author Pepijn de Geus - Initial contribution
  */
 public class DevicesListHandler {
 
+    private static final String PARAM_SINCE = "since";
+
     private final Logger logger = LoggerFactory.getLogger(DevicesListHandler.class);
 
     private final DeviceRegistry deviceRegistry;
@@ -33,18 +35,34 @@ public class DevicesListHandler {
         this.deviceRegistry = deviceRegistry;
     }
 
-    public DeviceList handle(HttpServletRequest req) {
-        DeviceList response = new DeviceList();
+    /**
+     * @return Device list JSON, or null if the client already has the current version.
+     */
+    public String handle(HttpServletRequest req, HttpServletResponse resp) {
+        DeviceListSnapshot snapshot = deviceRegistry.getSnapshot();
 
-        Collection<AbstractDevice> devices = deviceRegistry.getDevices().values();
-        for (AbstractDevice device : devices) {
-            device.updateParams();
+        String etag = "\"" + snapshot.getVersion() + "\"";
+        resp.setHeader("ETag", etag);
+        if (etag.equals(req.getHeader("If-None-Match"))) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
         }
 
-        response.setDevices(devices);
+        String since = req.getParameter(PARAM_SINCE);
+        if (since != null) {
+            try {
+                String changes = snapshot.getChangesJson(Long.parseLong(since));
+                if (changes != null) {
+                    logger.debug("Device list changes since {}: {}", since, changes);
+                    return changes;
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Invalid device list version: {}", since);
+            }
+        }
 
-        logger.debug("Device list response: {}", response);
-        return response;
+        logger.debug("Device list response: {}", snapshot.getJson());
+        return snapshot.getJson();
     }
 
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes a history value list as JSON while the values are added. The requested period is divided into buckets and
+ * the values of each bucket are aggregated, so the number of written points is limited regardless of the number of
+ * persisted values. Values must be added in ascending date order.
+ *
+ * @author agent - Initial contribution
+ */
+public class HistoryWriter {
+
+    /**
+     * Aggregation of the values within a bucket.
+     */
+    public enum Aggregation {
+        /**
+         * Writes the minimum and maximum value of each bucket, so peaks remain visible.
+         */
+        MINMAX,
+
+        /**
+         * Writes the average value of each bucket.
+         */
+        AVERAGE
+    }
+
+    private final JsonWriter writer;
+    private final long start;
+    private final double bucketSize;
+    private final Aggregation aggregation;
+
+    private long bucket = -1;
+    private int bucketCount;
+    private double sum;
+    private long dateSum;
+    private long minDate;
+    private double min;
+    private long maxDate;
+    private double max;
+    private int points;
+
+    /**
+     * @param out Writer to write the JSON to.
+     * @param start Start of the requested period.
+     * @param end End of the requested period.
+     * @param maxPoints Maximum number of points to write.
+     * @param aggregation Aggregation of the values within a bucket.
+     */
+    public HistoryWriter(Writer out, long start, long end, int maxPoints, Aggregation aggregation)
+            throws IOException {
+        this.start = start;
+        this.aggregation = aggregation;
+
+        int buckets = Math.max(1, aggregation == Aggregation.MINMAX ? maxPoints / 2 : maxPoints);
+        bucketSize = Math.max(1.0, (double) (end - start) / buckets);
+
+        writer = new JsonWriter(out);
+        writer.beginObject().name("values").beginArray();
+    }
+
+    /**
+     * Adds a value, writing the aggregated values of the previous bucket if the value belongs to a new one.
+     */
+    public void add(long date, double value) throws IOException {
+        long valueBucket = Math.max(0, (long) ((date - start) / bucketSize));
+        if (valueBucket != bucket) {
+            writeBucket();
+            bucket = valueBucket;
+        }
+
+        if (bucketCount == 0 || value < min) {
+            min = value;
+            minDate = date;
+        }
+        if (bucketCount == 0 || value > max) {
+            max = value;
+            maxDate = date;
+        }
+        sum += value;
+        dateSum += date - start;
+        bucketCount++;
+    }
+
+    /**
+     * Writes the last bucket and closes the JSON document.
+     *
+     * @return Number of written points.
+     */
+    public int close() throws IOException {
+        writeBucket();
+        writer.endArray().endObject();
+        writer.flush();
+        return points;
+    }
+
+    private void writeBucket() throws IOException {
+        if (bucketCount == 0) {
+            return;
+        }
+
+        if (bucketCount == 1 || min == max) {
+            writePoint(minDate, min);
+        } else if (aggregation == Aggregation.AVERAGE) {
+            writePoint(start + dateSum / bucketCount, sum / bucketCount);
+        } else if (minDate < maxDate) {
+            writePoint(minDate, min);
+            writePoint(maxDate, max);
+        } else {
+            writePoint(maxDate, max);
+            writePoint(minDate, min);
+        }
+
+        bucketCount = 0;
+        sum = 0;
+        dateSum = 0;
+    }
+
+    private void writePoint(long date, double value) throws IOException {
+        writer.beginObject().name("date").value(date).name("value").value(value).endObject();
+        points++;
+    }
+
+}
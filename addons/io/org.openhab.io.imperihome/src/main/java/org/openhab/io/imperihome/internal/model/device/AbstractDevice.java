@@ -135,6 +135,10 @@ public abstract class AbstractDevice implements StateChangeListener {
     public void addParam(DeviceParam param) {
         logger.trace("Setting param for device {}: {}", this, param);
         params.set(param);
+
+        if (deviceRegistry != null) {
+            deviceRegistry.deviceChanged(this);
+        }
     }
 
     public Map<String, String> getLinks() {
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.processor;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable, pre-serialized state of the device list at a certain version. Besides the JSON of the full list, the
+ * snapshot keeps the version at which each device was last changed or removed, so the changes since an earlier version
+ * can be served as well.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceListSnapshot {
+
+    private final long baseVersion;
+    private final long version;
+    private final Map<String, String> deviceJson;
+    private final Map<String, Long> changedVersions;
+    private final Map<String, Long> removedVersions;
+    private final String json;
+
+    /**
+     * @param baseVersion First version of the device list, changes since older versions are unknown.
+     * @param version Version of the device list.
+     * @param deviceJson Serialized device by device ID.
+     * @param changedVersions Version of the last change by device ID.
+     * @param removedVersions Version of the removal by ID of removed devices.
+     */
+    public DeviceListSnapshot(long baseVersion, long version, Map<String, String> deviceJson,
+            Map<String, Long> changedVersions, Map<String, Long> removedVersions) {
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.deviceJson = Collections.unmodifiableMap(deviceJson);
+        this.changedVersions = Collections.unmodifiableMap(changedVersions);
+        this.removedVersions = Collections.unmodifiableMap(removedVersions);
+
+        StringBuilder sb = new StringBuilder("{\"devices\":[");
+        appendDevices(sb, Long.MIN_VALUE);
+        json = sb.append("]}").toString();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Device list JSON, as expected by ImperiHome.
+     */
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * Returns the devices which changed after the given version and the IDs of devices removed since then.
+     *
+     * @param since Version known to the client.
+     * @return JSON containing the current version, the changed devices and the removed device IDs, or null if the
+     *         version is not known to this snapshot.
+     */
+    public String getChangesJson(long since) {
+        if (since > version || since < baseVersion) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder("{\"version\":").append(version).append(",\"devices\":[");
+        appendDevices(sb, since);
+        sb.append("],\"removed\":[");
+        boolean first = true;
+        for (Map.Entry<String, Long> removed : removedVersions.entrySet()) {
+            if (removed.getValue() > since) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append('"').append(removed.getKey()).append('"');
+                first = false;
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    private void appendDevices(StringBuilder sb, long since) {
+        boolean first = true;
+        for (Map.Entry<String, String> device : deviceJson.entrySet()) {
+            if (changedVersions.get(device.getKey()) > since) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(device.getValue());
+                first = false;
+            }
+        }
+    }
+
+}
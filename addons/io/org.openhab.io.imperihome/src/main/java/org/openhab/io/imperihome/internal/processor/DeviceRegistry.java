@@ -8,19 +8,30 @@
  */
 package org.openhab.io.imperihome.internal.processor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.openhab.io.imperihome.internal.model.Room;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
 
+import com.google.gson.Gson;
+
 /**
  * The device registry stores created devices by ID.
+ * <p>
+ * It also keeps a pre-serialized {@link DeviceListSnapshot} of all devices. Devices report parameter changes through
+ * {@link #deviceChanged(AbstractDevice)}, only those devices (and devices linked to them) are serialized again when
+ * the next snapshot is requested. The snapshot version is only incremented if the JSON of a device actually changed.
  *
  * @author Pepijn de Geus - Initial contribution
  */
@@ -29,8 +40,31 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
     private final Map<String, AbstractDevice> devices;
     private Set<Room> rooms;
 
-    public DeviceRegistry() {
+    private final Gson gson;
+    private final List<AbstractDevice> linkedDevices = new CopyOnWriteArrayList<>();
+    private final Set<String> changedDevices = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    // Guarded by snapshotLock
+    private final Object snapshotLock = new Object();
+    private final Map<String, String> deviceJson = new LinkedHashMap<>();
+    private final Map<String, Long> changedVersions = new HashMap<>();
+    private final Map<String, Long> removedVersions = new HashMap<>();
+    private final long baseVersion;
+    private long version;
+    private DeviceListSnapshot snapshot;
+    private volatile Thread snapshotThread;
+
+    /**
+     * @param gson Gson instance used to serialize the devices.
+     */
+    public DeviceRegistry(Gson gson) {
         devices = new ConcurrentHashMap<>();
+        this.gson = gson;
+
+        // Versions are based on the current time, so they don't repeat after a restart
+        baseVersion = System.currentTimeMillis();
+        version = baseVersion;
+        snapshot = createSnapshot();
     }
 
     public AbstractDevice getDevice(String deviceId) {
@@ -54,29 +88,122 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
     }
 
     public void add(AbstractDevice device) {
-        devices.put(device.getId(), device);
+        device.setDeviceRegistry(this);
+        AbstractDevice previous = devices.put(device.getId(), device);
+        if (previous != null) {
+            linkedDevices.remove(previous);
+        }
+        if (!device.getLinks().isEmpty()) {
+            linkedDevices.add(device);
+        }
         updateRooms();
+        deviceChanged(device);
     }
 
     public AbstractDevice remove(String deviceId) {
         AbstractDevice removed = devices.remove(deviceId);
+        if (removed != null) {
+            linkedDevices.remove(removed);
+            changedDevices.add(deviceId);
+        }
         updateRooms();
         return removed;
     }
 
+    /**
+     * Marks the device as changed, so it is serialized again for the next snapshot. Devices linked to the given device
+     * are marked as well, as their parameters may depend on it.
+     *
+     * @param device The changed device.
+     */
+    public void deviceChanged(AbstractDevice device) {
+        if (Thread.currentThread() == snapshotThread) {
+            // parameters derived in updateParams() while creating the snapshot
+            return;
+        }
+        changedDevices.add(device.getId());
+        for (AbstractDevice linkedDevice : linkedDevices) {
+            if (linkedDevice.getLinks().containsValue(device.getItemName())) {
+                changedDevices.add(linkedDevice.getId());
+            }
+        }
+    }
+
+    /**
+     * Returns the current snapshot of the device list, serializing the devices that changed since the last snapshot.
+     *
+     * @return Immutable device list snapshot.
+     */
+    public DeviceListSnapshot getSnapshot() {
+        synchronized (snapshotLock) {
+            if (changedDevices.isEmpty()) {
+                return snapshot;
+            }
+
+            long newVersion = version + 1;
+            boolean changed;
+
+            snapshotThread = Thread.currentThread();
+            try {
+                changed = updateDeviceJson(newVersion);
+            } finally {
+                snapshotThread = null;
+            }
+
+            if (changed) {
+                version = newVersion;
+                snapshot = createSnapshot();
+            }
+            return snapshot;
+        }
+    }
+
+    private boolean updateDeviceJson(long newVersion) {
+        boolean changed = false;
+        for (String deviceId : new ArrayList<>(changedDevices)) {
+            changedDevices.remove(deviceId);
+
+            AbstractDevice device = devices.get(deviceId);
+            if (device == null) {
+                if (deviceJson.remove(deviceId) != null) {
+                    changedVersions.remove(deviceId);
+                    removedVersions.put(deviceId, newVersion);
+                    changed = true;
+                }
+                continue;
+            }
+
+            device.updateParams();
+            String json = gson.toJson(device);
+            if (!json.equals(deviceJson.put(deviceId, json))) {
+                changedVersions.put(deviceId, newVersion);
+                removedVersions.remove(deviceId);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public Iterator<AbstractDevice> iterator() {
         return devices.values().iterator();
     }
 
     public void clear() {
+        changedDevices.addAll(devices.keySet());
         devices.clear();
+        linkedDevices.clear();
 
         if (rooms != null) {
             rooms.clear();
         }
     }
 
+    private DeviceListSnapshot createSnapshot() {
+        return new DeviceListSnapshot(baseVersion, version, new LinkedHashMap<>(deviceJson),
+                new HashMap<>(changedVersions), new HashMap<>(removedVersions));
+    }
+
     private void updateRooms() {
         Set<Room> newRooms = new HashSet<>();
         for (AbstractDevice device : devices.values()) {
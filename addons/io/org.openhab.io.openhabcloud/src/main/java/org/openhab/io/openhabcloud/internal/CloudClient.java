@@ -13,12 +13,17 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.client.HttpClient;
@@ -33,7 +38,6 @@ import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
@@ -77,6 +81,14 @@ public class CloudClient {
      */
     private static final int HTTP_CLIENT_TIMEOUT = 30000;
 
+    /*
+     * This constant defines the maximum number of requests waiting for a free slot when the
+     * maximum number of concurrent requests is reached
+     */
+    private static final int MAX_QUEUED_REQUESTS = 200;
+
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
     /*
      * This variable holds base URL for the openHAB Cloud connections
      */
@@ -103,9 +115,32 @@ public class CloudClient {
     private HttpClient jettyClient;
 
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This map holds HTTP requests to local openHAB which are currently running
+     */
+    private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<Integer, Request>();
+
+    /*
+     * This map holds HTTP requests to local openHAB which wait for a free slot in their order of arrival,
+     * guarded by runningRequests
+     */
+    private final Map<Integer, ResponseListener> queuedRequests = new LinkedHashMap<Integer, ResponseListener>();
+
+    /*
+     * Maximum number of concurrent requests to local openHAB
+     */
+    private final int maxRequests;
+
+    /*
+     * Size up to which response content chunks are aggregated before they are sent to the openHAB Cloud
+     */
+    private final int chunkSize;
+
+    /*
+     * Maximum time in milliseconds response content is held back for aggregation
      */
-    private HashMap<Integer, Request> runningRequests;
+    private final int chunkDelay;
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD);
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -138,17 +173,23 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param maxRequests Maximum number of concurrent requests to local openHAB
+     * @param chunkSize Size up to which response content is aggregated, 0 to send each chunk as received
+     * @param chunkDelay Maximum time in milliseconds response content is held back for aggregation
      *
      */
     public CloudClient(String uuid, String secret, String baseURL, String localBaseUrl, boolean remoteAccessEnabled,
-            Set<String> exposedItems) {
+            Set<String> exposedItems, int maxRequests, int chunkSize, int chunkDelay) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<Integer, Request>();
+        // at least one request must be able to run, otherwise all requests would be queued forever
+        this.maxRequests = Math.max(1, maxRequests);
+        this.chunkSize = chunkSize;
+        this.chunkDelay = chunkDelay;
         jettyClient = new HttpClient();
         jettyClient.setMaxConnectionsPerDestination(HTTP_CLIENT_MAX_CONNECTIONS_PER_DEST);
         jettyClient.setConnectTimeout(HTTP_CLIENT_TIMEOUT);
@@ -256,9 +297,10 @@ public class CloudClient {
                 logger.error("Could not stop Jetty client: {}", e.getMessage());
             }
         }
-        // And clean up the list of running requests
-        if (runningRequests != null) {
+        // And clean up the list of running and queued requests
+        synchronized (runningRequests) {
             runningRequests.clear();
+            queuedRequests.clear();
         }
     }
 
@@ -344,11 +386,9 @@ public class CloudClient {
                 logger.error("Unsupported request method " + requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
-            runningRequests.put(requestId, request);
+            ResponseListener listener = new ResponseListener(requestId, request);
+            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener);
+            submitRequest(listener);
         } catch (JSONException e) {
             logger.error(e.getMessage());
         } catch (IOException e) {
@@ -358,6 +398,63 @@ public class CloudClient {
         }
     }
 
+    /**
+     * Sends the request to local openHAB, or queues it if the maximum number of concurrent requests is reached.
+     * Requests are rejected if the queue is full as well.
+     */
+    private void submitRequest(ResponseListener listener) {
+        int requestId = listener.mRequestId;
+        synchronized (runningRequests) {
+            if (runningRequests.size() >= maxRequests) {
+                if (queuedRequests.size() < MAX_QUEUED_REQUESTS) {
+                    logger.debug("Queueing request {}, {} requests running", requestId, runningRequests.size());
+                    queuedRequests.put(requestId, listener);
+                } else {
+                    logger.warn("Rejecting request {}, too many requests to local openHAB", requestId);
+                    sendResponseError(requestId, "openHAB is busy, too many concurrent requests");
+                }
+                return;
+            }
+            // Add it to the list of currently running requests to be able to cancel it if needed
+            runningRequests.put(requestId, listener.mRequest);
+        }
+        try {
+            listener.mRequest.send(listener);
+        } catch (RuntimeException e) {
+            logger.error("Error sending request {} to local openHAB: {}", requestId, e.getMessage());
+            sendResponseError(requestId, "openHAB connection error: " + e.getMessage());
+            requestFinished(requestId);
+        }
+    }
+
+    /**
+     * Removes a finished request and sends the next queued request, if any
+     */
+    private void requestFinished(int requestId) {
+        ResponseListener next;
+        synchronized (runningRequests) {
+            runningRequests.remove(requestId);
+            Iterator<ResponseListener> queueIterator = queuedRequests.values().iterator();
+            if (!queueIterator.hasNext() || runningRequests.size() >= maxRequests) {
+                return;
+            }
+            next = queueIterator.next();
+            queueIterator.remove();
+        }
+        submitRequest(next);
+    }
+
+    private void sendResponseError(int requestId, String statusText) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            responseJson.put("responseStatusText", statusText);
+            socket.emit("responseError", responseJson);
+        } catch (JSONException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
     private void setRequestHeaders(Request request, JSONObject requestHeadersJson) {
         @SuppressWarnings("unchecked")
         Iterator<String> headersIterator = requestHeadersJson.keys();
@@ -381,11 +478,14 @@ public class CloudClient {
         try {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
-            // Find and abort running request
-            if (runningRequests.containsKey(requestId)) {
-                Request request = runningRequests.get(requestId);
+            // Find and abort running request, or drop it if it is still queued
+            Request request;
+            synchronized (runningRequests) {
+                queuedRequests.remove(requestId);
+                request = runningRequests.get(requestId);
+            }
+            if (request != null) {
                 request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
             }
         } catch (JSONException e) {
             logger.error(e.getMessage());
@@ -483,25 +583,27 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send several item updates to openHAB Cloud at once. The openHAB Cloud accepts a single item per
+     * "itemupdate" message, so the updates are emitted back to back without waiting for each other.
      *
-     * @param itemName the name of the item
-     * @param itemState updated item state
+     * @param itemUpdates the updated item states by item name
      *
      */
-    public void sendItemUpdate(String itemName, String itemState) {
+    public void sendItemUpdates(Map<String, String> itemUpdates) {
         if (isConnected()) {
-            logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
-            JSONObject itemUpdateMessage = new JSONObject();
+            logger.debug("Sending {} item updates", itemUpdates.size());
             try {
-                itemUpdateMessage.put("itemName", itemName);
-                itemUpdateMessage.put("itemStatus", itemState);
-                socket.emit("itemupdate", itemUpdateMessage);
+                for (Map.Entry<String, String> itemUpdate : itemUpdates.entrySet()) {
+                    JSONObject itemUpdateMessage = new JSONObject();
+                    itemUpdateMessage.put("itemName", itemUpdate.getKey());
+                    itemUpdateMessage.put("itemStatus", itemUpdate.getValue());
+                    socket.emit("itemupdate", itemUpdateMessage);
+                }
             } catch (JSONException e) {
                 logger.error(e.getMessage());
             }
         } else {
-            logger.debug("No connection, Item update is not sent");
+            logger.debug("No connection, Item updates are not sent");
         }
     }
 
@@ -538,17 +640,28 @@ public class CloudClient {
     }
 
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * An internal class which forwards response headers and data back to the openHAB Cloud.
+     * Response content is aggregated up to chunkSize bytes or chunkDelay milliseconds. All messages
+     * of a response are emitted in order through a per-request queue, so responseFinished can never
+     * overtake the headers or content.
      */
     private class ResponseListener
             implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
+        private Request mRequest;
         private boolean mHeadersSent = false;
 
-        public ResponseListener(int requestId) {
+        // Guarded by this
+        private final Queue<Object[]> messages = new ArrayDeque<Object[]>();
+        private boolean draining;
+        private byte[] content;
+        private int contentLength;
+        private ScheduledFuture<?> flushTask;
+
+        public ResponseListener(int requestId, Request request) {
             mRequestId = requestId;
+            mRequest = request;
         }
 
         private JSONObject getJSONHeaders(HttpFields httpFields) {
@@ -565,60 +678,84 @@ public class CloudClient {
 
         @Override
         public void onComplete(Result result) {
-            // Remove this request from list of running requests
-            runningRequests.remove(mRequestId);
             if (result.isFailed() && result.getResponse().getStatus() != HttpStatus.OK_200) {
                 logger.warn("Jetty request {} failed: {}", mRequestId, result.getFailure().getMessage());
                 logger.warn(result.getRequestFailure().getMessage());
                 logger.warn(result.getResponseFailure().getMessage());
             }
 
-            /**
-             * What is this? In some cases where latency is very low the myopenhab service
-             * can receive responseFinished before the headers or content are received and I
-             * cannot find another workaround to prevent it.
-             */
-            ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD).schedule(new Runnable() {
-
-                @Override
-                public void run() {
-                    JSONObject responseJson = new JSONObject();
-                    try {
-                        responseJson.put("id", mRequestId);
-                        socket.emit("responseFinished", responseJson);
-                        logger.debug("Finished responding to request {}", mRequestId);
-                    } catch (JSONException e) {
-                        logger.error(e.getMessage());
-                    }
+            synchronized (this) {
+                flushContent();
+                JSONObject responseJson = new JSONObject();
+                try {
+                    responseJson.put("id", mRequestId);
+                    queue("responseFinished", responseJson);
+                } catch (JSONException e) {
+                    logger.error(e.getMessage());
                 }
-            }, 1, TimeUnit.MILLISECONDS);
+            }
+            drain();
+            logger.debug("Finished responding to request {}", mRequestId);
+
+            // Remove this request from list of running requests
+            requestFinished(mRequestId);
         }
 
         @Override
-        public synchronized void onFailure(Request request, Throwable failure) {
+        public void onFailure(Request request, Throwable failure) {
             logger.error(failure.getMessage());
-            JSONObject responseJson = new JSONObject();
-            try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("responseStatusText", "openHAB connection error: " + failure.getMessage());
-                socket.emit("responseError", responseJson);
-            } catch (JSONException e) {
-                logger.error(e.getMessage());
+            synchronized (this) {
+                flushContent();
+                JSONObject responseJson = new JSONObject();
+                try {
+                    responseJson.put("id", mRequestId);
+                    responseJson.put("responseStatusText", "openHAB connection error: " + failure.getMessage());
+                    queue("responseError", responseJson);
+                } catch (JSONException e) {
+                    logger.error(e.getMessage());
+                }
             }
+            drain();
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
-            logger.debug("Jetty received response content of size " + String.valueOf(content.remaining()));
-            JSONObject responseJson = new JSONObject();
-            try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
-                socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
-            } catch (JSONException e) {
-                logger.error(e.getMessage());
+        public void onContent(Response response, ByteBuffer buffer) {
+            logger.debug("Jetty received response content of size " + String.valueOf(buffer.remaining()));
+            synchronized (this) {
+                if (chunkSize <= 0) {
+                    content = new byte[buffer.remaining()];
+                    buffer.get(content);
+                    contentLength = content.length;
+                    flushContent();
+                } else {
+                    while (buffer.hasRemaining()) {
+                        if (content == null) {
+                            content = new byte[chunkSize];
+                        }
+                        int length = Math.min(buffer.remaining(), content.length - contentLength);
+                        buffer.get(content, contentLength, length);
+                        contentLength += length;
+                        if (contentLength == content.length) {
+                            flushContent();
+                        }
+                    }
+                    if (contentLength > 0 && chunkDelay <= 0) {
+                        flushContent();
+                    } else if (contentLength > 0 && flushTask == null) {
+                        flushTask = scheduler.schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                synchronized (ResponseListener.this) {
+                                    flushTask = null;
+                                    flushContent();
+                                }
+                                drain();
+                            }
+                        }, chunkDelay, TimeUnit.MILLISECONDS);
+                    }
+                }
             }
+            drain();
         }
 
         @Override
@@ -632,7 +769,10 @@ public class CloudClient {
                     responseJson.put("headers", getJSONHeaders(response.getHeaders()));
                     responseJson.put("responseStatusCode", response.getStatus());
                     responseJson.put("responseStatusText", "OK");
-                    socket.emit("responseHeader", responseJson);
+                    synchronized (this) {
+                        queue("responseHeader", responseJson);
+                    }
+                    drain();
                     logger.debug("Sent headers to request {}", mRequestId);
                     logger.debug(responseJson.toString());
                 } catch (JSONException e) {
@@ -642,5 +782,62 @@ public class CloudClient {
                 // We should not send headers for the second time...
             }
         }
+
+        /**
+         * Queues the aggregated content, must be called while holding the lock of this listener
+         */
+        private void flushContent() {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (contentLength == 0) {
+                return;
+            }
+            byte[] body = contentLength == content.length ? content : Arrays.copyOf(content, contentLength);
+            content = null;
+            contentLength = 0;
+
+            JSONObject responseJson = new JSONObject();
+            try {
+                responseJson.put("id", mRequestId);
+                // The byte array is sent as Socket.IO binary attachment
+                responseJson.put("body", body);
+                queue("responseContentBinary", responseJson);
+            } catch (JSONException e) {
+                logger.error(e.getMessage());
+            }
+        }
+
+        /**
+         * Queues a message, must be called while holding the lock of this listener
+         */
+        private void queue(String event, JSONObject message) {
+            messages.add(new Object[] { event, message });
+        }
+
+        /**
+         * Emits the queued messages in order, unless another thread is already doing so
+         */
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                Object[] message;
+                synchronized (this) {
+                    message = messages.poll();
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                socket.emit((String) message[0], message[1]);
+                logger.debug("Sent {} to request {}", message[0], mRequestId);
+            }
+        }
     }
 }
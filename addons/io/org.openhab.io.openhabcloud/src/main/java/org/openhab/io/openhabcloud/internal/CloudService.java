@@ -60,13 +60,22 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_MAX_REQUESTS = "maxRequests";
+    private static final String CFG_CHUNK_SIZE = "chunkSize";
+    private static final String CFG_CHUNK_DELAY = "chunkDelay";
+    private static final String CFG_UPDATE_INTERVAL = "updateInterval";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
+    private static final int DEFAULT_MAX_REQUESTS = 100;
+    private static final int DEFAULT_CHUNK_SIZE = 16384;
+    private static final int DEFAULT_CHUNK_DELAY = 10;
+    private static final int DEFAULT_UPDATE_INTERVAL = 1000;
 
     private Logger logger = LoggerFactory.getLogger(CloudService.class);
 
     public static String clientVersion = null;
     private CloudClient cloudClient;
+    private ItemUpdateBatcher itemUpdateBatcher;
     private String cloudBaseUrl = null;
     protected ItemRegistry itemRegistry = null;
     protected EventPublisher eventPublisher = null;
@@ -149,6 +158,10 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     protected void deactivate() {
         logger.debug("openHAB Cloud connector deactivated");
+        if (itemUpdateBatcher != null) {
+            itemUpdateBatcher.shutdown();
+            itemUpdateBatcher = null;
+        }
         cloudClient.shutdown();
     }
 
@@ -186,19 +199,46 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         logger.debug("UUID = " + InstanceUUID.get() + ", secret = " + getSecret());
 
+        if (itemUpdateBatcher != null) {
+            itemUpdateBatcher.shutdown();
+        }
         if (cloudClient != null) {
             cloudClient.shutdown();
         }
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl, remoteAccessEnabled,
-                exposedItems);
+                exposedItems, getIntConfig(config, CFG_MAX_REQUESTS, DEFAULT_MAX_REQUESTS),
+                getIntConfig(config, CFG_CHUNK_SIZE, DEFAULT_CHUNK_SIZE),
+                getIntConfig(config, CFG_CHUNK_DELAY, DEFAULT_CHUNK_DELAY));
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
+        itemUpdateBatcher = new ItemUpdateBatcher(cloudClient,
+                getIntConfig(config, CFG_UPDATE_INTERVAL, DEFAULT_UPDATE_INTERVAL));
         NotificationAction.cloudService = this;
     }
 
+    /**
+     * Reads a non-negative integer value from the configuration
+     */
+    private int getIntConfig(Map<String, ?> config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int intValue = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString());
+            if (intValue >= 0) {
+                return intValue;
+            }
+        } catch (NumberFormatException e) {
+            // use the default value
+        }
+        logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+        return defaultValue;
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -333,8 +373,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     @Override
     public void receive(Event event) {
         ItemStateEvent ise = (ItemStateEvent) event;
-        if (exposedItems != null && exposedItems.contains(ise.getItemName())) {
-            cloudClient.sendItemUpdate(ise.getItemName(), ise.getItemState().toString());
+        ItemUpdateBatcher batcher = itemUpdateBatcher;
+        if (batcher != null && exposedItems != null && exposedItems.contains(ise.getItemName())) {
+            batcher.update(ise.getItemName(), ise.getItemState().toString());
         }
     }
 
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class collects item updates for the openHAB Cloud and sends them together after an interval.
+ * Updates of the same item within the interval are coalesced, only the latest state is sent.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemUpdateBatcher {
+
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
+    private Logger logger = LoggerFactory.getLogger(ItemUpdateBatcher.class);
+
+    private final CloudClient cloudClient;
+    private final int interval;
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD);
+
+    /*
+     * Updates waiting to be sent, guarded by itself
+     */
+    private final Map<String, String> pendingUpdates = new LinkedHashMap<String, String>();
+    private ScheduledFuture<?> flushTask;
+    private boolean stopped;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Constructor of ItemUpdateBatcher
+     *
+     * @param cloudClient the client to send the updates with
+     * @param interval interval in milliseconds to collect updates, 0 to send each update immediately
+     */
+    public ItemUpdateBatcher(CloudClient cloudClient, int interval) {
+        this.cloudClient = cloudClient;
+        this.interval = interval;
+    }
+
+    /**
+     * Adds an item update, replacing a pending update of the same item
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     */
+    public void update(String itemName, String itemState) {
+        receivedCount.incrementAndGet();
+        synchronized (pendingUpdates) {
+            if (stopped) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            if (interval <= 0) {
+                Map<String, String> update = new LinkedHashMap<String, String>();
+                update.put(itemName, itemState);
+                send(update);
+                return;
+            }
+            if (pendingUpdates.put(itemName, itemState) != null) {
+                coalescedCount.incrementAndGet();
+            }
+            if (flushTask == null) {
+                flushTask = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends all pending updates
+     */
+    public void flush() {
+        Map<String, String> updates;
+        synchronized (pendingUpdates) {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            updates = new LinkedHashMap<String, String>(pendingUpdates);
+            pendingUpdates.clear();
+        }
+        send(updates);
+        logger.trace("Item updates: {}", this);
+    }
+
+    /**
+     * Sends pending updates and stops collecting updates
+     */
+    public void shutdown() {
+        synchronized (pendingUpdates) {
+            stopped = true;
+        }
+        flush();
+        logger.debug("Item updates: {}", this);
+    }
+
+    private void send(Map<String, String> updates) {
+        if (cloudClient.isConnected()) {
+            cloudClient.sendItemUpdates(updates);
+            sentCount.addAndGet(updates.size());
+        } else {
+            logger.debug("No connection, {} item updates are not sent", updates.size());
+            droppedCount.addAndGet(updates.size());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "received=" + receivedCount + ", sent=" + sentCount + ", coalesced=" + coalescedCount + ", dropped="
+                + droppedCount;
+    }
+
+}
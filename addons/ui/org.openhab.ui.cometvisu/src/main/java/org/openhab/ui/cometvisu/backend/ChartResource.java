@@ -11,17 +11,22 @@ package org.openhab.ui.cometvisu.backend;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -33,6 +38,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
@@ -81,8 +87,20 @@ public class ChartResource implements RESTResource {
 
     static protected Map<String, QueryablePersistenceService> persistenceServices = new HashMap<String, QueryablePersistenceService>();
 
+    private static final String THREADPOOL_NAME = "cometvisu";
+
+    private static final int MAX_CACHED_SERIES = 64;
+
     private ItemRegistry itemRegistry;
 
+    @SuppressWarnings("serial")
+    private final Map<String, CachedSeries> seriesCache = new LinkedHashMap<String, CachedSeries>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSeries> eldest) {
+            return size() > MAX_CACHED_SERIES;
+        }
+    };
+
     @Context
     private UriInfo uriInfo;
 
@@ -108,6 +126,12 @@ public class ChartResource implements RESTResource {
         this.itemRegistry = null;
     }
 
+    protected void deactivate() {
+        synchronized (seriesCache) {
+            seriesCache.clear();
+        }
+    }
+
     @GET
     @Produces({ MediaType.APPLICATION_JSON })
     public Response getChartSeries(@Context HttpHeaders headers, @QueryParam("rrd") String itemName,
@@ -216,7 +240,6 @@ public class ChartResource implements RESTResource {
      */
     public Object getRrdSeries(QueryablePersistenceService persistenceService, Item item,
             ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) {
-        Map<Long, ArrayList<String>> data = new TreeMap<Long, ArrayList<String>>();
         try {
             List<String> itemNames = new ArrayList<String>();
 
@@ -228,9 +251,11 @@ public class ChartResource implements RESTResource {
             } else {
                 itemNames.add(item.getName());
             }
-            for (String itemName : itemNames) {
-                addRrdData(data, itemName, consilidationFunction, timeBegin, timeEnd, resolution);
+            if (itemNames.isEmpty()) {
+                return new ArrayList<Object>();
             }
+            return getRrdSeriesJson(itemNames, consilidationFunction, Util.getTimestamp(timeBegin),
+                    Util.getTimestamp(timeEnd), resolution);
 
         } catch (FileNotFoundException e) {
             // rrd file does not exist, fallback to generic persistance service
@@ -240,7 +265,150 @@ public class ChartResource implements RESTResource {
             logger.error(e.getLocalizedMessage() + ": fallback to generic persistance service");
             return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
         }
-        return convertToRrd(data);
+    }
+
+    /**
+     * returns the rrd series of the items as JSON. The requested period is
+     * aligned to the step of the RRD, so all requests within the same step
+     * share the cached response. The end is rounded up to keep the newest
+     * partial step in the series.
+     */
+    private byte[] getRrdSeriesJson(List<String> itemNames, ConsolFun consilidationFunction, long start, long end,
+            long resolution) throws IOException {
+        long rrdStep;
+        RrdDb rrdDb = openRrdDb(itemNames.get(0));
+        try {
+            rrdStep = rrdDb.getHeader().getStep();
+        } finally {
+            rrdDb.close();
+        }
+        long step = Math.max(1, Math.max(resolution, rrdStep));
+        long alignedStart = start - start % step;
+        long alignedEnd = end % step == 0 ? end : end - end % step + step;
+        String key = itemNames + ":" + consilidationFunction + ":" + alignedStart + ":" + alignedEnd + ":"
+                + resolution;
+
+        long now = System.currentTimeMillis();
+        synchronized (seriesCache) {
+            CachedSeries cached = seriesCache.get(key);
+            if (cached != null && cached.validUntil > now) {
+                logger.debug("serving cached series of '{}'", itemNames);
+                return cached.json;
+            }
+        }
+
+        FetchData[] series = fetchRrdData(itemNames, consilidationFunction, alignedStart, alignedEnd, resolution);
+        byte[] json = toJson(series).getBytes(StandardCharsets.UTF_8);
+        synchronized (seriesCache) {
+            // new values are written once per step at most
+            seriesCache.put(key, new CachedSeries(json, now + step * 1000));
+        }
+        return json;
+    }
+
+    /**
+     * fetches the series of the items, multiple items in parallel
+     */
+    private FetchData[] fetchRrdData(List<String> itemNames, final ConsolFun consilidationFunction,
+            final long start, final long end, final long resolution) throws IOException {
+        FetchData[] series = new FetchData[itemNames.size()];
+        if (series.length == 1) {
+            series[0] = fetchRrdData(itemNames.get(0), consilidationFunction, start, end, resolution);
+            return series;
+        }
+
+        List<Callable<FetchData>> fetches = new ArrayList<Callable<FetchData>>();
+        for (final String itemName : itemNames) {
+            fetches.add(new Callable<FetchData>() {
+                @Override
+                public FetchData call() throws IOException {
+                    return fetchRrdData(itemName, consilidationFunction, start, end, resolution);
+                }
+            });
+        }
+        try {
+            List<Future<FetchData>> results = ThreadPoolManager.getPool(THREADPOOL_NAME).invokeAll(fetches);
+            for (int i = 0; i < series.length; i++) {
+                series[i] = results.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        return series;
+    }
+
+    private FetchData fetchRrdData(String itemName, ConsolFun consilidationFunction, long start, long end,
+            long resolution) throws IOException {
+        // opened per request, so values written by the rrd4j persistence
+        // service in the meantime are always seen
+        RrdDb rrdDb = openRrdDb(itemName);
+        FetchData fetchData;
+        try {
+            FetchRequest fetchRequest = rrdDb.createFetchRequest(consilidationFunction, start, end, resolution);
+            fetchData = fetchRequest.fetchData();
+        } finally {
+            rrdDb.close();
+        }
+
+        logger.debug("RRD fetch returned '{}' rows and '{}' columns", fetchData.getRowCount(),
+                fetchData.getColumnCount());
+        return fetchData;
+    }
+
+    /**
+     * merges the series by timestamp into rows of
+     * [timestamp,[data1,data2,...]], values missing in a series are "null"
+     */
+    private String toJson(FetchData[] series) {
+        DecimalFormat format = (DecimalFormat) NumberFormat.getNumberInstance(Locale.ENGLISH);
+        format.applyPattern(PATTERN);
+
+        int[] positions = new int[series.length];
+        StringBuilder json = new StringBuilder(series[0].getRowCount() * (series.length * 20 + 20) + 2);
+        json.append('[');
+        while (true) {
+            // the next timestamp is the smallest one not written yet
+            long time = Long.MAX_VALUE;
+            for (int i = 0; i < series.length; i++) {
+                if (positions[i] < series[i].getRowCount()) {
+                    time = Math.min(time, series[i].getTimestamps()[positions[i]]);
+                }
+            }
+            if (time == Long.MAX_VALUE) {
+                break;
+            }
+
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            // change to microseconds
+            json.append('[').append(time * 1000).append(",[");
+            boolean first = true;
+            for (int i = 0; i < series.length; i++) {
+                boolean hasRow = positions[i] < series[i].getRowCount()
+                        && series[i].getTimestamps()[positions[i]] == time;
+                double[][] values = series[i].getValues();
+                for (int dsIndex = 0; dsIndex < series[i].getColumnCount(); dsIndex++) {
+                    if (!first) {
+                        json.append(',');
+                    }
+                    double value = hasRow ? values[dsIndex][positions[i]] : Double.NaN;
+                    json.append('"').append(Double.isNaN(value) ? "null" : format.format(value)).append('"');
+                    first = false;
+                }
+                if (hasRow) {
+                    positions[i]++;
+                }
+            }
+            json.append("]]");
+        }
+        return json.append(']').toString();
     }
 
     private ArrayList<Object> convertToRrd(Map<Long, ArrayList<String>> data) {
@@ -256,35 +424,12 @@ public class ChartResource implements RESTResource {
         return rrd;
     }
 
-    private Map<Long, ArrayList<String>> addRrdData(Map<Long, ArrayList<String>> data, String itemName,
-            ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) throws IOException {
-        RrdDb rrdDb = new RrdDb(RRD_FOLDER + File.separator + itemName + ".rrd");
-        FetchRequest fetchRequest = rrdDb.createFetchRequest(consilidationFunction, Util.getTimestamp(timeBegin),
-                Util.getTimestamp(timeEnd), resolution);
-        FetchData fetchData = fetchRequest.fetchData();
-        // logger.info(fetchData.toString());
-        long[] timestamps = fetchData.getTimestamps();
-        double[][] values = fetchData.getValues();
-
-        logger.debug("RRD fetch returned '{}' rows and '{}' columns", fetchData.getRowCount(),
-                fetchData.getColumnCount());
-
-        for (int row = 0; row < fetchData.getRowCount(); row++) {
-            // change to microseconds
-            long time = timestamps[row] * 1000;
-
-            if (!data.containsKey(time)) {
-                data.put(time, new ArrayList<String>());
-            }
-            ArrayList<String> vals = data.get(time);
-            int indexOffset = vals.size();
-            for (int dsIndex = 0; dsIndex < fetchData.getColumnCount(); dsIndex++) {
-                vals.add(dsIndex + indexOffset, formatDouble(values[dsIndex][row], "null", true));
-            }
+    private RrdDb openRrdDb(String itemName) throws IOException {
+        String path = RRD_FOLDER + File.separator + itemName + ".rrd";
+        if (!new File(path).exists()) {
+            throw new FileNotFoundException(path);
         }
-        rrdDb.close();
-
-        return data;
+        return new RrdDb(path, true);
     }
 
     static String formatDouble(double x, String nanString, boolean forceExponents) {
@@ -296,4 +441,14 @@ public class ChartResource implements RESTResource {
         }
         return "" + x;
     }
+
+    private static class CachedSeries {
+        private final byte[] json;
+        private final long validUntil;
+
+        public CachedSeries(byte[] json, long validUntil) {
+            this.json = json;
+            this.validUntil = validUntil;
+        }
+    }
 }
@@ -8,10 +8,7 @@
  */
 package org.openhab.ui.cometvisu.backend;
 
-import java.util.Map;
-
 import org.eclipse.smarthome.core.items.Item;
-import org.eclipse.smarthome.core.types.State;
 
 /**
  * Broadcast state change events of items to listening clients
@@ -21,15 +18,23 @@ import org.eclipse.smarthome.core.types.State;
  */
 public interface EventBroadcaster {
     /**
-     * Broadcasts an event described by the given parameters to all currently
-     * listening clients.
+     * Sends the current state of the item to all clients which requested it.
+     *
+     * @param item
+     *            - the item which has changed
+     */
+    public void broadcastStateChange(Item item);
+
+    /**
+     * Sends the current state of the item to all clients which requested it
+     * converted to a certain type, as the converted state can change even if
+     * the item state itself did not (e.g. the number of active members of a
+     * group).
      *
      * @param item
-     *            - the item that should be broadcasted
-     * @param eventObject
-     *            - bean that can be converted to a JSON object.
+     *            - the item which has been updated
      */
-    public void broadcastEvent(final Object eventObject);
+    public void broadcastStateUpdate(Item item);
 
     /**
      * listens to state changes of the given item, if it is part of the
@@ -53,14 +58,4 @@ public interface EventBroadcaster {
      * listen for state changes from the requested items
      */
     public void registerItems();
-
-    /**
-     * lists all client item names and the associated type which must be notified
-     * when the item changes
-     *
-     * @param item
-     *            - the item that is listened to
-     * @return
-     */
-    public Map<String, Class<? extends State>> getClientItems(Item item);
 }
@@ -12,11 +12,18 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -35,7 +42,7 @@ import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
+import org.glassfish.jersey.media.sse.OutboundEvent;
 import org.glassfish.jersey.media.sse.SseFeature;
 import org.openhab.ui.cometvisu.backend.beans.StateBean;
 import org.openhab.ui.cometvisu.internal.Config;
@@ -55,16 +62,48 @@ import org.slf4j.LoggerFactory;
 public class ReadResource implements EventBroadcaster, RESTResource {
     private static final Logger logger = LoggerFactory.getLogger(ReadResource.class);
 
-    private SseBroadcaster broadcaster = new SseBroadcaster();
+    /*
+     * Interval in seconds to check the connections of all clients
+     */
+    private static final long SWEEP_INTERVAL = 60;
+
+    /*
+     * A comment is ignored by the clients, but the write fails if the client has disconnected
+     */
+    private static final OutboundEvent KEEPALIVE = new OutboundEvent.Builder().comment("keepalive").build();
 
-    private final ExecutorService executorService;
+    private final ScheduledExecutorService executorService;
+    private final ScheduledFuture<?> sweepJob;
 
     private ItemRegistry itemRegistry;
 
     private StateEventListener stateEventListener;
 
-    private List<String> itemNames = new ArrayList<String>();
-    private Map<Item, Map<String, Class<? extends State>>> items = new HashMap<Item, Map<String, Class<? extends State>>>();
+    /*
+     * Clients which requested an item, by openHAB item name, modified only while holding the map
+     */
+    private final Map<String, Set<ClientSession>> subscriptions = new ConcurrentHashMap<String, Set<ClientSession>>();
+
+    /*
+     * Items with state changes, which have not been sent yet, guarded by itself
+     */
+    private final Map<String, Item> pendingItems = new LinkedHashMap<String, Item>();
+    private final Set<String> pendingChanges = new HashSet<String>();
+    private boolean flushScheduled;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private final Runnable sweepTask = new Runnable() {
+        @Override
+        public void run() {
+            sweep();
+        }
+    };
 
     @Context
     private UriInfo uriInfo;
@@ -78,11 +117,32 @@ public class ReadResource implements EventBroadcaster, RESTResource {
     private Collection<ItemFactory> itemFactories = new CopyOnWriteArrayList<ItemFactory>();
 
     public ReadResource() {
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadScheduledExecutor();
+        this.sweepJob = this.executorService.scheduleWithFixedDelay(sweepTask, SWEEP_INTERVAL, SWEEP_INTERVAL,
+                TimeUnit.SECONDS);
         this.stateEventListener = new StateEventListener();
         this.stateEventListener.setEventBroadcaster(this);
     }
 
+    /**
+     * Closes the connections of all clients, so they reconnect to a new instance, and stops the thread sending the
+     * states.
+     */
+    protected void deactivate() {
+        sweepJob.cancel(false);
+        Set<ClientSession> sessions = new HashSet<ClientSession>();
+        synchronized (subscriptions) {
+            for (Set<ClientSession> itemSessions : subscriptions.values()) {
+                sessions.addAll(itemSessions);
+            }
+            subscriptions.clear();
+        }
+        for (ClientSession session : sessions) {
+            session.close();
+        }
+        executorService.shutdownNow();
+    }
+
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
     }
@@ -100,10 +160,10 @@ public class ReadResource implements EventBroadcaster, RESTResource {
     }
 
     /**
-     * Subscribes the connecting client to the stream of events filtered by the
-     * given eventFilter.
+     * Subscribes the connecting client to the state changes of the requested
+     * items.
      *
-     * @param eventFilter
+     * @param itemNames
      * @return {@link EventOutput} object associated with the incoming
      *         connection.
      * @throws IOException
@@ -113,17 +173,11 @@ public class ReadResource implements EventBroadcaster, RESTResource {
     @Produces(SseFeature.SERVER_SENT_EVENTS)
     public Object getStates(@QueryParam("a") List<String> itemNames, @QueryParam("i") long index,
             @QueryParam("t") long time) throws IOException, InterruptedException {
-        final EventOutput eventOutput = new EventOutput();
-
-        this.itemNames = itemNames;
-
-        broadcaster.add(eventOutput);
+        final ClientSession session = new ClientSession(new EventOutput());
 
         // get all requested items and send their states to the client
-        items = new HashMap<Item, Map<String, Class<? extends State>>>();
-        // send the current states of all items to the client
         if (this.itemRegistry != null) {
-            List<StateBean> states = new ArrayList<StateBean>();
+            final List<StateBean> states = new ArrayList<StateBean>();
             for (String cvItemName : itemNames) {
                 try {
                     String[] parts = cvItemName.split(":");
@@ -141,31 +195,27 @@ public class ReadResource implements EventBroadcaster, RESTResource {
                         ohItemName = parts[1];
                     }
                     Item item = this.itemRegistry.getItem(ohItemName);
-                    if (!items.containsKey(item)) {
-                        items.put(item, new HashMap<String, Class<? extends State>>());
-                    }
-                    items.get(item).put(cvItemName, stateClass);
+                    session.addItem(ohItemName, cvItemName, stateClass);
                     StateBean itemState = new StateBean();
                     itemState.name = cvItemName;
-
-                    if (stateClass != null) {
-                        itemState.state = item.getStateAs(stateClass).toString();
-                        logger.trace("get state of '{}' as '{}' == '{}'", item, stateClass, itemState.state);
-                    } else {
-                        itemState.state = item.getState().toString();
-                    }
+                    itemState.state = getState(item, stateClass);
                     states.add(itemState);
                 } catch (ItemNotFoundException e) {
                     logger.error(e.getLocalizedMessage());
                 }
             }
-            logger.debug("initially broadcasting " + states.size() + "/" + itemNames.size() + " item states");
-            broadcaster.broadcast(SseUtil.buildEvent(states));
+            logger.debug("initially sending " + states.size() + "/" + itemNames.size() + " item states");
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    session.send(SseUtil.buildEvent(states));
+                }
+            });
         }
         // listen to state changes of the requested items
-        registerItems();
+        subscribe(session);
 
-        return eventOutput;
+        return session.eventOutput;
     }
 
     /**
@@ -173,9 +223,14 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void registerItems() {
-        for (Item item : items.keySet()) {
-            if (item instanceof GenericItem) {
-                ((GenericItem) item).addStateChangeListener(stateEventListener);
+        if (itemRegistry == null) {
+            return;
+        }
+        for (String itemName : subscriptions.keySet()) {
+            try {
+                registerItem(itemRegistry.getItem(itemName));
+            } catch (ItemNotFoundException e) {
+                logger.debug("Requested item '{}' does not exist", itemName);
             }
         }
     }
@@ -189,52 +244,235 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void registerItem(Item item) {
-        if (item == null || items.containsKey(item) || !itemNames.contains(item.getName()))
+        if (item == null || !subscriptions.containsKey(item.getName())) {
             return;
+        }
         if (item instanceof GenericItem) {
             ((GenericItem) item).addStateChangeListener(stateEventListener);
         }
     }
 
     /**
-     * listens to state changes of the given item, if it is part of the
-     * requested items
+     * stops listening to state changes of the given item
      *
      * @param item
-     *            - the new item, that should be listened to
+     *            - the item, that should not be listened to anymore
      */
     @Override
     public void unregisterItem(Item item) {
-        if (item == null || items.containsKey(item) || !itemNames.contains(item.getName()))
-            return;
         if (item instanceof GenericItem) {
             ((GenericItem) item).removeStateChangeListener(stateEventListener);
-            items.remove(item);
+        }
+    }
+
+    @Override
+    public void broadcastStateChange(Item item) {
+        schedule(item, true);
+    }
+
+    @Override
+    public void broadcastStateUpdate(Item item) {
+        schedule(item, false);
+    }
+
+    /**
+     * Adds the client to the subscribers of its requested items.
+     */
+    private void subscribe(ClientSession session) {
+        synchronized (subscriptions) {
+            for (String itemName : session.items.keySet()) {
+                Set<ClientSession> sessions = subscriptions.get(itemName);
+                if (sessions == null) {
+                    sessions = new CopyOnWriteArraySet<ClientSession>();
+                    subscriptions.put(itemName, sessions);
+                    if (itemRegistry != null) {
+                        registerItem(itemRegistry.get(itemName));
+                    }
+                }
+                sessions.add(session);
+            }
         }
     }
 
     /**
-     * Broadcasts an event described by the given parameters to all currently
-     * listening clients.
+     * Removes a disconnected client from the subscribers of its requested
+     * items, items without subscribers are not listened to anymore.
+     */
+    private void unsubscribe(ClientSession session) {
+        synchronized (subscriptions) {
+            for (String itemName : session.items.keySet()) {
+                Set<ClientSession> sessions = subscriptions.get(itemName);
+                if (sessions != null && sessions.remove(session) && sessions.isEmpty()) {
+                    subscriptions.remove(itemName);
+                    if (itemRegistry != null) {
+                        unregisterItem(itemRegistry.get(itemName));
+                    }
+                }
+            }
+        }
+        logger.debug("client disconnected, {} items are still requested", subscriptions.size());
+    }
+
+    /**
+     * Queues the item for sending its state, changes of an item which is
+     * already queued are coalesced.
      *
      * @param item
      *            - the item which has changed
-     * @param eventObject
-     *            - bean that can be converted to a JSON object.
+     * @param changed
+     *            - true if the item state changed, false if the item was only
+     *            updated
      */
-    @Override
-    public void broadcastEvent(final Object eventObject) {
-        executorService.execute(new Runnable() {
+    private void schedule(Item item, boolean changed) {
+        if (!subscriptions.containsKey(item.getName())) {
+            return;
+        }
+        synchronized (pendingItems) {
+            pendingItems.put(item.getName(), item);
+            if (changed) {
+                pendingChanges.add(item.getName());
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                executorService.execute(flushTask);
+            }
+        }
+    }
+
+    /**
+     * Sends the current states of all queued items to the clients which
+     * requested them. Each state is converted once and each distinct message
+     * is serialized once.
+     */
+    private void flush() {
+        Map<String, Item> items;
+        Set<String> changes;
+        synchronized (pendingItems) {
+            items = new LinkedHashMap<String, Item>(pendingItems);
+            changes = new HashSet<String>(pendingChanges);
+            pendingItems.clear();
+            pendingChanges.clear();
+            flushScheduled = false;
+        }
+
+        Map<ClientSession, List<StateBean>> messages = new LinkedHashMap<ClientSession, List<StateBean>>();
+        for (Item item : items.values()) {
+            Set<ClientSession> sessions = subscriptions.get(item.getName());
+            if (sessions == null) {
+                continue;
+            }
+            boolean changed = changes.contains(item.getName());
+            Map<String, StateBean> states = new HashMap<String, StateBean>();
+            for (ClientSession session : sessions) {
+                for (Map.Entry<String, Class<? extends State>> clientItem : session.items.get(item.getName())
+                        .entrySet()) {
+                    // on updates without change only converted states can differ
+                    if (!changed && clientItem.getValue() == null) {
+                        continue;
+                    }
+                    StateBean stateBean = states.get(clientItem.getKey());
+                    if (stateBean == null) {
+                        stateBean = new StateBean();
+                        stateBean.name = clientItem.getKey();
+                        stateBean.state = getState(item, clientItem.getValue());
+                        states.put(clientItem.getKey(), stateBean);
+                    }
+                    List<StateBean> message = messages.get(session);
+                    if (message == null) {
+                        message = new ArrayList<StateBean>();
+                        messages.put(session, message);
+                    }
+                    message.add(stateBean);
+                }
+            }
+        }
 
-            @Override
-            public void run() {
-                broadcaster.broadcast(SseUtil.buildEvent(eventObject));
+        Map<String, OutboundEvent> events = new HashMap<String, OutboundEvent>();
+        for (Map.Entry<ClientSession, List<StateBean>> message : messages.entrySet()) {
+            String data = SseUtil.serialize(message.getValue());
+            OutboundEvent event = events.get(data);
+            if (event == null) {
+                event = SseUtil.buildEvent(data);
+                events.put(data, event);
             }
-        });
+            message.getKey().send(event);
+        }
+        logger.trace("sent {} item states in {} messages to {} clients", items.size(), events.size(),
+                messages.size());
     }
 
-    @Override
-    public Map<String, Class<? extends State>> getClientItems(Item item) {
-        return items.get(item);
+    /**
+     * Closed connections are only noticed when writing to them. Writes a comment to all
+     * clients, so clients whose items don't change are unsubscribed after they
+     * disconnected.
+     */
+    private void sweep() {
+        Set<ClientSession> sessions = new HashSet<ClientSession>();
+        for (Set<ClientSession> itemSessions : subscriptions.values()) {
+            sessions.addAll(itemSessions);
+        }
+        for (ClientSession session : sessions) {
+            session.send(KEEPALIVE);
+        }
+    }
+
+    private String getState(Item item, Class<? extends State> stateClass) {
+        if (stateClass != null) {
+            String state = item.getStateAs(stateClass).toString();
+            logger.trace("get state of '{}' as '{}' == '{}'", item, stateClass, state);
+            return state;
+        } else {
+            return item.getState().toString();
+        }
+    }
+
+    /**
+     * A connected client with the items it requested.
+     */
+    private class ClientSession {
+        private final EventOutput eventOutput;
+
+        /*
+         * client item names and the associated type by openHAB item name
+         */
+        private final Map<String, Map<String, Class<? extends State>>> items = new HashMap<>();
+
+        public ClientSession(EventOutput eventOutput) {
+            this.eventOutput = eventOutput;
+        }
+
+        public void addItem(String ohItemName, String cvItemName, Class<? extends State> stateClass) {
+            Map<String, Class<? extends State>> clientItems = items.get(ohItemName);
+            if (clientItems == null) {
+                clientItems = new HashMap<String, Class<? extends State>>();
+                items.put(ohItemName, clientItems);
+            }
+            clientItems.put(cvItemName, stateClass);
+        }
+
+        /**
+         * Sends the event to the client, closed connections are unsubscribed.
+         */
+        public void send(OutboundEvent event) {
+            if (eventOutput.isClosed()) {
+                unsubscribe(this);
+                return;
+            }
+            try {
+                eventOutput.write(event);
+            } catch (IOException e) {
+                logger.debug("could not send to client: {}", e.getMessage());
+                unsubscribe(this);
+                close();
+            }
+        }
+
+        public void close() {
+            try {
+                eventOutput.close();
+            } catch (IOException e) {
+                // already broken
+            }
+        }
     }
 }
@@ -76,14 +76,19 @@ import org.xml.sax.SAXException;
  *
  */
 public class VisuConfig {
-    private final Logger logger = LoggerFactory.getLogger(VisuConfig.class);
-
-    private Sitemap sitemap;
+    private static final Logger logger = LoggerFactory.getLogger(VisuConfig.class);
 
     /**
      * relative path to the config XSD schema
      */
-    private final String schemaFile = "visu_config.xsd";
+    private static final String SCHEMA_FILE = "visu_config.xsd";
+
+    private static JAXBContext jaxbContext;
+    private static Schema schema;
+    private static String schemaPath;
+    private static long schemaModified;
+
+    private Sitemap sitemap;
 
     private CometVisuApp app;
 
@@ -104,6 +109,17 @@ public class VisuConfig {
      * @return valid XML config
      */
     public String getConfigXml(HttpServletRequest req) {
+        return getConfigXml(getSchemaLocation(req));
+    }
+
+    /**
+     * generates a CometVisu config file from a sitemap
+     *
+     * @param schemaLocation
+     *            location of the XSD file relative to the config file
+     * @return valid XML config
+     */
+    public String getConfigXml(String schemaLocation) {
         SchemaPages pagesBean = new SchemaPages();
         pagesBean.setBackend("oh2");
         pagesBean.setDesign("metal");
@@ -112,15 +128,7 @@ public class VisuConfig {
 
         pagesBean.setLibVersion(BigInteger.valueOf(LibVersion.no));
         pagesBean.setScrollSpeed(new BigDecimal(0));
-
-        // set relative path to XSD file
-        int requestFolders = req.getPathInfo().substring(1).split("/").length;
-        logger.debug("requestPath '{}' has '{}' parts", req.getPathInfo(), requestFolders);
-        String relXsd = "";
-        for (int i = 1; i < requestFolders; i++) {
-            relXsd += "../";
-        }
-        pagesBean.setNoNamespaceSchemaLocation(relXsd + schemaFile);
+        pagesBean.setNoNamespaceSchemaLocation(schemaLocation);
 
         Meta meta = new Meta();
         pagesBean.setMeta(meta);
@@ -128,18 +136,28 @@ public class VisuConfig {
         configHelper = new ConfigHelper(pagesBean, app, sitemap.getName());
         createPages(pagesBean);
 
-        return marshal(pagesBean, rootFolder.getAbsolutePath() + File.separator + schemaFile);
+        return marshal(pagesBean, rootFolder.getAbsolutePath() + File.separator + SCHEMA_FILE);
+    }
+
+    /**
+     * returns the location of the XSD file relative to the requested config
+     * file
+     */
+    public static String getSchemaLocation(HttpServletRequest req) {
+        int requestFolders = req.getPathInfo().substring(1).split("/").length;
+        logger.debug("requestPath '{}' has '{}' parts", req.getPathInfo(), requestFolders);
+        String relXsd = "";
+        for (int i = 1; i < requestFolders; i++) {
+            relXsd += "../";
+        }
+        return relXsd + SCHEMA_FILE;
     }
 
     private String marshal(Pages bean, String xsdSchema) {
         String res = "";
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(bean.getClass());
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = (xsdSchema == null || xsdSchema.trim().length() == 0) ? null
-                    : schemaFactory.newSchema(new File(xsdSchema));
-            Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setSchema(schema);
+            Marshaller marshaller = getJaxbContext().createMarshaller();
+            marshaller.setSchema(getSchema(xsdSchema));
             marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
             marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
             StringWriter sw = new StringWriter();
@@ -153,6 +171,35 @@ public class VisuConfig {
         return res;
     }
 
+    /**
+     * the JAXBContext is thread safe and expensive to create, so it is shared
+     * by all configs
+     */
+    private static synchronized JAXBContext getJaxbContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(SchemaPages.class);
+        }
+        return jaxbContext;
+    }
+
+    /**
+     * returns the compiled schema, which is compiled again only if the XSD
+     * file has been modified
+     */
+    private static synchronized Schema getSchema(String xsdSchema) throws SAXException {
+        if (xsdSchema == null || xsdSchema.trim().length() == 0) {
+            return null;
+        }
+        File xsdFile = new File(xsdSchema);
+        if (schema == null || !xsdFile.getPath().equals(schemaPath) || xsdFile.lastModified() != schemaModified) {
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            schema = schemaFactory.newSchema(xsdFile);
+            schemaPath = xsdFile.getPath();
+            schemaModified = xsdFile.lastModified();
+        }
+        return schema;
+    }
+
     private Pages createPages(Pages pagesBean) {
         Page rootPage = new Page();
         rootPage.setName(sitemap.getName());
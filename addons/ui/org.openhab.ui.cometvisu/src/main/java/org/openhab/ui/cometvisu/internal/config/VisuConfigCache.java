@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.eclipse.smarthome.model.sitemap.Sitemap;
+import org.openhab.ui.cometvisu.servlet.CometVisuApp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the CometVisu configs generated from the sitemaps. A config is
+ * generated again when its sitemap has been reloaded or when the items have
+ * changed, as the item types and labels are part of the config.
+ *
+ * @author agent - Initial contribution
+ * @since 2.0.0
+ */
+public class VisuConfigCache implements ItemRegistryChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(VisuConfigCache.class);
+
+    private final Map<String, CachedConfig> configs = new ConcurrentHashMap<String, CachedConfig>();
+
+    /**
+     * incremented on every invalidation, so configs generated from outdated
+     * items are not cached
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * returns the config of the sitemap, generating it if it is not cached
+     *
+     * @param sitemap
+     *            the sitemap to generate the config from
+     * @param app
+     *            the CometVisu app
+     * @param rootFolder
+     *            the CometVisu root folder
+     * @param schemaLocation
+     *            location of the XSD file relative to the config file
+     * @return the config
+     */
+    public CachedConfig getConfig(Sitemap sitemap, CometVisuApp app, File rootFolder, String schemaLocation) {
+        String key = sitemap.getName() + ":" + schemaLocation;
+        CachedConfig config = configs.get(key);
+        if (config != null && config.sitemap == sitemap) {
+            return config;
+        }
+
+        long generation = version.get();
+        String xml = new VisuConfig(sitemap, app, rootFolder).getConfigXml(schemaLocation);
+        config = new CachedConfig(sitemap, xml.getBytes(StandardCharsets.UTF_8));
+        if (!xml.isEmpty() && version.get() == generation) {
+            configs.put(key, config);
+        }
+        logger.debug("generated config of sitemap '{}'", sitemap.getName());
+        return config;
+    }
+
+    /**
+     * removes all cached configs
+     */
+    public void clear() {
+        version.incrementAndGet();
+        configs.clear();
+    }
+
+    @Override
+    public void added(Item element) {
+        clear();
+    }
+
+    @Override
+    public void removed(Item element) {
+        clear();
+    }
+
+    @Override
+    public void updated(Item oldElement, Item element) {
+        clear();
+    }
+
+    @Override
+    public void allItemsChanged(Collection<String> oldItemNames) {
+        clear();
+    }
+
+    /**
+     * A generated config with its precompressed content.
+     */
+    public static class CachedConfig {
+        private final Sitemap sitemap;
+        private final byte[] xml;
+        private final byte[] gzippedXml;
+        private final String eTag;
+
+        private CachedConfig(Sitemap sitemap, byte[] xml) {
+            this.sitemap = sitemap;
+            this.xml = xml;
+            this.gzippedXml = gzip(xml);
+            this.eTag = "\"" + Integer.toHexString(xml.length) + "-" + Integer.toHexString(Arrays.hashCode(xml))
+                    + "\"";
+        }
+
+        public byte[] getXml() {
+            return xml;
+        }
+
+        /**
+         * @return the gzip compressed XML or null if it could not be compressed
+         */
+        public byte[] getGzippedXml() {
+            return gzippedXml;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        private static byte[] gzip(byte[] content) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+                gzip.write(content);
+            } catch (IOException e) {
+                logger.debug("could not compress config: {}", e.getMessage());
+                return null;
+            }
+            return bos.toByteArray();
+        }
+    }
+}
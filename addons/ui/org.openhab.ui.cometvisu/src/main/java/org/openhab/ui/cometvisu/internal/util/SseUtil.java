@@ -22,6 +22,8 @@ import org.openhab.ui.cometvisu.internal.StateBeanMessageBodyWriter;
  */
 public class SseUtil {
 
+    private static final StateBeanMessageBodyWriter WRITER = new StateBeanMessageBodyWriter();
+
     /**
      * Creates a new {@link OutboundEvent} object containing an
      * {@link StateBean} created for the given eventType, objectIdentifier,
@@ -37,16 +39,38 @@ public class SseUtil {
      */
     public static OutboundEvent buildEvent(Object eventObject) {
 
+        return buildEvent(serialize(eventObject));
+    }
+
+    /**
+     * Creates a new {@link OutboundEvent} object containing the already
+     * serialized state update message.
+     *
+     * @param message
+     *            - CV-Protocol state update json
+     * @return a new OutboundEvent.
+     */
+    public static OutboundEvent buildEvent(String message) {
         OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
-        StateBeanMessageBodyWriter writer = new StateBeanMessageBodyWriter();
-        // OutboundEvent event = eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE).data(eventObject).build();
         java.util.Date date = new java.util.Date();
-        OutboundEvent event = eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE)
-                .data(writer.serialize(eventObject)).id(String.valueOf(date.getTime())).build();
+        OutboundEvent event = eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE).data(message)
+                .id(String.valueOf(date.getTime())).build();
 
         return event;
     }
 
+    /**
+     * Serializes a {@link StateBean} or a list of them to the CV-Protocol
+     * state update json format.
+     *
+     * @param eventObject
+     *            - StateBean or List<StateBean>
+     * @return the serialized message
+     */
+    public static String serialize(Object eventObject) {
+        return WRITER.serialize(eventObject);
+    }
+
     /**
      * Used to mark our current thread(request processing) that SSE blocking
      * should be enabled.
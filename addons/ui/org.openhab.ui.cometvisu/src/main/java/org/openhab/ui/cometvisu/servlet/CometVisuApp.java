@@ -27,6 +27,7 @@ import org.eclipse.smarthome.model.sitemap.SitemapProvider;
 import org.eclipse.smarthome.ui.icon.IconProvider;
 import org.eclipse.smarthome.ui.items.ItemUIRegistry;
 import org.openhab.ui.cometvisu.internal.Config;
+import org.openhab.ui.cometvisu.internal.config.VisuConfigCache;
 import org.openhab.ui.cometvisu.php.PHProvider;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.cm.ConfigurationException;
@@ -61,6 +62,8 @@ public class CometVisuApp {
 
     private PHProvider phpProvider;
 
+    private final VisuConfigCache configCache = new VisuConfigCache();
+
     static protected Map<String, QueryablePersistenceService> persistenceServices = new HashMap<String, QueryablePersistenceService>();
 
     protected void setEventPublisher(EventPublisher eventPublisher) {
@@ -103,6 +106,7 @@ public class CometVisuApp {
 
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
+        itemRegistry.addRegistryChangeListener(configCache);
     }
 
     public ItemRegistry getItemRegistry() {
@@ -110,7 +114,9 @@ public class CometVisuApp {
     }
 
     protected void unsetItemRegistry(ItemRegistry itemRegistry) {
+        itemRegistry.removeRegistryChangeListener(configCache);
         this.itemRegistry = null;
+        configCache.clear();
     }
 
     public void setItemUIRegistry(ItemUIRegistry itemUIRegistry) {
@@ -123,10 +129,19 @@ public class CometVisuApp {
 
     public void addSitemapProvider(SitemapProvider provider) {
         sitemapProviders.add(provider);
+        configCache.clear();
     }
 
     public void removeSitemapProvider(SitemapProvider provider) {
         sitemapProviders.remove(provider);
+        configCache.clear();
+    }
+
+    /**
+     * @return the cache of the configs generated from sitemaps
+     */
+    public VisuConfigCache getConfigCache() {
+        return configCache;
     }
 
     public ItemUIRegistry getItemUIRegistry() {
@@ -251,6 +266,8 @@ public class CometVisuApp {
             unregisterServlet();
         }
         readConfiguration(configProps);
+        // the icon mappings are part of the generated configs
+        configCache.clear();
         if (configProps.containsKey(Config.COMETVISU_WEBFOLDER_PROPERTY)
                 || configProps.containsKey(Config.COMETVISU_WEBAPP_ALIAS_PROPERTY)) {
             registerServlet();
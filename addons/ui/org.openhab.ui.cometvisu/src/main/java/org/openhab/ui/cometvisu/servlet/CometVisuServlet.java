@@ -58,6 +58,7 @@ import org.eclipse.smarthome.model.sitemap.SitemapProvider;
 import org.openhab.ui.cometvisu.internal.Config;
 import org.openhab.ui.cometvisu.internal.config.ConfigHelper.Transform;
 import org.openhab.ui.cometvisu.internal.config.VisuConfig;
+import org.openhab.ui.cometvisu.internal.config.VisuConfigCache.CachedConfig;
 import org.openhab.ui.cometvisu.internal.editor.dataprovider.beans.DataBean;
 import org.openhab.ui.cometvisu.internal.editor.dataprovider.beans.ItemBean;
 import org.openhab.ui.cometvisu.internal.rrs.beans.Feed;
@@ -209,11 +210,27 @@ public class CometVisuServlet extends HttpServlet {
                 Sitemap sitemap = getSitemap(matcher.group(2));
                 if (sitemap != null) {
                     logger.debug("reading sitemap '{}'", sitemap);
-                    VisuConfig config = new VisuConfig(sitemap, cometVisuApp, rootFolder);
+                    CachedConfig config = cometVisuApp.getConfigCache().getConfig(sitemap, cometVisuApp,
+                            rootFolder, VisuConfig.getSchemaLocation(req));
+
+                    resp.setHeader("ETag", config.getETag());
+                    String ifNoneMatch = req.getHeader("If-None-Match");
+                    if (ifNoneMatch != null && matches(ifNoneMatch, config.getETag())) {
+                        resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                        return;
+                    }
 
-                    // logger.info("response: "+config.getConfigXml());
                     resp.setContentType(MediaType.APPLICATION_XML);
-                    resp.getWriter().write(config.getConfigXml(req));
+                    resp.setCharacterEncoding("UTF-8");
+                    resp.setHeader("Vary", "Accept-Encoding");
+                    byte[] content = config.getXml();
+                    String acceptEncoding = req.getHeader("Accept-Encoding");
+                    if (config.getGzippedXml() != null && acceptEncoding != null && accepts(acceptEncoding, "gzip")) {
+                        resp.setHeader("Content-Encoding", "gzip");
+                        content = config.getGzippedXml();
+                    }
+                    resp.setContentLength(content.length);
+                    resp.getOutputStream().write(content);
                     resp.flushBuffer();
 
                     return;